@@ -0,0 +1,76 @@
+package org.prt.prtvaccinationtracking_fhir.benchmark;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
+import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
+import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
+import org.prt.prtvaccinationtracking_fhir.auth.service.JwtService;
+import org.prt.prtvaccinationtracking_fhir.auth.service.PasswordService;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done on every login and token request: signing the access token and checking the
+ * password against a BCrypt hash or a legacy plain value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private JwtService jwtService;
+    private AuthenticatedUser user;
+    private PasswordService passwordService;
+    private String hashedPassword;
+
+    @Setup
+    public void setUp() {
+        AuthProperties properties = new AuthProperties();
+        SecretKeySpec key = new SecretKeySpec(
+                properties.getJwt().getSecret().getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        jwtService = new JwtService(new NimbusJwtEncoder(new ImmutableSecret<>(key)), properties);
+        user = new AuthenticatedUser(
+                "practitioner:pract-001",
+                "dr.huber",
+                UserRole.PRACTITIONER,
+                "Anna Huber",
+                "Practitioner/pract-001",
+                "pract-001",
+                List.of(),
+                List.of("pat-001", "pat-002"));
+
+        passwordService = new PasswordService(properties, new SimpleMeterRegistry());
+        hashedPassword = passwordService.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordService.shutdown();
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return jwtService.createAccessToken(user, "openid fhirUser launch/patient patient/*.read");
+    }
+
+    @Benchmark
+    public boolean matchesBcrypt() {
+        return passwordService.matches(PASSWORD, hashedPassword);
+    }
+
+    @Benchmark
+    public boolean matchesPlain() {
+        return passwordService.matches(PASSWORD, PASSWORD);
+    }
+}
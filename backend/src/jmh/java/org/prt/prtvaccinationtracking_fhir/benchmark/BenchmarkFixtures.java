@@ -0,0 +1,71 @@
+package org.prt.prtvaccinationtracking_fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.MapperSupport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Inputs shared by the benchmarks: the demo data from {@code seed/practitioner-view-bundle.json}
+ * (override with {@code -Dbenchmark.seed=<path>}) and mapper wiring without a Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final FhirContext FHIR = FhirContext.forR5();
+
+    static final ObjectMapper JSON = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static Bundle seed;
+
+    private BenchmarkFixtures() {
+    }
+
+    static synchronized Bundle seed() {
+        if (seed == null) {
+            Path path = Path.of(System.getProperty("benchmark.seed", "seed/practitioner-view-bundle.json"));
+            try {
+                seed = FHIR.newJsonParser().parseResource(Bundle.class, Files.readString(path));
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Cannot read seed bundle " + path.toAbsolutePath(), exception);
+            }
+        }
+        return seed;
+    }
+
+    /** First resource of the given type in the seed bundle. */
+    static <T extends Resource> T first(Class<T> resourceType) {
+        for (Bundle.BundleEntryComponent entry : seed().getEntry()) {
+            if (resourceType.isInstance(entry.getResource())) {
+                return resourceType.cast(entry.getResource());
+            }
+        }
+        throw new IllegalStateException("Seed bundle has no " + resourceType.getSimpleName());
+    }
+
+    /** MapperSupport backed by a directory holding the seed practitioners, never refreshed from a server. */
+    static MapperSupport mapperSupport() {
+        FhirProperties properties = new FhirProperties();
+        properties.getDirectory().setEnabled(false);
+
+        PractitionerDirectory directory = new PractitionerDirectory(null, properties, new SimpleMeterRegistry());
+        for (Bundle.BundleEntryComponent entry : seed().getEntry()) {
+            if (entry.getResource() instanceof Practitioner practitioner) {
+                directory.remember(practitioner);
+            }
+        }
+        return new MapperSupport(directory);
+    }
+}
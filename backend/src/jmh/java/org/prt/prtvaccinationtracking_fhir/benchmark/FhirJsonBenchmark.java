@@ -0,0 +1,54 @@
+package org.prt.prtvaccinationtracking_fhir.benchmark;
+
+import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.r5.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and encoding FHIR JSON with HAPI for the resource types the hot read endpoints
+ * return, plus the whole seed bundle as a stand-in for a searchset page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FhirJsonBenchmark {
+
+    @Param({"Patient", "Immunization", "Observation", "Appointment", "Encounter", "Bundle"})
+    public String resourceType;
+
+    private IParser parser;
+    private Class<? extends Resource> type;
+    private Resource resource;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        parser = BenchmarkFixtures.FHIR.newJsonParser();
+        type = switch (resourceType) {
+            case "Patient" -> Patient.class;
+            case "Immunization" -> Immunization.class;
+            case "Observation" -> Observation.class;
+            case "Appointment" -> Appointment.class;
+            case "Encounter" -> Encounter.class;
+            case "Bundle" -> Bundle.class;
+            default -> throw new IllegalArgumentException("Unknown resource type " + resourceType);
+        };
+        resource = type == Bundle.class ? BenchmarkFixtures.seed() : BenchmarkFixtures.first(type);
+        json = parser.encodeResourceToString(resource);
+    }
+
+    @Benchmark
+    public Resource parse() {
+        return parser.parseResource(type, json);
+    }
+
+    @Benchmark
+    public String encode() {
+        return parser.encodeResourceToString(resource);
+    }
+}
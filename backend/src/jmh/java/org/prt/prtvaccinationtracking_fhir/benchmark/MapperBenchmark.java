@@ -0,0 +1,214 @@
+package org.prt.prtvaccinationtracking_fhir.benchmark;
+
+import org.hl7.fhir.r5.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.CreateAdverseEventRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.UpdateAdverseEventRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.CreateAllergyIntoleranceRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.UpdateAllergyIntoleranceRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.CreateAppointmentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.UpdateAppointmentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CreateCarePlanRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.UpdateCarePlanRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CreateCommunicationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.UpdateCommunicationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.CreateConditionRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.UpdateConditionRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.CreateConsentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.UpdateConsentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.CreateEncounterRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.UpdateEncounterRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.CreateGoalRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.UpdateGoalRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.CreateImmunizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.UpdateImmunizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.CreateLocationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.UpdateLocationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.CreateObservationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.UpdateObservationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.CreateOrganizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.UpdateOrganizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.CreatePatientRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.UpdatePatientRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.CreatePractitionerRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.UpdatePractitionerRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.CreateImmunizationRecommendationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.UpdateImmunizationRecommendationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.CreateRelatedPersonRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.UpdateRelatedPersonRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@code toDTO}, {@code toResource} and {@code toPatch} of every practitioner mapper, fed
+ * with the first seed resource of each type. The create and update request DTOs are derived
+ * from that resource's DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({
+            "AdverseEvent", "AllergyIntolerance", "Appointment", "CarePlan", "Communication", "Condition",
+            "Consent", "Encounter", "Goal", "Immunization", "ImmunizationRecommendation", "Location",
+            "Observation", "Organization", "Patient", "Practitioner", "RelatedPerson"
+    })
+    public String resourceType;
+
+    private MapperCase mapperCase;
+
+    @Setup
+    public void setUp() {
+        MapperSupport support = BenchmarkFixtures.mapperSupport();
+
+        mapperCase = switch (resourceType) {
+            case "AdverseEvent" -> {
+                AdverseEventMapper mapper = new AdverseEventMapper(support);
+                yield mapperCase(AdverseEvent.class, mapper::toDTO,
+                        CreateAdverseEventRequestDTO.class, mapper::toResource,
+                        UpdateAdverseEventRequestDTO.class, mapper::toPatch);
+            }
+            case "AllergyIntolerance" -> {
+                AllergyIntoleranceMapper mapper = new AllergyIntoleranceMapper(support);
+                yield mapperCase(AllergyIntolerance.class, mapper::toDTO,
+                        CreateAllergyIntoleranceRequestDTO.class, mapper::toResource,
+                        UpdateAllergyIntoleranceRequestDTO.class, mapper::toPatch);
+            }
+            case "Appointment" -> {
+                AppointmentMapper mapper = new AppointmentMapper(support);
+                yield mapperCase(Appointment.class, mapper::toDTO,
+                        CreateAppointmentRequestDTO.class, mapper::toResource,
+                        UpdateAppointmentRequestDTO.class, mapper::toPatch);
+            }
+            case "CarePlan" -> {
+                CarePlanMapper mapper = new CarePlanMapper(support);
+                yield mapperCase(CarePlan.class, mapper::toDTO,
+                        CreateCarePlanRequestDTO.class, mapper::toResource,
+                        UpdateCarePlanRequestDTO.class, mapper::toPatch);
+            }
+            case "Communication" -> {
+                CommunicationMapper mapper = new CommunicationMapper(support);
+                yield mapperCase(Communication.class, mapper::toDTO,
+                        CreateCommunicationRequestDTO.class, mapper::toResource,
+                        UpdateCommunicationRequestDTO.class, mapper::toPatch);
+            }
+            case "Condition" -> {
+                ConditionMapper mapper = new ConditionMapper(support);
+                yield mapperCase(Condition.class, mapper::toDTO,
+                        CreateConditionRequestDTO.class, mapper::toResource,
+                        UpdateConditionRequestDTO.class, mapper::toPatch);
+            }
+            case "Consent" -> {
+                ConsentMapper mapper = new ConsentMapper(support);
+                yield mapperCase(Consent.class, mapper::toDTO,
+                        CreateConsentRequestDTO.class, mapper::toResource,
+                        UpdateConsentRequestDTO.class, mapper::toPatch);
+            }
+            case "Encounter" -> {
+                EncounterMapper mapper = new EncounterMapper(support);
+                yield mapperCase(Encounter.class, mapper::toDTO,
+                        CreateEncounterRequestDTO.class, mapper::toResource,
+                        UpdateEncounterRequestDTO.class, mapper::toPatch);
+            }
+            case "Goal" -> {
+                GoalMapper mapper = new GoalMapper(support);
+                yield mapperCase(Goal.class, mapper::toDTO,
+                        CreateGoalRequestDTO.class, mapper::toResource,
+                        UpdateGoalRequestDTO.class, mapper::toPatch);
+            }
+            case "Immunization" -> {
+                ImmunizationMapper mapper = new ImmunizationMapper(support);
+                yield mapperCase(Immunization.class, mapper::toDTO,
+                        CreateImmunizationRequestDTO.class, mapper::toResource,
+                        UpdateImmunizationRequestDTO.class, mapper::toPatch);
+            }
+            case "ImmunizationRecommendation" -> {
+                RecommendationMapper mapper = new RecommendationMapper(support);
+                yield mapperCase(ImmunizationRecommendation.class, mapper::toDTO,
+                        CreateImmunizationRecommendationRequestDTO.class, mapper::toResource,
+                        UpdateImmunizationRecommendationRequestDTO.class, mapper::toPatch);
+            }
+            case "Location" -> {
+                LocationMapper mapper = new LocationMapper(support);
+                yield mapperCase(Location.class, mapper::toDTO,
+                        CreateLocationRequestDTO.class, mapper::toResource,
+                        UpdateLocationRequestDTO.class, mapper::toPatch);
+            }
+            case "Observation" -> {
+                ObservationMapper mapper = new ObservationMapper(support);
+                yield mapperCase(Observation.class, mapper::toDTO,
+                        CreateObservationRequestDTO.class, mapper::toResource,
+                        UpdateObservationRequestDTO.class, mapper::toPatch);
+            }
+            case "Organization" -> {
+                OrganizationMapper mapper = new OrganizationMapper(support);
+                yield mapperCase(Organization.class, mapper::toDTO,
+                        CreateOrganizationRequestDTO.class, mapper::toResource,
+                        UpdateOrganizationRequestDTO.class, mapper::toPatch);
+            }
+            case "Patient" -> {
+                PatientMapper mapper = new PatientMapper(support);
+                yield mapperCase(Patient.class, mapper::toDetailsDTO,
+                        CreatePatientRequestDTO.class, mapper::toResource,
+                        UpdatePatientRequestDTO.class, mapper::toPatch);
+            }
+            case "Practitioner" -> {
+                PractitionerMapper mapper = new PractitionerMapper(support);
+                yield mapperCase(Practitioner.class, mapper::toDTO,
+                        CreatePractitionerRequestDTO.class, mapper::toResource,
+                        UpdatePractitionerRequestDTO.class, mapper::toPatch);
+            }
+            case "RelatedPerson" -> {
+                RelatedPersonMapper mapper = new RelatedPersonMapper(support);
+                yield mapperCase(RelatedPerson.class, mapper::toDTO,
+                        CreateRelatedPersonRequestDTO.class, dto -> mapper.toResource(dto, "pat-001"),
+                        UpdateRelatedPersonRequestDTO.class, mapper::toPatch);
+            }
+            default -> throw new IllegalArgumentException("Unknown resource type " + resourceType);
+        };
+    }
+
+    @Benchmark
+    public Object toDTO() {
+        return mapperCase.toDTO().get();
+    }
+
+    @Benchmark
+    public Object toResource() {
+        return mapperCase.toResource().get();
+    }
+
+    @Benchmark
+    public Object toPatch() {
+        return mapperCase.toPatch().get();
+    }
+
+    private <R extends Resource, C, U> MapperCase mapperCase(
+            Class<R> type,
+            Function<R, ?> toDTO,
+            Class<C> createType,
+            Function<C, R> toResource,
+            Class<U> updateType,
+            Function<U, Parameters> toPatch
+    ) {
+        R resource = BenchmarkFixtures.first(type);
+        Object dto = toDTO.apply(resource);
+        C create = BenchmarkFixtures.JSON.convertValue(dto, createType);
+        U update = BenchmarkFixtures.JSON.convertValue(dto, updateType);
+
+        return new MapperCase(
+                () -> toDTO.apply(resource),
+                () -> toResource.apply(create),
+                () -> toPatch.apply(update));
+    }
+
+    private record MapperCase(Supplier<Object> toDTO, Supplier<Object> toResource, Supplier<Object> toPatch) {
+    }
+}
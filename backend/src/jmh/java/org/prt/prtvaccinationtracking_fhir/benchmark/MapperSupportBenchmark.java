@@ -0,0 +1,39 @@
+package org.prt.prtvaccinationtracking_fhir.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.MapperSupport;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/** Date conversions every mapper runs for each date field it copies. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperSupportBenchmark {
+
+    private MapperSupport support;
+    private LocalDate localDate;
+    private Date date;
+
+    @Setup
+    public void setUp() {
+        support = BenchmarkFixtures.mapperSupport();
+        localDate = LocalDate.of(2024, 3, 15);
+        date = support.toDate(localDate);
+    }
+
+    @Benchmark
+    public Date toDate() {
+        return support.toDate(localDate);
+    }
+
+    @Benchmark
+    public LocalDate toLocalDate() {
+        return support.toLocalDate(date);
+    }
+}
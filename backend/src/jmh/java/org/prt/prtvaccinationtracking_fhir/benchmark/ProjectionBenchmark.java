@@ -0,0 +1,109 @@
+package org.prt.prtvaccinationtracking_fhir.benchmark;
+
+import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.hl7.fhir.r5.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * FHIR JSON to DTO for the types behind {@code fhir.projection.*}: parsing with HAPI and mapping
+ * the model ({@code hapi}) against reading a Jackson tree and mapping that ({@code projection}).
+ * The tree is read with the same settings as {@code FhirBundleStreamReader}. {@code mapResource}
+ * and {@code mapJson} time the mappers alone on input parsed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final ObjectMapper FHIR_JSON = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
+    @Param({"Immunization", "Observation", "Appointment", "Patient"})
+    public String resourceType;
+
+    private IParser parser;
+    private Class<? extends Resource> type;
+    private Function<Resource, Object> fromResource;
+    private Function<JsonNode, Object> fromJson;
+    private String json;
+    private Resource resource;
+    private JsonNode tree;
+
+    @Setup
+    public void setUp() {
+        MapperSupport support = BenchmarkFixtures.mapperSupport();
+        parser = BenchmarkFixtures.FHIR.newJsonParser();
+
+        switch (resourceType) {
+            case "Immunization" -> {
+                ImmunizationMapper mapper = new ImmunizationMapper(support);
+                use(Immunization.class, resource -> mapper.toDTO((Immunization) resource), mapper::toDTO);
+            }
+            case "Observation" -> {
+                ObservationMapper mapper = new ObservationMapper(support);
+                use(Observation.class, resource -> mapper.toDTO((Observation) resource), mapper::toDTO);
+            }
+            case "Appointment" -> {
+                AppointmentMapper mapper = new AppointmentMapper(support);
+                use(Appointment.class, resource -> mapper.toDTO((Appointment) resource), mapper::toDTO);
+            }
+            case "Patient" -> {
+                PatientMapper mapper = new PatientMapper(support);
+                use(Patient.class, resource -> mapper.toDetailsDTO((Patient) resource), mapper::toDetailsDTO);
+            }
+            default -> throw new IllegalArgumentException("Unknown resource type " + resourceType);
+        }
+
+        json = parser.encodeResourceToString(BenchmarkFixtures.first(type));
+        resource = parser.parseResource(type, json);
+        try {
+            tree = FHIR_JSON.readTree(json);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Benchmark
+    public Object hapi() {
+        return fromResource.apply(parser.parseResource(type, json));
+    }
+
+    @Benchmark
+    public Object projection() throws IOException {
+        return fromJson.apply(FHIR_JSON.readTree(json));
+    }
+
+    @Benchmark
+    public Object mapResource() {
+        return fromResource.apply(resource);
+    }
+
+    @Benchmark
+    public Object mapJson() {
+        return fromJson.apply(tree);
+    }
+
+    private void use(
+            Class<? extends Resource> type,
+            Function<Resource, Object> fromResource,
+            Function<JsonNode, Object> fromJson
+    ) {
+        this.type = type;
+        this.fromResource = fromResource;
+        this.fromJson = fromJson;
+    }
+}
@@ -0,0 +1,186 @@
+package org.prt.prtvaccinationtracking_fhir.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load: {@code concurrency} workers each walk the endpoint list round-robin and
+ * send the next request as soon as the previous one returns. Requests finished during the
+ * warm-up are discarded; the rest are summarised per endpoint.
+ */
+class LoadDriver {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final String accessToken;
+    private final List<Endpoint> endpoints;
+
+    LoadDriver(String baseUrl, String accessToken, List<Endpoint> endpoints) {
+        this.baseUrl = baseUrl;
+        this.accessToken = accessToken;
+        this.endpoints = endpoints;
+    }
+
+    Map<String, EndpointStats> run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Samples>> futures = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            int offset = worker;
+            futures.add(workers.submit(() -> drive(offset, measureFrom, measureUntil)));
+        }
+
+        Samples total = new Samples(endpoints.size());
+        for (Future<Samples> future : futures) {
+            try {
+                total.addAll(future.get());
+            } catch (ExecutionException exception) {
+                throw new IllegalStateException("Load worker failed", exception.getCause());
+            }
+        }
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (int index = 0; index < endpoints.size(); index++) {
+            stats.put(endpoints.get(index).name(),
+                    EndpointStats.of(total.latencies.get(index), total.errors[index], duration));
+        }
+        return stats;
+    }
+
+    private Samples drive(int offset, long measureFrom, long measureUntil) {
+        Samples samples = new Samples(endpoints.size());
+        int index = offset % endpoints.size();
+
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= measureUntil) {
+                return samples;
+            }
+
+            Endpoint endpoint = endpoints.get(index);
+            boolean ok = send(endpoint.path());
+            long end = System.nanoTime();
+
+            if (start >= measureFrom && end <= measureUntil) {
+                samples.latencies.get(index).add(end - start);
+                if (!ok) {
+                    samples.errors[index]++;
+                }
+            }
+            index = (index + 1) % endpoints.size();
+        }
+    }
+
+    private boolean send(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200;
+        } catch (IOException exception) {
+            return false;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** An endpoint to drive and the most FHIR requests one call of it may make. */
+    record Endpoint(String name, String path, int roundTripBudget) {
+    }
+
+    record EndpointStats(long requests, long errors, double throughput,
+                         double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+
+        static EndpointStats of(LongList latencies, long errors, Duration duration) {
+            long[] sorted = latencies.toSortedArray();
+            return new EndpointStats(
+                    sorted.length,
+                    errors,
+                    sorted.length / (duration.toNanos() / 1e9),
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.95),
+                    percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(rank, 0)] / 1e6;
+        }
+    }
+
+    private static final class Samples {
+
+        private final List<LongList> latencies = new ArrayList<>();
+        private final long[] errors;
+
+        private Samples(int endpoints) {
+            for (int index = 0; index < endpoints; index++) {
+                latencies.add(new LongList());
+            }
+            errors = new long[endpoints];
+        }
+
+        private void addAll(Samples other) {
+            for (int index = 0; index < errors.length; index++) {
+                latencies.get(index).addAll(other.latencies.get(index));
+                errors[index] += other.errors[index];
+            }
+        }
+    }
+
+    /** Growable array of primitive longs, so a long run does not box millions of samples. */
+    private static final class LongList {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(LongList other) {
+            for (int index = 0; index < other.size; index++) {
+                add(other.values[index]);
+            }
+        }
+
+        private long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.prt.prtvaccinationtracking_fhir.loadtest;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Immunization;
+import org.hl7.fhir.r5.model.Patient;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.PrtVaccinationTrackingFhirApplication;
+import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
+import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
+import org.prt.prtvaccinationtracking_fhir.auth.service.JwtService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end latency run without a HAPI JPA container: starts {@link StubFhirServer} seeded
+ * from {@code seed/practitioner-view-bundle.json}, boots the backend against it on a free
+ * port and drives the main practitioner read endpoints with {@link LoadDriver}.
+ *
+ * <p>Arguments starting with {@code --load.} configure the run (defaults in brackets):
+ * {@code fhir-latency} [0ms], {@code fhir-jitter} [0ms], {@code concurrency} [16],
+ * {@code warmup} [10s], {@code duration} [30s], {@code seed}, {@code report} and
+ * {@code budgets-only} [false], which stops after the FHIR round-trip budget check. All other
+ * arguments are handed to the backend, e.g. {@code --fhir.projection.read=Immunization}.
+ */
+public class LoadTest {
+
+    private static final String LOAD_PREFIX = "--load.";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> backendArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(LOAD_PREFIX) && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(LOAD_PREFIX.length(), separator), arg.substring(separator + 1));
+            } else {
+                backendArgs.add(arg);
+            }
+        }
+
+        Duration latency = duration(options, "fhir-latency", "0ms");
+        Duration jitter = duration(options, "fhir-jitter", "0ms");
+        Duration warmup = duration(options, "warmup", "10s");
+        Duration measure = duration(options, "duration", "30s");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Path seedPath = Path.of(options.getOrDefault("seed", "seed/practitioner-view-bundle.json"));
+
+        FhirContext fhirContext = FhirContext.forR5();
+        Bundle seed = fhirContext.newJsonParser().parseResource(Bundle.class, Files.readString(seedPath));
+
+        try (StubFhirServer fhir = new StubFhirServer(fhirContext, latency, jitter)) {
+            fhir.seed(seed);
+            String fhirBaseUrl = fhir.start();
+
+            backendArgs.add(0, "--fhir.server.base-url=" + fhirBaseUrl);
+            backendArgs.add(1, "--server.port=0");
+            backendArgs.add(2, "--management.server.port=0");
+            if (backendArgs.stream().noneMatch(arg -> arg.startsWith("--fhir.logging.enabled="))) {
+                backendArgs.add("--fhir.logging.enabled=false");
+            }
+            backendArgs.add("--fhir.round-trips.headers=true");
+            // devtools only reads this as a system property; a restart would re-run this main method
+            System.setProperty("spring.devtools.restart.enabled", "false");
+
+            try (ConfigurableApplicationContext backend = new SpringApplicationBuilder(PrtVaccinationTrackingFhirApplication.class)
+                    .run(backendArgs.toArray(String[]::new))) {
+                int port = ((WebServerApplicationContext) backend).getWebServer().getPort();
+                String token = backend.getBean(JwtService.class).createAccessToken(practitioner(seed), "openid fhirUser user/*.*");
+
+                String baseUrl = "http://localhost:" + port;
+                List<LoadDriver.Endpoint> endpoints = endpoints(seed);
+
+                new RoundTripBudgetCheck(baseUrl, token).verify(endpoints);
+                if (Boolean.parseBoolean(options.getOrDefault("budgets-only", "false"))) {
+                    return;
+                }
+
+                LoadDriver driver = new LoadDriver(baseUrl, token, endpoints);
+                System.out.printf("FHIR latency %s (+ up to %s), %d workers, %s warm-up, %s measured%n",
+                        latency, jitter, concurrency, warmup, measure);
+                Map<String, LoadDriver.EndpointStats> stats = driver.run(concurrency, warmup, measure);
+
+                print(stats);
+                if (options.containsKey("report")) {
+                    writeReport(Path.of(options.get("report")), latency, jitter, concurrency, measure, stats);
+                }
+            }
+        }
+    }
+
+    private static List<LoadDriver.Endpoint> endpoints(Bundle seed) {
+        String patient = first(seed, Patient.class);
+        String immunization = first(seed, Immunization.class);
+
+        return List.of(
+                new LoadDriver.Endpoint("patient", "/api/practitioner/patients/" + patient, 1),
+                new LoadDriver.Endpoint("patient-chart", "/api/practitioner/patients/" + patient + "/chart", 1),
+                new LoadDriver.Endpoint("encounter-blocks", "/api/practitioner/patients/" + patient + "/encounters/blocks", 1),
+                new LoadDriver.Endpoint("immunizations", "/api/practitioner/immunizations?patient=" + patient, 1),
+                new LoadDriver.Endpoint("immunization", "/api/practitioner/immunizations/" + immunization, 1),
+                new LoadDriver.Endpoint("observations", "/api/practitioner/observations?patient=" + patient, 1),
+                new LoadDriver.Endpoint("appointments", "/api/practitioner/appointments?patient=" + patient, 1),
+                new LoadDriver.Endpoint("encounters", "/api/practitioner/encounters?patient=" + patient, 1),
+                new LoadDriver.Endpoint("related-persons", "/api/practitioner/related-persons?patient=" + patient, 1));
+    }
+
+    private static AuthenticatedUser practitioner(Bundle seed) {
+        String practitionerId = first(seed, Practitioner.class);
+        return new AuthenticatedUser(
+                "practitioner:" + practitionerId,
+                "loadtest",
+                UserRole.PRACTITIONER,
+                "Load Test",
+                "Practitioner/" + practitionerId,
+                practitionerId,
+                List.of(),
+                List.of());
+    }
+
+    private static String first(Bundle seed, Class<? extends Resource> type) {
+        return seed.getEntry().stream()
+                .map(Bundle.BundleEntryComponent::getResource)
+                .filter(type::isInstance)
+                .map(resource -> resource.getIdElement().getIdPart())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Seed bundle has no " + type.getSimpleName()));
+    }
+
+    private static Duration duration(Map<String, String> options, String name, String defaultValue) {
+        return DurationStyle.detectAndParse(options.getOrDefault(name, defaultValue));
+    }
+
+    private static void print(Map<String, LoadDriver.EndpointStats> stats) {
+        System.out.printf("%n%-18s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        stats.forEach((name, endpoint) -> System.out.printf("%-18s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, endpoint.requests(), endpoint.errors(), endpoint.throughput(),
+                endpoint.p50Millis(), endpoint.p95Millis(), endpoint.p99Millis(), endpoint.maxMillis()));
+    }
+
+    private static void writeReport(Path path, Duration latency, Duration jitter, int concurrency, Duration measure,
+                                    Map<String, LoadDriver.EndpointStats> stats) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("fhirLatency", latency.toString());
+        report.put("fhirJitter", jitter.toString());
+        report.put("concurrency", concurrency);
+        report.put("duration", measure.toString());
+        report.put("endpoints", stats);
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), report);
+        System.out.println("\nReport written to " + path);
+    }
+}
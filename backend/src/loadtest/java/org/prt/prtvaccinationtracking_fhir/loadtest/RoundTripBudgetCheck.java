@@ -0,0 +1,55 @@
+package org.prt.prtvaccinationtracking_fhir.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calls every endpoint once and compares the number of FHIR requests it made, as reported in
+ * the {@code X-Fhir-Round-Trips} response header, with the endpoint's budget. Run it against a
+ * freshly started backend so cold caches count against the budget too.
+ */
+class RoundTripBudgetCheck {
+
+    private static final String ROUND_TRIPS_HEADER = "X-Fhir-Round-Trips";
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final String accessToken;
+
+    RoundTripBudgetCheck(String baseUrl, String accessToken) {
+        this.baseUrl = baseUrl;
+        this.accessToken = accessToken;
+    }
+
+    /** Prints one line per endpoint and throws when any endpoint is over its budget. */
+    void verify(List<LoadDriver.Endpoint> endpoints) throws IOException, InterruptedException {
+        List<String> violations = new ArrayList<>();
+
+        System.out.printf("%n%-18s %7s %7s%n", "endpoint", "fhir", "budget");
+        for (LoadDriver.Endpoint endpoint : endpoints) {
+            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path()))
+                            .header("Authorization", "Bearer " + accessToken)
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            String header = response.headers().firstValue(ROUND_TRIPS_HEADER).orElse(null);
+            System.out.printf("%-18s %7s %7d%n", endpoint.name(), header == null ? "-" : header, endpoint.roundTripBudget());
+
+            if (response.statusCode() != 200 || header == null) {
+                violations.add(endpoint.name() + " answered " + response.statusCode() + " without " + ROUND_TRIPS_HEADER);
+            } else if (Integer.parseInt(header) > endpoint.roundTripBudget()) {
+                violations.add(endpoint.name() + " made " + header + " FHIR requests, budget is " + endpoint.roundTripBudget());
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("FHIR round-trip budget exceeded:\n  " + String.join("\n  ", violations));
+        }
+    }
+}
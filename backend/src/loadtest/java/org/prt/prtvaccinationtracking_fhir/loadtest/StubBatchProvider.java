@@ -0,0 +1,86 @@
+package org.prt.prtvaccinationtracking_fhir.loadtest;
+
+import ca.uhn.fhir.rest.annotation.Transaction;
+import ca.uhn.fhir.rest.annotation.TransactionParam;
+import ca.uhn.fhir.rest.server.exceptions.NotImplementedOperationException;
+import ca.uhn.fhir.util.UrlUtil;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.IdType;
+import org.hl7.fhir.r5.model.OperationOutcome;
+import org.hl7.fhir.r5.model.Resource;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers {@code batch} Bundles made of GET entries, which is what the chart and encounter
+ * block endpoints send. Each entry is resolved against the same in-memory providers as a
+ * direct read or search. Writes inside a batch or transaction are not supported.
+ */
+public class StubBatchProvider {
+
+    private final Map<String, StubResourceProvider<?>> providers;
+
+    StubBatchProvider(Map<String, StubResourceProvider<?>> providers) {
+        this.providers = providers;
+    }
+
+    @Transaction
+    public Bundle batch(@TransactionParam Bundle request) {
+        Bundle response = new Bundle();
+        response.setType(request.getType() == Bundle.BundleType.TRANSACTION
+                ? Bundle.BundleType.TRANSACTIONRESPONSE
+                : Bundle.BundleType.BATCHRESPONSE);
+
+        for (Bundle.BundleEntryComponent entry : request.getEntry()) {
+            if (entry.getRequest().getMethod() != Bundle.HTTPVerb.GET) {
+                throw new NotImplementedOperationException("Stub FHIR server only answers GET entries in a batch");
+            }
+            response.addEntry(get(entry.getRequest().getUrl()));
+        }
+        return response;
+    }
+
+    private Bundle.BundleEntryComponent get(String url) {
+        int query = url.indexOf('?');
+        String path = query < 0 ? url : url.substring(0, query);
+        StubResourceProvider<?> provider = providers.get(path.contains("/") ? path.substring(0, path.indexOf('/')) : path);
+
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+        if (provider == null) {
+            return notFound(entry, "Unknown resource type in " + url);
+        }
+
+        if (query < 0 && path.contains("/")) {
+            Resource resource = provider.getStoredResources().stream()
+                    .filter(candidate -> candidate.getIdElement().getIdPart().equals(new IdType(path).getIdPart()))
+                    .findFirst()
+                    .orElse(null);
+            if (resource == null) {
+                return notFound(entry, url + " not found");
+            }
+            entry.setResource(resource);
+        } else {
+            List<? extends Resource> matches = provider.find(
+                    query < 0 ? Map.of() : UrlUtil.parseQueryString(url.substring(query + 1)));
+            Bundle searchset = new Bundle();
+            searchset.setType(Bundle.BundleType.SEARCHSET);
+            searchset.setTotal(matches.size());
+            matches.forEach(match -> searchset.addEntry().setResource(match));
+            entry.setResource(searchset);
+        }
+
+        entry.getResponse().setStatus("200 OK");
+        return entry;
+    }
+
+    private Bundle.BundleEntryComponent notFound(Bundle.BundleEntryComponent entry, String message) {
+        OperationOutcome outcome = new OperationOutcome();
+        outcome.addIssue()
+                .setSeverity(OperationOutcome.IssueSeverity.ERROR)
+                .setCode(OperationOutcome.IssueType.NOTFOUND)
+                .setDiagnostics(message);
+        entry.getResponse().setStatus("404 Not Found").setOutcome(outcome);
+        return entry;
+    }
+}
@@ -0,0 +1,114 @@
+package org.prt.prtvaccinationtracking_fhir.loadtest;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.IdType;
+import org.hl7.fhir.r5.model.Resource;
+import org.hl7.fhir.r5.model.ResourceType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * FHIR R5 server running inside the JVM: a plain HAPI {@link RestfulServer} with one
+ * in-memory provider per resource type, served by an embedded Tomcat on a free port.
+ * Every request is held back by {@code latency} plus up to {@code jitter} before it is
+ * handled, to stand in for the network and database time of a real HAPI JPA server. The
+ * round-trip budget tests in src/test run against it as well.
+ */
+public class StubFhirServer implements AutoCloseable {
+
+    private final Tomcat tomcat = new Tomcat();
+    private final Map<String, StubResourceProvider<?>> providers = new TreeMap<>();
+
+    public StubFhirServer(FhirContext fhirContext, Duration latency, Duration jitter) {
+        RestfulServer server = new RestfulServer(fhirContext);
+        server.setDefaultResponseEncoding(EncodingEnum.JSON);
+        server.setPagingProvider(new FifoMemoryPagingProvider(1000));
+
+        for (ResourceType type : ResourceType.values()) {
+            Class<? extends Resource> resourceClass = fhirContext.getResourceDefinition(type.name())
+                    .getImplementingClass()
+                    .asSubclass(Resource.class);
+            providers.put(type.name(), new StubResourceProvider<>(fhirContext, resourceClass));
+        }
+        server.registerProviders(providers.values());
+        server.registerProvider(new StubBatchProvider(providers));
+        server.registerInterceptor(new LatencyInterceptor(latency, jitter));
+
+        try {
+            tomcat.setBaseDir(Files.createTempDirectory("stub-fhir").toString());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "fhir", server);
+        context.addServletMappingDecoded("/fhir/*", "fhir");
+    }
+
+    /** Stores every resource of the Bundle under its own id, as a PUT transaction would. */
+    public void seed(Bundle bundle) {
+        for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+            Resource resource = entry.getResource();
+            if (resource == null) {
+                continue;
+            }
+            // The parser takes the id from a urn:uuid fullUrl; the PUT url carries the real one.
+            if (entry.getRequest().getMethod() == Bundle.HTTPVerb.PUT) {
+                resource.setIdElement(new IdType(entry.getRequest().getUrl()));
+            }
+            store(resource);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Resource> void store(T resource) {
+        ((StubResourceProvider<T>) providers.get(resource.fhirType())).store(resource);
+    }
+
+    public String start() throws LifecycleException {
+        tomcat.getConnector();
+        tomcat.start();
+        return "http://localhost:" + tomcat.getConnector().getLocalPort() + "/fhir";
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    public static class LatencyInterceptor {
+
+        private final long latencyMillis;
+        private final long jitterMillis;
+
+        LatencyInterceptor(Duration latency, Duration jitter) {
+            this.latencyMillis = latency.toMillis();
+            this.jitterMillis = jitter.toMillis();
+        }
+
+        @Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+        public boolean delay() throws InterruptedException {
+            long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+            if (millis > 0) {
+                Thread.sleep(millis);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.prt.prtvaccinationtracking_fhir.loadtest;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Patch;
+import ca.uhn.fhir.rest.annotation.ResourceParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.PatchTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.provider.HashMapResourceProvider;
+import ca.uhn.fhir.util.FhirTerser;
+import org.hl7.fhir.r5.model.IdType;
+import org.hl7.fhir.r5.model.Identifier;
+import org.hl7.fhir.r5.model.Resource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory provider for one resource type. On top of read/create/update from
+ * {@link HashMapResourceProvider} it answers the searches the backend issues: {@code _id},
+ * {@code patient}/{@code subject} (any reference to the patient counts) and
+ * {@code identifier}. Result parameters such as {@code _count}, {@code _elements},
+ * {@code _include} and {@code _lastUpdated} are accepted and ignored; includes are not resolved.
+ * A PATCH is accepted but not applied: it answers with the stored resource unchanged.
+ */
+public class StubResourceProvider<T extends Resource> extends HashMapResourceProvider<T> {
+
+    private final FhirTerser terser;
+
+    StubResourceProvider(FhirContext fhirContext, Class<T> resourceType) {
+        super(fhirContext, resourceType);
+        this.terser = fhirContext.newTerser();
+    }
+
+    @Patch
+    public MethodOutcome patch(@IdParam IdType id, PatchTypeEnum patchType, @ResourceParam String body,
+                               RequestDetails request) {
+        return new MethodOutcome(id).setResource(read(id, request));
+    }
+
+    @Search(allowUnknownParams = true)
+    public List<T> search(RequestDetails request) {
+        return find(request.getParameters());
+    }
+
+    List<T> find(Map<String, String[]> parameters) {
+        List<T> resources = getStoredResources();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                resources = resources.stream()
+                        .filter(resource -> matches(resource, parameter.getKey(), value))
+                        .toList();
+            }
+        }
+        return resources;
+    }
+
+    private boolean matches(T resource, String name, String value) {
+        return switch (name) {
+            case "_id" -> Arrays.asList(value.split(",")).contains(resource.getIdElement().getIdPart());
+            case "patient", "subject" -> referencesPatient(resource, value);
+            case "identifier" -> hasIdentifier(resource, value);
+            default -> {
+                if (name.startsWith("_")) {
+                    yield true;
+                }
+                throw new InvalidRequestException("Stub FHIR server does not support search parameter " + name);
+            }
+        };
+    }
+
+    private boolean referencesPatient(T resource, String value) {
+        String reference = value.startsWith("Patient/") ? value : "Patient/" + value;
+        return terser.getAllResourceReferences(resource).stream()
+                .anyMatch(info -> reference.equals(info.getResourceReference().getReferenceElement().getValue()));
+    }
+
+    private boolean hasIdentifier(T resource, String value) {
+        int separator = value.indexOf('|');
+        String system = separator < 0 ? null : value.substring(0, separator);
+        String code = separator < 0 ? value : value.substring(separator + 1);
+
+        return terser.getAllPopulatedChildElementsOfType(resource, Identifier.class).stream()
+                .anyMatch(identifier -> (code.isEmpty() || code.equals(identifier.getValue()))
+                        && (system == null || system.equals(identifier.getSystem())));
+    }
+}
@@ -2,6 +2,7 @@ package org.prt.prtvaccinationtracking_fhir.auth.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 @ConfigurationProperties(prefix = "auth")
@@ -10,6 +11,8 @@ public class AuthProperties {
     private final Smart smart = new Smart();
     private final Jwt jwt = new Jwt();
     private final Cors cors = new Cors();
+    private final Usernames usernames = new Usernames();
+    private final Passwords passwords = new Passwords();
 
     public Smart getSmart() {
         return smart;
@@ -23,6 +26,14 @@ public class AuthProperties {
         return cors;
     }
 
+    public Usernames getUsernames() {
+        return usernames;
+    }
+
+    public Passwords getPasswords() {
+        return passwords;
+    }
+
     public static class Smart {
         private String clientId = "child-vax-ui";
         private List<String> redirectUris = List.of(
@@ -30,7 +41,9 @@ public class AuthProperties {
                 "http://localhost:5174/auth/callback"
         );
         private long authorizationCodeTtlSeconds = 180;
+        private int authorizationCodeCapacity = 10000;
         private long accessTokenTtlSeconds = 3600;
+        private long refreshTokenTtlSeconds = 28800;
 
         public String getClientId() {
             return clientId;
@@ -56,6 +69,14 @@ public class AuthProperties {
             this.authorizationCodeTtlSeconds = authorizationCodeTtlSeconds;
         }
 
+        public int getAuthorizationCodeCapacity() {
+            return authorizationCodeCapacity;
+        }
+
+        public void setAuthorizationCodeCapacity(int authorizationCodeCapacity) {
+            this.authorizationCodeCapacity = authorizationCodeCapacity;
+        }
+
         public long getAccessTokenTtlSeconds() {
             return accessTokenTtlSeconds;
         }
@@ -63,11 +84,21 @@ public class AuthProperties {
         public void setAccessTokenTtlSeconds(long accessTokenTtlSeconds) {
             this.accessTokenTtlSeconds = accessTokenTtlSeconds;
         }
+
+        public long getRefreshTokenTtlSeconds() {
+            return refreshTokenTtlSeconds;
+        }
+
+        public void setRefreshTokenTtlSeconds(long refreshTokenTtlSeconds) {
+            this.refreshTokenTtlSeconds = refreshTokenTtlSeconds;
+        }
     }
 
     public static class Jwt {
         private String secret = "change-this-demo-secret-change-this-demo-secret";
         private String issuer = "http://localhost:8081";
+        private boolean cacheEnabled = true;
+        private int cacheMaxEntries = 10000;
 
         public String getSecret() {
             return secret;
@@ -84,6 +115,22 @@ public class AuthProperties {
         public void setIssuer(String issuer) {
             this.issuer = issuer;
         }
+
+        public boolean isCacheEnabled() {
+            return cacheEnabled;
+        }
+
+        public void setCacheEnabled(boolean cacheEnabled) {
+            this.cacheEnabled = cacheEnabled;
+        }
+
+        public int getCacheMaxEntries() {
+            return cacheMaxEntries;
+        }
+
+        public void setCacheMaxEntries(int cacheMaxEntries) {
+            this.cacheMaxEntries = cacheMaxEntries;
+        }
     }
 
     public static class Cors {
@@ -100,4 +147,82 @@ public class AuthProperties {
             this.allowedOrigins = allowedOrigins;
         }
     }
+
+    public static class Usernames {
+        private boolean enabled = true;
+        private Duration refreshInterval = Duration.ofSeconds(60);
+        private int pageSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    public static class Passwords {
+        private int bcryptStrength = 10;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 100;
+        private boolean rehash = true;
+        private int rehashQueueCapacity = 100;
+
+        public int getBcryptStrength() {
+            return bcryptStrength;
+        }
+
+        public void setBcryptStrength(int bcryptStrength) {
+            this.bcryptStrength = bcryptStrength;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public boolean isRehash() {
+            return rehash;
+        }
+
+        public void setRehash(boolean rehash) {
+            this.rehash = rehash;
+        }
+
+        public int getRehashQueueCapacity() {
+            return rehashQueueCapacity;
+        }
+
+        public void setRehashQueueCapacity(int rehashQueueCapacity) {
+            this.rehashQueueCapacity = rehashQueueCapacity;
+        }
+    }
 }
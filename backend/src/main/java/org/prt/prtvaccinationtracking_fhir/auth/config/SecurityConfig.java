@@ -1,7 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.auth.config;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
+import org.prt.prtvaccinationtracking_fhir.auth.service.CachingJwtDecoder;
 import org.prt.prtvaccinationtracking_fhir.auth.service.JwtService;
+import org.prt.prtvaccinationtracking_fhir.auth.service.RefreshTokenService;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordingJwtDecoder;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,9 +14,17 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -19,6 +32,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
@@ -42,6 +56,8 @@ public class SecurityConfig {
                                 "/api/auth/practitioner/register"
                         ).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Recordings hold request data of every user, so only practitioners may take them
+                        .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasRole(UserRole.PRACTITIONER.name())
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll()
                 )
@@ -68,11 +84,22 @@ public class SecurityConfig {
     }
 
     @Bean
-    JwtDecoder jwtDecoder(AuthProperties properties) {
+    JwtDecoder jwtDecoder(AuthProperties properties, RefreshTokenService refreshTokens, MeterRegistry registry) {
         SecretKey secretKey = jwtSecret(properties);
-        return NimbusJwtDecoder.withSecretKey(secretKey)
+        OAuth2TokenValidator<Jwt> notRevoked = jwt -> refreshTokens.isRevoked(jwt.getClaimAsString("sid"))
+                ? OAuth2TokenValidatorResult.failure(
+                        new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "Token has been revoked", null))
+                : OAuth2TokenValidatorResult.success();
+
+        NimbusJwtDecoder nimbus = NimbusJwtDecoder.withSecretKey(secretKey)
                 .macAlgorithm(MacAlgorithm.HS256)
                 .build();
+        nimbus.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), notRevoked));
+
+        JwtDecoder decoder = new RecordingJwtDecoder(nimbus);
+        return properties.getJwt().isCacheEnabled()
+                ? new CachingJwtDecoder(decoder, notRevoked, properties.getJwt().getCacheMaxEntries(), registry)
+                : decoder;
     }
 
     @Bean
@@ -85,7 +112,18 @@ public class SecurityConfig {
         return new SecretKeySpec(secret, "HmacSHA256");
     }
 
+    /** Scopes become {@code SCOPE_*} authorities as before, the {@code role} claim a {@code ROLE_*} one. */
     private JwtAuthenticationConverter jwtAuthenticationConverter() {
-        return new JwtAuthenticationConverter();
+        JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            List<GrantedAuthority> authorities = new ArrayList<>(scopes.convert(jwt));
+            String role = jwt.getClaimAsString("role");
+            if (role != null && !role.isBlank()) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + UserRole.fromExternalValue(role).name()));
+            }
+            return authorities;
+        });
+        return converter;
     }
 }
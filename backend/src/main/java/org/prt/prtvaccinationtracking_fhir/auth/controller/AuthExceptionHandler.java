@@ -1,7 +1,11 @@
 package org.prt.prtvaccinationtracking_fhir.auth.controller;
 
+import org.prt.prtvaccinationtracking_fhir.auth.service.AuthorizationCodeStoreFullException;
+import org.prt.prtvaccinationtracking_fhir.auth.service.PasswordCheckRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -23,4 +27,14 @@ public class AuthExceptionHandler {
         detail.setDetail(exception.getMessage());
         return detail;
     }
+
+    @ExceptionHandler({PasswordCheckRejectedException.class, AuthorizationCodeStoreFullException.class})
+    public ResponseEntity<ProblemDetail> handleBusy(RuntimeException exception) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        detail.setTitle("Login is temporarily unavailable");
+        detail.setDetail(exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(detail);
+    }
 }
@@ -16,6 +16,7 @@ import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
 import org.prt.prtvaccinationtracking_fhir.auth.service.AuthorizationCodeService;
 import org.prt.prtvaccinationtracking_fhir.auth.service.FhirAuthService;
 import org.prt.prtvaccinationtracking_fhir.auth.service.JwtService;
+import org.prt.prtvaccinationtracking_fhir.auth.service.RefreshTokenService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -37,17 +38,20 @@ public class SmartLaunchController {
     private final FhirAuthService authService;
     private final AuthorizationCodeService authorizationCodeService;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     public SmartLaunchController(
             AuthProperties properties,
             FhirAuthService authService,
             AuthorizationCodeService authorizationCodeService,
-            JwtService jwtService
+            JwtService jwtService,
+            RefreshTokenService refreshTokenService
     ) {
         this.properties = properties;
         this.authService = authService;
         this.authorizationCodeService = authorizationCodeService;
         this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @GetMapping("/.well-known/smart-configuration")
@@ -58,7 +62,7 @@ public class SmartLaunchController {
                 properties.getJwt().getIssuer(),
                 baseUrl + "/auth/smart/authorize",
                 baseUrl + "/auth/smart/token",
-                List.of("authorization_code"),
+                List.of("authorization_code", "refresh_token"),
                 List.of("code"),
                 List.of(
                         "openid",
@@ -239,11 +243,15 @@ public class SmartLaunchController {
     @PostMapping(value = "/auth/smart/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public TokenResponse token(
             @RequestParam String grant_type,
-            @RequestParam String code,
-            @RequestParam String redirect_uri,
+            @RequestParam(required = false) String code,
+            @RequestParam(required = false) String redirect_uri,
             @RequestParam String client_id,
-            @RequestParam String code_verifier
+            @RequestParam(required = false) String code_verifier,
+            @RequestParam(required = false) String refresh_token
     ) {
+        if ("refresh_token".equals(grant_type)) {
+            return refresh(refresh_token, client_id);
+        }
         if (!"authorization_code".equals(grant_type)) {
             throw new IllegalArgumentException("Unsupported grant_type");
         }
@@ -263,16 +271,30 @@ public class SmartLaunchController {
             throw new IllegalArgumentException("PKCE verification failed");
         }
 
-        String accessToken = jwtService.createAccessToken(pendingCode.user(), pendingCode.scope());
-        String patient = pendingCode.user().patientIds().isEmpty() ? null : pendingCode.user().patientIds().get(0);
+        return tokenResponse(refreshTokenService.issue(client_id, pendingCode.scope(), pendingCode.user()));
+    }
+
+    private TokenResponse refresh(String refreshToken, String clientId) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken, clientId);
+        if (rotation == null) {
+            throw new IllegalArgumentException("Refresh token is invalid or expired");
+        }
+        return tokenResponse(rotation);
+    }
+
+    private TokenResponse tokenResponse(RefreshTokenService.Rotation session) {
+        AuthenticatedUser user = session.user();
+        String accessToken = jwtService.createAccessToken(user, session.scope(), session.sessionId());
+        String patient = user.patientIds().isEmpty() ? null : user.patientIds().get(0);
 
         return new TokenResponse(
                 accessToken,
                 "Bearer",
                 properties.getSmart().getAccessTokenTtlSeconds(),
-                pendingCode.scope(),
+                session.scope(),
                 patient,
-                pendingCode.user().fhirUser()
+                user.fhirUser(),
+                session.refreshToken()
         );
     }
 
@@ -6,6 +6,7 @@ public record TokenResponse(
         long expires_in,
         String scope,
         String patient,
-        String fhirUser
+        String fhirUser,
+        String refresh_token
 ) {
 }
@@ -1,23 +1,55 @@
 package org.prt.prtvaccinationtracking_fhir.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
 import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
 import org.prt.prtvaccinationtracking_fhir.auth.model.PendingAuthorizationCode;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Pending authorization codes, at most {@code auth.smart.authorization-code-capacity} at a
+ * time. Codes live in a Caffeine cache that expires them after the TTL on the shared system
+ * scheduler, so a redeemed code leaves the store at once and nothing else holds on to it.
+ * A slot is reserved before a code is stored and released when the code is redeemed or
+ * expires, so concurrent logins cannot overshoot the capacity.
+ */
 @Service
 public class AuthorizationCodeService {
 
     private final AuthProperties properties;
-    private final Map<String, PendingAuthorizationCode> codes = new ConcurrentHashMap<>();
+    private final Cache<String, PendingAuthorizationCode> codes;
+    private final AtomicInteger live = new AtomicInteger();
+    private final Counter expired;
+    private final Counter rejected;
 
-    public AuthorizationCodeService(AuthProperties properties) {
+    public AuthorizationCodeService(AuthProperties properties, MeterRegistry registry) {
         this.properties = properties;
+        this.codes = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(properties.getSmart().getAuthorizationCodeTtlSeconds()))
+                .scheduler(Scheduler.systemScheduler())
+                .evictionListener(this::onEviction)
+                .build();
+
+        Gauge.builder("auth.codes.live", live, AtomicInteger::get)
+                .description("Authorization codes issued and not yet redeemed or expired")
+                .register(registry);
+        this.expired = Counter.builder("auth.codes.expired")
+                .description("Authorization codes that expired without being redeemed")
+                .register(registry);
+        this.rejected = Counter.builder("auth.codes.rejected")
+                .description("Logins turned away because the code store was full")
+                .register(registry);
     }
 
     public PendingAuthorizationCode issue(
@@ -29,7 +61,12 @@ public class AuthorizationCodeService {
             String codeChallengeMethod,
             AuthenticatedUser user
     ) {
-        cleanupExpired();
+        if (live.incrementAndGet() > properties.getSmart().getAuthorizationCodeCapacity()) {
+            live.decrementAndGet();
+            rejected.increment();
+            throw new AuthorizationCodeStoreFullException();
+        }
+
         String code = UUID.randomUUID().toString();
         PendingAuthorizationCode pendingCode = new PendingAuthorizationCode(
                 code,
@@ -47,15 +84,21 @@ public class AuthorizationCodeService {
     }
 
     public PendingAuthorizationCode consume(String code) {
-        cleanupExpired();
         if (code == null || code.isBlank()) {
             return null;
         }
-        return codes.remove(code);
+        // An expired code that is still in the cache comes back as null and is evicted instead.
+        PendingAuthorizationCode pendingCode = codes.asMap().remove(code);
+        if (pendingCode != null) {
+            live.decrementAndGet();
+        }
+        return pendingCode;
     }
 
-    private void cleanupExpired() {
-        Instant now = Instant.now();
-        codes.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+    private void onEviction(String code, PendingAuthorizationCode pendingCode, RemovalCause cause) {
+        if (cause == RemovalCause.EXPIRED) {
+            live.decrementAndGet();
+            expired.increment();
+        }
     }
 }
@@ -0,0 +1,12 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+/**
+ * Thrown when the maximum number of authorization codes are waiting to be redeemed. The login
+ * is not completed, and the client should retry shortly.
+ */
+public class AuthorizationCodeStoreFullException extends RuntimeException {
+
+    public AuthorizationCodeStoreFullException() {
+        super("Too many logins in progress, please try again shortly");
+    }
+}
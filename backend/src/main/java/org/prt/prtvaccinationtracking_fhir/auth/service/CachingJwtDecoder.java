@@ -0,0 +1,106 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of verified access tokens in front of the signature-checking decoder. The
+ * browser sends the same bearer token with every API call of a page, so after the first call
+ * a token costs a SHA-256 of its text and a map lookup. Entries are dropped at the token's
+ * {@code exp}; every hit is still run through {@code hitValidator}, which checks revocation.
+ * Only tokens the delegate accepted are cached. The store is a Caffeine cache, so concurrent
+ * requests look tokens up without sharing a lock, and eviction past {@code maxEntries} is by
+ * frequency and recency.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final OAuth2TokenValidator<Jwt> hitValidator;
+    private final Cache<String, Jwt> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingJwtDecoder(
+            JwtDecoder delegate,
+            OAuth2TokenValidator<Jwt> hitValidator,
+            int maxEntries,
+            MeterRegistry registry
+    ) {
+        this.delegate = delegate;
+        this.hitValidator = hitValidator;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.creating((String key, Jwt jwt) -> Duration.between(Instant.now(), jwt.getExpiresAt())))
+                .build();
+
+        FunctionCounter.builder("auth.jwt.cache.requests", hits, LongAdder::doubleValue)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("auth.jwt.cache.requests", misses, LongAdder::doubleValue)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("auth.jwt.cache.hit.ratio", this, CachingJwtDecoder::hitRatio)
+                .register(registry);
+        Gauge.builder("auth.jwt.cache.size", this, CachingJwtDecoder::size)
+                .register(registry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            return delegate.decode(null);
+        }
+
+        String key = TokenHashes.sha256(token);
+        Jwt cached = entries.getIfPresent(key);
+        if (cached != null && isLive(cached)) {
+            OAuth2TokenValidatorResult result = hitValidator.validate(cached);
+            if (result.hasErrors()) {
+                entries.invalidate(key);
+                throw new JwtValidationException("Token is no longer valid", result.getErrors());
+            }
+            hits.increment();
+            return cached;
+        }
+
+        if (cached != null) {
+            entries.invalidate(key);
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && isLive(jwt)) {
+            entries.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private double hitRatio() {
+        double hitCount = hits.doubleValue();
+        double total = hitCount + misses.doubleValue();
+        return total == 0 ? 0 : hitCount / total;
+    }
+
+    private boolean isLive(Jwt jwt) {
+        return jwt.getExpiresAt().isAfter(Instant.now());
+    }
+}
@@ -3,26 +3,31 @@ package org.prt.prtvaccinationtracking_fhir.auth.service;
 import ca.uhn.fhir.rest.api.SearchStyleEnum;
 import ca.uhn.fhir.rest.gclient.TokenClientParam;
 import ca.uhn.fhir.rest.api.CacheControlDirective;
+import ca.uhn.fhir.rest.gclient.IQuery;
 import org.hl7.fhir.r5.model.*;
 import org.prt.prtvaccinationtracking_fhir.auth.dto.AuthSessionResponse;
 import org.prt.prtvaccinationtracking_fhir.auth.dto.RegisterRelatedPersonRequest;
 import org.prt.prtvaccinationtracking_fhir.auth.dto.RegisterPractitionerRequest;
 import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
 import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirExtensions;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class FhirAuthService {
 
-    public static final String PASSWORD_EXTENSION_URL = "http://example.org/extensions/password";
     public static final String RELATED_PERSON_USERNAME_SYSTEM = "app:login-username";
 
     public static final String PRACTITIONER_USERNAME_SYSTEM = "app:username";
@@ -32,10 +37,22 @@ public class FhirAuthService {
 
     private final FhirGateway fhir;
     private final PasswordService passwordService;
-
-    public FhirAuthService(FhirGateway fhir, PasswordService passwordService) {
+    private final UsernameIndex usernames;
+    private final PasswordRehasher passwordRehasher;
+    private final PractitionerDirectory directory;
+
+    public FhirAuthService(
+            FhirGateway fhir,
+            PasswordService passwordService,
+            UsernameIndex usernames,
+            PasswordRehasher passwordRehasher,
+            PractitionerDirectory directory
+    ) {
         this.fhir = fhir;
         this.passwordService = passwordService;
+        this.usernames = usernames;
+        this.passwordRehasher = passwordRehasher;
+        this.directory = directory;
     }
 
     public AuthSessionResponse buildSessionResponse(AuthenticatedUser user) {
@@ -75,44 +92,46 @@ public class FhirAuthService {
     }
 
     public Optional<AuthenticatedUser> authenticatePractitioner(String username, String password) {
-        Bundle bundle = practitionerByUsernameSearch(username);
-
-        for (Practitioner practitioner : resources(bundle, Practitioner.class)) {
-            String storedPassword = extensionString(practitioner, PASSWORD_EXTENSION_URL);
-            if (!passwordService.matches(password, storedPassword)) {
-                continue;
-            }
-
-            String practitionerId = practitioner.getIdElement().getIdPart();
-            String displayName = practitionerDisplayName(practitioner);
-            return Optional.of(new AuthenticatedUser(
-                    "Practitioner/" + practitionerId,
-                    username,
-                    UserRole.PRACTITIONER,
-                    displayName,
-                    "Practitioner/" + practitionerId,
-                    practitionerId,
-                    List.of(),
-                    List.of()));
+        try (Stream<Practitioner> practitioners = practitionersByUsername(username)) {
+            return practitioners
+                    .filter(practitioner -> passwordService.matches(
+                            password, extensionString(practitioner, FhirExtensions.PASSWORD_URL)))
+                    .findFirst()
+                    .map(practitioner -> {
+                        passwordRehasher.rehash(List.of(practitioner), password);
+                        String practitionerId = practitioner.getIdElement().getIdPart();
+                        String displayName = practitionerDisplayName(practitioner);
+                        return new AuthenticatedUser(
+                                "Practitioner/" + practitionerId,
+                                username,
+                                UserRole.PRACTITIONER,
+                                displayName,
+                                "Practitioner/" + practitionerId,
+                                practitionerId,
+                                List.of(),
+                                List.of());
+                    });
         }
-
-        return Optional.empty();
     }
 
     public Optional<AuthenticatedUser> authenticateRelatedPerson(String username, String password) {
-        Bundle bundle = relatedPersonByUsernameSearch(username);
-
-        List<RelatedPerson> matches = new ArrayList<>();
-        for (RelatedPerson relatedPerson : resources(bundle, RelatedPerson.class)) {
-            String storedPassword = extensionString(relatedPerson, PASSWORD_EXTENSION_URL);
-            if (passwordService.matches(password, storedPassword)) {
-                matches.add(relatedPerson);
-            }
+        // One RelatedPerson per linked patient, usually with the same stored value: check each value once.
+        Map<String, Boolean> checked = new HashMap<>();
+        List<RelatedPerson> matches;
+        try (Stream<RelatedPerson> relatedPersons = relatedPersonsByUsername(username)) {
+            matches = relatedPersons
+                    .filter(relatedPerson -> {
+                        String storedValue = extensionString(relatedPerson, FhirExtensions.PASSWORD_URL);
+                        return storedValue != null && checked.computeIfAbsent(
+                                storedValue, value -> passwordService.matches(password, value));
+                    })
+                    .toList();
         }
 
         if (matches.isEmpty()) {
             return Optional.empty();
         }
+        passwordRehasher.rehash(matches, password);
 
         Set<String> patientIds = new LinkedHashSet<>();
         Set<String> relatedPersonIds = new LinkedHashSet<>();
@@ -166,7 +185,8 @@ public class FhirAuthService {
             throw new IllegalArgumentException("username is required");
         }
 
-        if (!resources(practitionerByUsernameSearch(username), Practitioner.class).isEmpty()) {
+        // The index may lag behind registrations on other instances, so FHIR has the final word.
+        if (exists(practitionerByUsernameSearch(username), Practitioner.class)) {
             throw new IllegalStateException("Practitioner username already exists");
         }
     }
@@ -176,12 +196,87 @@ public class FhirAuthService {
             throw new IllegalArgumentException("username is required");
         }
 
-        if (!resources(relatedPersonByUsernameSearch(username), RelatedPerson.class).isEmpty()) {
+        if (exists(relatedPersonByUsernameSearch(username), RelatedPerson.class)) {
             throw new IllegalStateException("Related person username already exists");
         }
     }
 
-    private Bundle practitionerByUsernameSearch(String username) {
+    /**
+     * The indexed practitioners with this username, or the result of the identifier search when
+     * the index has none, e.g. for an account registered on another instance since the last
+     * refresh. What the search finds is added to the index.
+     */
+    private Stream<Practitioner> practitionersByUsername(String username) {
+        if (usernames.isReady()) {
+            List<Practitioner> indexed = readIndexed(
+                    Practitioner.class, usernames.practitionerIds(username), PRACTITIONER_USERNAME_SYSTEM, username);
+            if (!indexed.isEmpty()) {
+                return indexed.stream();
+            }
+        }
+        return fhir.stream(practitionerByUsernameSearch(username), Practitioner.class, false)
+                .peek(usernames::remember);
+    }
+
+    /** Same as {@link #practitionersByUsername} for related persons. */
+    private Stream<RelatedPerson> relatedPersonsByUsername(String username) {
+        if (usernames.isReady()) {
+            List<RelatedPerson> indexed = readIndexed(
+                    RelatedPerson.class, usernames.relatedPersonIds(username), RELATED_PERSON_USERNAME_SYSTEM, username);
+            if (!indexed.isEmpty()) {
+                return indexed.stream();
+            }
+        }
+        return fhir.stream(relatedPersonByUsernameSearch(username), RelatedPerson.class, true)
+                .peek(usernames::remember);
+    }
+
+    /**
+     * Fetches the resources the username index points at with one {@code _id} search, bypassing
+     * the read cache so a changed password is seen at once. Ids that are gone or no longer carry
+     * the username are dropped from the index and from the result.
+     */
+    private <T extends DomainResource> List<T> readIndexed(Class<T> type, Set<String> ids, String system, String username) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        IQuery<Bundle> query = fhir.client()
+                .search()
+                .forResource(type)
+                .usingStyle(SearchStyleEnum.POST)
+                .where(Resource.RES_ID.exactly().codes(ids))
+                .count(ids.size())
+                .cacheControl(CacheControlDirective.noCache())
+                .withAdditionalHeader("Pragma", "no-cache")
+                .returnBundle(Bundle.class);
+
+        List<T> current = new ArrayList<>();
+        Set<String> missing = new LinkedHashSet<>(ids);
+        try (Stream<T> resources = fhir.stream(query, type, false)) {
+            resources.forEach(resource -> {
+                String id = resource.getIdElement().getIdPart();
+                if (!missing.remove(id)) {
+                    return;
+                }
+
+                boolean hasUsername = fhir.client().getFhirContext().newTerser()
+                        .getValues(resource, "identifier", Identifier.class).stream()
+                        .anyMatch(identifier -> system.equals(identifier.getSystem())
+                                && username.equals(identifier.getValue()));
+                if (hasUsername) {
+                    current.add(resource);
+                } else {
+                    usernames.forget(type, id);
+                }
+            });
+        }
+
+        missing.forEach(id -> usernames.forget(type, id));
+        return current;
+    }
+
+    private IQuery<Bundle> practitionerByUsernameSearch(String username) {
         return fhir.client()
                 .search()
                 .forResource(Practitioner.class)
@@ -191,11 +286,10 @@ public class FhirAuthService {
                         .systemAndCode(PRACTITIONER_USERNAME_SYSTEM, username))
                 .cacheControl(CacheControlDirective.noCache())
                 .withAdditionalHeader("Pragma", "no-cache")
-                .returnBundle(Bundle.class)
-                .execute();
+                .returnBundle(Bundle.class);
     }
 
-    private Bundle relatedPersonByUsernameSearch(String username) {
+    private IQuery<Bundle> relatedPersonByUsernameSearch(String username) {
         return fhir.client()
                 .search()
                 .forResource(RelatedPerson.class)
@@ -205,8 +299,7 @@ public class FhirAuthService {
                         .systemAndCode(RELATED_PERSON_USERNAME_SYSTEM, username))
                 .cacheControl(CacheControlDirective.noCache())
                 .withAdditionalHeader("Pragma", "no-cache")
-                .returnBundle(Bundle.class)
-                .execute();
+                .returnBundle(Bundle.class);
     }
 
     public RelatedPerson registerRelatedPerson(RegisterRelatedPersonRequest request) {
@@ -254,8 +347,10 @@ public class FhirAuthService {
                 .setValue(request.username()));
 
         resource.addExtension(
-                new Extension(PASSWORD_EXTENSION_URL, new StringType(passwordService.encode(request.password()))));
-        return fhir.create(resource);
+                new Extension(FhirExtensions.PASSWORD_URL, new StringType(passwordService.encode(request.password()))));
+        RelatedPerson created = fhir.create(resource);
+        usernames.remember(created);
+        return created;
     }
 
     public Practitioner registerPractitioner(RegisterPractitionerRequest request) {
@@ -313,10 +408,13 @@ public class FhirAuthService {
         }
 
         resource.addExtension(new Extension(
-                PASSWORD_EXTENSION_URL,
+                FhirExtensions.PASSWORD_URL,
                 new StringType(passwordService.encode(request.password()))));
 
-        return fhir.create(resource);
+        Practitioner created = fhir.create(resource);
+        usernames.remember(created);
+        directory.remember(created);
+        return created;
     }
 
     private List<String> stringList(org.springframework.security.oauth2.jwt.Jwt jwt, String claim) {
@@ -366,7 +464,7 @@ public class FhirAuthService {
         return given + " " + family;
     }
 
-    private String extensionString(DomainResource resource, String url) {
+    static String extensionString(DomainResource resource, String url) {
         if (resource == null || !resource.hasExtension()) {
             return null;
         }
@@ -380,23 +478,9 @@ public class FhirAuthService {
         return null;
     }
 
-    private <T extends Resource> List<T> resources(Bundle bundle, Class<T> type) {
-        List<T> results = new ArrayList<>();
-        if (bundle == null || !bundle.hasEntry()) {
-            return results;
+    private <T extends Resource> boolean exists(IQuery<Bundle> query, Class<T> type) {
+        try (Stream<T> matches = fhir.stream(query, type, false)) {
+            return matches.findAny().isPresent();
         }
-
-        for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
-            if (entry == null || !entry.hasResource()) {
-                continue;
-            }
-
-            Resource resource = entry.getResource();
-            if (type.isInstance(resource)) {
-                results.add(type.cast(resource));
-            }
-        }
-
-        return results;
     }
 }
@@ -2,6 +2,7 @@ package org.prt.prtvaccinationtracking_fhir.auth.service;
 
 import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
 import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
+import org.prt.prtvaccinationtracking_fhir.jfr.JwtEvent;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
@@ -22,6 +23,11 @@ public class JwtService {
     }
 
     public String createAccessToken(AuthenticatedUser user, String scope) {
+        return createAccessToken(user, scope, null);
+    }
+
+    /** Signs an access token; {@code sessionId} becomes the {@code sid} claim when not null. */
+    public String createAccessToken(AuthenticatedUser user, String scope, String sessionId) {
         Instant now = Instant.now();
 
         Map<String, Object> claims = new HashMap<>();
@@ -33,6 +39,9 @@ public class JwtService {
         claims.put("practitioner_id", user.practitionerId());
         claims.put("related_person_ids", user.relatedPersonIds());
         claims.put("patient_ids", user.patientIds());
+        if (sessionId != null) {
+            claims.put("sid", sessionId);
+        }
 
         JwtClaimsSet claimsSet = JwtClaimsSet.builder()
                 .issuer(properties.getJwt().getIssuer())
@@ -43,6 +52,20 @@ public class JwtService {
                 .build();
 
         JwsHeader header = JwsHeader.with(org.springframework.security.oauth2.jose.jws.MacAlgorithm.HS256).build();
-        return encoder.encode(JwtEncoderParameters.from(header, claimsSet)).getTokenValue();
+        JwtEvent event = new JwtEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            String token = encoder.encode(JwtEncoderParameters.from(header, claimsSet)).getTokenValue();
+            success = true;
+            return token;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "encode";
+                event.success = success;
+                event.commit();
+            }
+        }
     }
 }
@@ -0,0 +1,12 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+/**
+ * Thrown when the password check pool and its queue are full. The login is not attempted,
+ * and the client should retry shortly.
+ */
+public class PasswordCheckRejectedException extends RuntimeException {
+
+    public PasswordCheckRejectedException() {
+        super("Too many logins in progress, please try again shortly");
+    }
+}
@@ -0,0 +1,118 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hl7.fhir.r5.model.DomainResource;
+import org.hl7.fhir.r5.model.StringType;
+import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirExtensions;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Replaces the stored password of accounts that just logged in with a fresh hash, after the
+ * login has answered. Each account gets a FHIRPath Patch of the password extension's value
+ * only, sent with {@code If-Match} on the version the login read, so a password changed in
+ * the meantime is left alone. Best effort: a full queue, a conflict or a failure is counted or
+ * logged, and the next login tries again.
+ */
+@Service
+public class PasswordRehasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehasher.class);
+
+    private final FhirGateway fhir;
+    private final PasswordService passwordService;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordRehasher(
+            FhirGateway fhir,
+            PasswordService passwordService,
+            AuthProperties properties,
+            MeterRegistry registry
+    ) {
+        this.fhir = fhir;
+        this.passwordService = passwordService;
+        this.executor = new ThreadPoolExecutor(
+                1,
+                1,
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getPasswords().getRehashQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("auth.passwords.rehash.rejected")
+                .description("Password rehashes skipped because the rehash queue was full")
+                .register(registry);
+    }
+
+    /** Queues a rehash of those {@code accounts} whose stored password {@link PasswordService#needsRehash needs one}. */
+    public void rehash(List<? extends DomainResource> accounts, String password) {
+        List<? extends DomainResource> stale = accounts.stream()
+                .filter(account -> passwordService.needsRehash(
+                        FhirAuthService.extensionString(account, FhirExtensions.PASSWORD_URL)))
+                .toList();
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> rehashNow(stale, password));
+        } catch (RejectedExecutionException exception) {
+            rejected.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void rehashNow(List<? extends DomainResource> accounts, String password) {
+        String hash;
+        try {
+            hash = passwordService.encode(password);
+        } catch (RuntimeException exception) {
+            log.warn("Rehashing passwords failed: {}", exception.getMessage());
+            return;
+        }
+
+        for (DomainResource account : accounts) {
+            String type = account.fhirType();
+            String id = account.getIdElement().getIdPart();
+            String ifMatch = FhirVersioned.of(account, Function.identity()).eTag();
+            if (ifMatch == null) {
+                log.warn("Not rehashing the password of {}/{}: the server reported no version", type, id);
+                continue;
+            }
+
+            FhirPatchBuilder patch = new FhirPatchBuilder(type)
+                    .replace(type + ".extension.where(url = '" + FhirExtensions.PASSWORD_URL + "').value",
+                            new StringType(hash));
+            try {
+                fhir.patch(account.getClass(), id, patch.build(), ifMatch);
+            } catch (PreconditionFailedException exception) {
+                log.debug("Not rehashing the password of {}/{}: it changed since the login read it", type, id);
+            } catch (RuntimeException exception) {
+                log.warn("Rehashing the password of {}/{} failed: {}", type, id, exception.getMessage());
+            }
+        }
+    }
+}
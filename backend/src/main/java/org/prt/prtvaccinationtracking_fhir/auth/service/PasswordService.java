@@ -1,26 +1,133 @@
 package org.prt.prtvaccinationtracking_fhir.auth.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
+import org.prt.prtvaccinationtracking_fhir.jfr.PasswordCheckEvent;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and checks passwords. BCrypt costs tens of milliseconds of CPU, so the work runs on
+ * a small bounded pool instead of the request thread: a burst of logins queues up to
+ * {@code auth.passwords.queue-capacity} checks and anything beyond that is turned away at once
+ * with {@link PasswordCheckRejectedException} (503) rather than starving the API threads.
+ */
 @Service
 public class PasswordService {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final boolean rehash;
+
+    public PasswordService(AuthProperties properties, MeterRegistry registry) {
+        AuthProperties.Passwords settings = properties.getPasswords();
+        this.encoder = new BCryptPasswordEncoder(settings.getBcryptStrength());
+        this.rehash = settings.isRehash();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                settings.getThreads(),
+                settings.getThreads(),
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-check-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "auth.passwords", Tags.empty()).bindTo(registry);
+        this.rejected = Counter.builder("auth.passwords.rejected")
+                .description("Password checks turned away because the pool and its queue were full")
+                .register(registry);
+    }
 
     public boolean matches(String rawPassword, String storedValue) {
         if (rawPassword == null || storedValue == null || storedValue.isBlank()) {
             return false;
         }
 
-        if (storedValue.startsWith("$2")) {
-            return encoder.matches(rawPassword, storedValue);
+        // Legacy plain values are a string compare and need no pool slot.
+        return isBcrypt(storedValue)
+                ? run(() -> check(rawPassword, storedValue, true))
+                : check(rawPassword, storedValue, false);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * True when a stored value that just matched should be replaced by a fresh hash: legacy
+     * plaintext values, and BCrypt hashes of a lower strength than the configured one. Always
+     * false when {@code auth.passwords.rehash} is off.
+     */
+    public boolean needsRehash(String storedValue) {
+        return rehash && storedValue != null
+                && (!isBcrypt(storedValue) || encoder.upgradeEncoding(storedValue));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean check(String rawPassword, String storedValue, boolean bcrypt) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+
+        boolean matched = bcrypt
+                ? encoder.matches(rawPassword, storedValue)
+                : storedValue.equals(rawPassword);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.scheme = bcrypt ? "bcrypt" : "plain";
+            event.matched = matched;
+            event.commit();
         }
+        return matched;
+    }
 
-        return storedValue.equals(rawPassword);
+    private boolean isBcrypt(String storedValue) {
+        return storedValue.startsWith("$2");
     }
 
-    public String encode(String rawPassword) {
-        return encoder.encode(rawPassword);
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException exception) {
+            rejected.increment();
+            throw new PasswordCheckRejectedException();
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException exception) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the password", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
     }
 }
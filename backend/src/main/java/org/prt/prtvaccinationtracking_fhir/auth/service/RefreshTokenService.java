@@ -0,0 +1,179 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
+import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and rotates opaque refresh tokens. Every token belongs to a session started by an
+ * authorization code exchange; redeeming a token replaces it with a new one and keeps the
+ * user and scope of the session, so renewal needs neither a password check nor a FHIR read.
+ * Only SHA-256 hashes of tokens are kept. Presenting a token that was already rotated out
+ * means it leaked: the whole session ends, and access tokens carrying its {@code sid} are
+ * reported by {@link #isRevoked} until they would have expired anyway. Sessions expire when
+ * no token was redeemed for {@code auth.smart.refresh-token-ttl-seconds}; a background sweep
+ * drops them.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Duration timeToLive;
+    private final Duration accessTokenTimeToLive;
+    private final Map<String, Session> sessionsByToken = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedUntil = new ConcurrentHashMap<>();
+    private final Counter reused;
+    private final ScheduledExecutorService sweeper;
+
+    public RefreshTokenService(AuthProperties properties, MeterRegistry registry) {
+        this.timeToLive = Duration.ofSeconds(properties.getSmart().getRefreshTokenTtlSeconds());
+        this.accessTokenTimeToLive = Duration.ofSeconds(properties.getSmart().getAccessTokenTtlSeconds());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("auth.refresh.sessions", sessions, Map::size)
+                .description("Sessions holding a live refresh token")
+                .register(registry);
+        this.reused = Counter.builder("auth.refresh.reused")
+                .description("Rotated-out refresh tokens presented again; each ends its session")
+                .register(registry);
+
+        long period = Math.max(1, Math.min(timeToLive.toSeconds(), 60));
+        sweeper.scheduleWithFixedDelay(this::removeExpired, period, period, TimeUnit.SECONDS);
+    }
+
+    /** Starts a session for a user who just exchanged an authorization code. */
+    public Rotation issue(String clientId, String scope, AuthenticatedUser user) {
+        Session session = new Session(UUID.randomUUID().toString(), clientId, scope, user);
+        synchronized (session) {
+            String refreshToken = session.rotate(Instant.now().plus(timeToLive));
+            sessions.put(session.id, session);
+            return new Rotation(refreshToken, session.id, scope, user);
+        }
+    }
+
+    /**
+     * Redeems a refresh token for a new one. Returns null when the token is unknown, expired,
+     * issued to another client, or was already redeemed (which also ends its session).
+     */
+    public Rotation rotate(String refreshToken, String clientId) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return null;
+        }
+
+        String hash = TokenHashes.sha256(refreshToken);
+        Session session = sessionsByToken.get(hash);
+        if (session == null) {
+            return null;
+        }
+
+        Instant now = Instant.now();
+        synchronized (session) {
+            if (session.ended) {
+                return null;
+            }
+            if (!hash.equals(session.currentHash)) {
+                reused.increment();
+                end(session);
+                revokedUntil.put(session.id, now.plus(accessTokenTimeToLive));
+                return null;
+            }
+            if (!session.expiresAt.isAfter(now)) {
+                end(session);
+                return null;
+            }
+            if (!session.clientId.equals(clientId)) {
+                return null;
+            }
+            return new Rotation(session.rotate(now.plus(timeToLive)), session.id, session.scope, session.user);
+        }
+    }
+
+    /** True when access tokens of this session must no longer be accepted. */
+    public boolean isRevoked(String sessionId) {
+        return sessionId != null && revokedUntil.containsKey(sessionId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private void removeExpired() {
+        Instant now = Instant.now();
+        for (Session session : sessions.values()) {
+            synchronized (session) {
+                if (!session.expiresAt.isAfter(now)) {
+                    end(session);
+                }
+            }
+        }
+        revokedUntil.values().removeIf(until -> !until.isAfter(now));
+    }
+
+    private void end(Session session) {
+        session.ended = true;
+        sessions.remove(session.id);
+        session.hashes.forEach(sessionsByToken::remove);
+    }
+
+    /** The new refresh token together with what the access token is signed for. */
+    public record Rotation(String refreshToken, String sessionId, String scope, AuthenticatedUser user) {
+    }
+
+    /** One login and every refresh token issued for it; guarded by its own monitor. */
+    private final class Session {
+
+        private final String id;
+        private final String clientId;
+        private final String scope;
+        private final AuthenticatedUser user;
+        private final List<String> hashes = new ArrayList<>();
+
+        private String currentHash;
+        private Instant expiresAt;
+        private boolean ended;
+
+        private Session(String id, String clientId, String scope, AuthenticatedUser user) {
+            this.id = id;
+            this.clientId = clientId;
+            this.scope = scope;
+            this.user = user;
+        }
+
+        private String rotate(Instant expiresAt) {
+            byte[] bytes = new byte[32];
+            RANDOM.nextBytes(bytes);
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+            // Rotated-out hashes stay mapped to the session so that their reuse is recognised.
+            currentHash = TokenHashes.sha256(token);
+            hashes.add(currentHash);
+            sessionsByToken.put(currentHash, this);
+            this.expiresAt = expiresAt;
+            return token;
+        }
+    }
+}
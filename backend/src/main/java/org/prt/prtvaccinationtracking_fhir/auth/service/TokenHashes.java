@@ -0,0 +1,23 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/** The key under which tokens are stored and looked up, so the token itself is never kept. */
+final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    /** Unpadded base64url SHA-256 of the token's ASCII bytes. */
+    static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.prt.prtvaccinationtracking_fhir.auth.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hl7.fhir.r5.model.DomainResource;
+import org.hl7.fhir.r5.model.Identifier;
+import org.hl7.fhir.r5.model.InstantType;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.RelatedPerson;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.auth.config.AuthProperties;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirBundleStreamReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Maps login usernames to the ids of the Practitioners and RelatedPersons that carry them, so
+ * a login reads the matching resources directly instead of running an uncached identifier
+ * search. The index is loaded in the background at startup and then kept current by the
+ * registration path and by {@code _lastUpdated} polling, like {@code PractitionerDirectory}.
+ * Until the first load has finished {@link #isReady()} is false and callers search instead.
+ * The index only speeds up hits: a login it has no entry for still searches, and registration
+ * always checks FHIR, since an account created elsewhere shows up here only after a refresh.
+ */
+@Service
+public class UsernameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameIndex.class);
+
+    private final FhirBundleStreamReader reader;
+    private final AuthProperties.Usernames settings;
+    private final Index practitioners = new Index("Practitioner", FhirAuthService.PRACTITIONER_USERNAME_SYSTEM);
+    private final Index relatedPersons = new Index("RelatedPerson", FhirAuthService.RELATED_PERSON_USERNAME_SYSTEM);
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean ready;
+
+    public UsernameIndex(FhirBundleStreamReader reader, AuthProperties properties, MeterRegistry registry) {
+        this.reader = reader;
+        this.settings = properties.getUsernames();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "username-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Index index : List.of(practitioners, relatedPersons)) {
+            Gauge.builder("auth.usernames", index.usernameById, Map::size)
+                    .tag("type", index.resourceType)
+                    .register(registry);
+        }
+
+        if (settings.isEnabled()) {
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0,
+                    settings.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** True once both resource types have been loaded completely. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Ids of the Practitioners with this username; usually zero or one. */
+    public Set<String> practitionerIds(String username) {
+        return practitioners.idsOf(username);
+    }
+
+    /** Ids of the RelatedPersons with this username, one per linked patient. */
+    public Set<String> relatedPersonIds(String username) {
+        return relatedPersons.idsOf(username);
+    }
+
+    /** Records a practitioner this application just registered. */
+    public void remember(Practitioner practitioner) {
+        practitioners.put(practitioner);
+    }
+
+    /** Records a related person this application just registered. */
+    public void remember(RelatedPerson relatedPerson) {
+        relatedPersons.put(relatedPerson);
+    }
+
+    /** Drops an id whose resource is gone or no longer carries the indexed username. */
+    public void forget(Class<? extends Resource> resourceType, String id) {
+        (resourceType == Practitioner.class ? practitioners : relatedPersons).remove(id);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh(practitioners);
+            refresh(relatedPersons);
+            ready = true;
+        } catch (RuntimeException exception) {
+            log.warn("Refreshing the username index failed: {}", exception.getMessage());
+        }
+    }
+
+    private void refresh(Index index) {
+        StringBuilder query = new StringBuilder(index.resourceType)
+                .append("?identifier=")
+                .append(URLEncoder.encode(index.system + "|", StandardCharsets.UTF_8))
+                .append("&_elements=identifier&_count=")
+                .append(settings.getPageSize());
+
+        // "ge" re-reads resources stamped exactly at the watermark, so none are missed.
+        if (index.lastUpdated != null) {
+            query.append("&_lastUpdated=ge")
+                    .append(URLEncoder.encode(index.lastUpdated.getValueAsString(), StandardCharsets.UTF_8));
+        }
+
+        AtomicReference<InstantType> newest = new AtomicReference<>(index.lastUpdated);
+        reader.search(query.toString(), resource -> {
+            if (!(resource instanceof DomainResource domainResource)
+                    || !index.resourceType.equals(resource.fhirType())) {
+                return;
+            }
+            index.put(domainResource);
+
+            InstantType stamp = resource.getMeta().getLastUpdatedElement();
+            InstantType current = newest.get();
+            if (stamp.getValue() != null && (current == null || stamp.after(current.getValue()))) {
+                newest.set(stamp.copy());
+            }
+        });
+
+        index.lastUpdated = newest.get();
+    }
+
+    /** Username to ids of one resource type, with the reverse map to drop renamed entries. */
+    private static final class Index {
+
+        private final String resourceType;
+        private final String system;
+        private final Map<String, Set<String>> idsByUsername = new ConcurrentHashMap<>();
+        private final Map<String, String> usernameById = new ConcurrentHashMap<>();
+
+        private InstantType lastUpdated;
+
+        private Index(String resourceType, String system) {
+            this.resourceType = resourceType;
+            this.system = system;
+        }
+
+        Set<String> idsOf(String username) {
+            return username == null ? Set.of() : idsByUsername.getOrDefault(username, Set.of());
+        }
+
+        synchronized void put(DomainResource resource) {
+            if (resource == null || !resource.getIdElement().hasIdPart()) {
+                return;
+            }
+
+            String id = resource.getIdElement().getIdPart();
+            String username = usernameOf(resource);
+            if (username == null) {
+                remove(id);
+                return;
+            }
+
+            String previous = usernameById.put(id, username);
+            if (previous != null && !previous.equals(username)) {
+                detach(previous, id);
+            }
+
+            Set<String> ids = new LinkedHashSet<>(idsOf(username));
+            ids.add(id);
+            idsByUsername.put(username, Set.copyOf(ids));
+        }
+
+        synchronized void remove(String id) {
+            String username = usernameById.remove(id);
+            if (username != null) {
+                detach(username, id);
+            }
+        }
+
+        private void detach(String username, String id) {
+            Set<String> ids = new LinkedHashSet<>(idsOf(username));
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByUsername.remove(username);
+            } else {
+                idsByUsername.put(username, Set.copyOf(ids));
+            }
+        }
+
+        private String usernameOf(DomainResource resource) {
+            List<Identifier> identifiers = resource instanceof Practitioner practitioner
+                    ? practitioner.getIdentifier()
+                    : resource instanceof RelatedPerson relatedPerson ? relatedPerson.getIdentifier() : List.of();
+
+            for (Identifier identifier : identifiers) {
+                if (system.equals(identifier.getSystem()) && identifier.hasValue()) {
+                    return identifier.getValue();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.prt.prtvaccinationtracking_fhir.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * The FHIR HTTP client as the HAPI client sees it: every call goes to the shared pooled client,
+ * and transport failures (connect, pool and socket timeouts, broken connections) are handed to
+ * {@code onFailure} on the calling thread before they propagate. HAPI's client interceptors only
+ * hear about calls that produced a response, so this is where they learn about the others.
+ * Closing it leaves the shared client open.
+ */
+public class FailureReportingHttpClient extends CloseableHttpClient {
+
+    private final CloseableHttpClient delegate;
+    private final Consumer<IOException> onFailure;
+
+    public FailureReportingHttpClient(CloseableHttpClient delegate, Consumer<IOException> onFailure) {
+        this.delegate = delegate;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        try {
+            return delegate.execute(target, request, context);
+        } catch (IOException exception) {
+            onFailure.accept(exception);
+            throw exception;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+}
@@ -1,32 +1,146 @@
 package org.prt.prtvaccinationtracking_fhir.config;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.client.apache.GZipContentInterceptor;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
-import ca.uhn.fhir.rest.client.interceptor.LoggingInterceptor;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirRequestLogInterceptor;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirRoundTripInterceptor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties(FhirProperties.class)
 public class FhirClientConfig {
 
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+
     @Bean
     public FhirContext fhirContext() {
         return FhirContext.forR5();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public InstrumentedConnectionManager fhirConnectionManager(FhirProperties properties, MeterRegistry registry) {
+        return new InstrumentedConnectionManager(properties.getClient(), registry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient fhirHttpClient(
+            FhirProperties properties,
+            InstrumentedConnectionManager connectionManager,
+            MeterRegistry registry,
+            @Value("${fhir.server.base-url}") String baseUrl
+    ) {
+        FhirProperties.Client settings = properties.getClient();
+        long keepAliveMillis = settings.getKeepAlive().toMillis();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) settings.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) settings.getSocketTimeout().toMillis())
+                .setConnectionRequestTimeout((int) settings.getConnectionRequestTimeout().toMillis())
+                .build();
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setRequestExecutor(new InstrumentedRequestExecutor(registry, baseUrl))
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+
+        if (!settings.isGzipResponses()) {
+            builder.disableContentCompression();
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * WebClient for {@code ReactiveFhirGateway}, pooled and timed out from the same
+     * {@code fhir.client.*} settings as the blocking client and instrumented the same way.
+     */
+    @Bean
+    public WebClient fhirWebClient(
+            WebClient.Builder builder,
+            FhirProperties properties,
+            MeterRegistry registry,
+            @Value("${fhir.server.base-url}") String baseUrl
+    ) {
+        FhirProperties.Client settings = properties.getClient();
+
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("fhir")
+                        .maxConnections(settings.getPoolMaxTotal())
+                        .pendingAcquireTimeout(settings.getConnectionRequestTimeout())
+                        .maxIdleTime(settings.getKeepAlive())
+                        .build())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .responseTimeout(settings.getSocketTimeout())
+                .compress(settings.isGzipResponses());
+
+        builder.baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_RESPONSE_BYTES))
+                .filter(new InstrumentedExchangeFilter(registry, baseUrl));
+
+        if (properties.getLogging().isEnabled()) {
+            builder.filter(new FhirRequestLogInterceptor(properties.getLogging()).exchangeFilter());
+        }
+
+        return builder.build();
+    }
+
     @Bean
     public IGenericClient fhirClient(
             FhirContext fhirContext,
-            @Value("${fhir.server.base-url}") String baseUrl,
-            @Value("${fhir.client.logging:false}") boolean enableLogging
+            FhirProperties properties,
+            CloseableHttpClient fhirHttpClient,
+            @Value("${fhir.server.base-url}") String baseUrl
     ) {
+        FhirProperties.Client settings = properties.getClient();
+
+        FhirRoundTripInterceptor roundTrips = new FhirRoundTripInterceptor();
+        FhirRequestLogInterceptor requestLog = properties.getLogging().isEnabled()
+                ? new FhirRequestLogInterceptor(properties.getLogging())
+                : null;
+
+        fhirContext.getRestfulClientFactory().setHttpClient(new FailureReportingHttpClient(fhirHttpClient, exception -> {
+            roundTrips.interceptFailure();
+            if (requestLog != null) {
+                requestLog.interceptFailure(exception);
+            }
+        }));
+        // The context is pinned to R5; skip the conformance read HAPI would make before the first request
+        fhirContext.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
         IGenericClient client = fhirContext.newRestfulGenericClient(baseUrl);
+        client.registerInterceptor(roundTrips);
+
+        if (settings.isGzipRequests()) {
+            client.registerInterceptor(new GZipContentInterceptor());
+        }
 
-        if (enableLogging) {
-            client.registerInterceptor(new LoggingInterceptor(true));
+        if (requestLog != null) {
+            client.registerInterceptor(requestLog);
         }
 
         return client;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,381 @@
+package org.prt.prtvaccinationtracking_fhir.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "fhir")
+public class FhirProperties {
+
+    private final Client client = new Client();
+    private final Cache cache = new Cache();
+    private final Batching batching = new Batching();
+    private final Directory directory = new Directory();
+    private final Paging paging = new Paging();
+    private final Projection projection = new Projection();
+    private final Logging logging = new Logging();
+    private final RoundTrips roundTrips = new RoundTrips();
+
+    public Client getClient() {
+        return client;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Batching getBatching() {
+        return batching;
+    }
+
+    public Directory getDirectory() {
+        return directory;
+    }
+
+    public Paging getPaging() {
+        return paging;
+    }
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public RoundTrips getRoundTrips() {
+        return roundTrips;
+    }
+
+    public static class Client {
+        private int poolMaxTotal = 50;
+        private int poolMaxPerRoute = 50;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration socketTimeout = Duration.ofSeconds(30);
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private boolean gzipRequests = false;
+        private boolean gzipResponses = true;
+
+        public int getPoolMaxTotal() {
+            return poolMaxTotal;
+        }
+
+        public void setPoolMaxTotal(int poolMaxTotal) {
+            this.poolMaxTotal = poolMaxTotal;
+        }
+
+        public int getPoolMaxPerRoute() {
+            return poolMaxPerRoute;
+        }
+
+        public void setPoolMaxPerRoute(int poolMaxPerRoute) {
+            this.poolMaxPerRoute = poolMaxPerRoute;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public void setSocketTimeout(Duration socketTimeout) {
+            this.socketTimeout = socketTimeout;
+        }
+
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public boolean isGzipRequests() {
+            return gzipRequests;
+        }
+
+        public void setGzipRequests(boolean gzipRequests) {
+            this.gzipRequests = gzipRequests;
+        }
+
+        public boolean isGzipResponses() {
+            return gzipResponses;
+        }
+
+        public void setGzipResponses(boolean gzipResponses) {
+            this.gzipResponses = gzipResponses;
+        }
+    }
+
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntries = 1000;
+        private Duration timeToLive = Duration.ofSeconds(60);
+        private Duration maxAge = Duration.ofMinutes(10);
+        private List<String> resourceTypes = List.of("Location", "Organization", "Practitioner");
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public List<String> getResourceTypes() {
+            return resourceTypes;
+        }
+
+        public void setResourceTypes(List<String> resourceTypes) {
+            this.resourceTypes = resourceTypes;
+        }
+    }
+
+    public static class Batching {
+        private boolean enabled = false;
+        private Duration window = Duration.ofMillis(5);
+        private int maxBatchSize = 50;
+        private int flushThreads = 4;
+        private int flushQueueCapacity = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getFlushThreads() {
+            return flushThreads;
+        }
+
+        public void setFlushThreads(int flushThreads) {
+            this.flushThreads = flushThreads;
+        }
+
+        public int getFlushQueueCapacity() {
+            return flushQueueCapacity;
+        }
+
+        public void setFlushQueueCapacity(int flushQueueCapacity) {
+            this.flushQueueCapacity = flushQueueCapacity;
+        }
+    }
+
+    public static class Directory {
+        private boolean enabled = true;
+        private Duration refreshInterval = Duration.ofSeconds(60);
+        private Duration fullRefreshInterval = Duration.ofMinutes(15);
+        private int pageSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getFullRefreshInterval() {
+            return fullRefreshInterval;
+        }
+
+        public void setFullRefreshInterval(Duration fullRefreshInterval) {
+            this.fullRefreshInterval = fullRefreshInterval;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    public static class Paging {
+        private int defaultPageSize = 20;
+        private int maxPageSize = 100;
+        private int prefetchThreads = 8;
+        private int prefetchQueueCapacity = 16;
+        private String cursorSecret = "";
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public int getPrefetchThreads() {
+            return prefetchThreads;
+        }
+
+        public void setPrefetchThreads(int prefetchThreads) {
+            this.prefetchThreads = prefetchThreads;
+        }
+
+        public int getPrefetchQueueCapacity() {
+            return prefetchQueueCapacity;
+        }
+
+        public void setPrefetchQueueCapacity(int prefetchQueueCapacity) {
+            this.prefetchQueueCapacity = prefetchQueueCapacity;
+        }
+
+        public String getCursorSecret() {
+            return cursorSecret;
+        }
+
+        public void setCursorSecret(String cursorSecret) {
+            this.cursorSecret = cursorSecret;
+        }
+    }
+
+    public static class Projection {
+        private List<String> read = List.of();
+        private List<String> search = List.of();
+
+        public List<String> getRead() {
+            return read;
+        }
+
+        public void setRead(List<String> read) {
+            this.read = read;
+        }
+
+        public List<String> getSearch() {
+            return search;
+        }
+
+        public void setSearch(List<String> search) {
+            this.search = search;
+        }
+    }
+
+    public static class RoundTrips {
+        private boolean headers = false;
+
+        public boolean isHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(boolean headers) {
+            this.headers = headers;
+        }
+    }
+
+    public static class Logging {
+        private boolean enabled = false;
+        private double sampleRate = 0.01;
+        private Duration slowThreshold = Duration.ofSeconds(1);
+        private int maxBodyLength = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public int getMaxBodyLength() {
+            return maxBodyLength;
+        }
+
+        public void setMaxBodyLength(int maxBodyLength) {
+            this.maxBodyLength = maxBodyLength;
+        }
+    }
+}
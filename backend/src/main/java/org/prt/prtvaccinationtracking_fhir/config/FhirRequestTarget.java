@@ -0,0 +1,68 @@
+package org.prt.prtvaccinationtracking_fhir.config;
+
+import java.net.URI;
+
+/**
+ * Resource type and operation of a request to the FHIR server, e.g. Immunization / read, as
+ * used for the {@code type} and {@code operation} tags of the FHIR client meters.
+ */
+public record FhirRequestTarget(String type, String operation) {
+
+    /** Path of the server base with a trailing slash, for {@link #classify}. */
+    public static String basePath(String baseUrl) {
+        String path = URI.create(baseUrl).getPath();
+        return path.endsWith("/") ? path : path + "/";
+    }
+
+    public static FhirRequestTarget classify(String method, String requestUri, String basePath) {
+        URI uri = URI.create(requestUri);
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        } else if (path.equals(basePath.substring(0, basePath.length() - 1))) {
+            path = "";
+        } else if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+
+        String[] segments = path.isEmpty() ? new String[0] : path.split("/");
+        if (segments.length == 0) {
+            String query = uri.getRawQuery();
+            if ("GET".equals(method) && query != null && query.contains("_getpages=")) {
+                return new FhirRequestTarget("none", "page");
+            }
+            return new FhirRequestTarget("none", "POST".equals(method) ? "transaction" : "system");
+        }
+
+        String first = segments[0];
+        if ("metadata".equals(first)) {
+            return new FhirRequestTarget("none", "capabilities");
+        }
+        if (first.startsWith("$")) {
+            return new FhirRequestTarget("none", "operation");
+        }
+        if (first.isEmpty() || !Character.isUpperCase(first.charAt(0))) {
+            return new FhirRequestTarget("none", "other");
+        }
+
+        String operation;
+        if (segments.length == 1) {
+            operation = "POST".equals(method) ? "create" : "search";
+        } else if ("_search".equals(segments[1])) {
+            operation = "search";
+        } else if (segments[1].startsWith("$") || segments.length > 2 && segments[2].startsWith("$")) {
+            operation = "operation";
+        } else if (segments.length > 2 && "_history".equals(segments[2])) {
+            operation = segments.length > 3 ? "vread" : "history";
+        } else {
+            operation = switch (method) {
+                case "GET" -> "read";
+                case "PUT" -> "update";
+                case "PATCH" -> "patch";
+                case "DELETE" -> "delete";
+                default -> "other";
+            };
+        }
+        return new FhirRequestTarget(first, operation);
+    }
+}
@@ -0,0 +1,66 @@
+package org.prt.prtvaccinationtracking_fhir.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool for the FHIR client that publishes pool utilisation gauges and
+ * a timer for how long callers wait to lease a connection.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leaseWait;
+
+    public InstrumentedConnectionManager(FhirProperties.Client settings, MeterRegistry registry) {
+        super(settings.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        setMaxTotal(settings.getPoolMaxTotal());
+        setDefaultMaxPerRoute(settings.getPoolMaxPerRoute());
+        setValidateAfterInactivity(2000);
+
+        this.leaseWait = Timer.builder("fhir.client.pool.wait")
+                .description("Time spent waiting to lease a FHIR server connection")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        Gauge.builder("fhir.client.pool.leased", this, manager -> manager.getTotalStats().getLeased())
+                .register(registry);
+        Gauge.builder("fhir.client.pool.available", this, manager -> manager.getTotalStats().getAvailable())
+                .register(registry);
+        Gauge.builder("fhir.client.pool.pending", this, manager -> manager.getTotalStats().getPending())
+                .register(registry);
+        Gauge.builder("fhir.client.pool.max", this, manager -> manager.getTotalStats().getMax())
+                .register(registry);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest delegate = super.requestConnection(route, state);
+
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return delegate.get(timeout, unit);
+                } finally {
+                    leaseWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package org.prt.prtvaccinationtracking_fhir.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.prt.prtvaccinationtracking_fhir.jfr.FhirCallEvent;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebClient counterpart of {@link InstrumentedRequestExecutor}: times every exchange of the
+ * reactive FHIR client until the response headers arrive, counts the bytes sent and received
+ * and emits a {@link FhirCallEvent}, under the same meter names and tags as the blocking client.
+ * The request body is not visible to a filter, so the sender passes it as the
+ * {@link #REQUEST_BODY_ATTRIBUTE} request attribute.
+ */
+public class InstrumentedExchangeFilter implements ExchangeFilterFunction {
+
+    /** Request attribute holding the encoded request body (byte[]). */
+    public static final String REQUEST_BODY_ATTRIBUTE = InstrumentedExchangeFilter.class.getName() + ".body";
+
+    private final MeterRegistry registry;
+    private final String basePath;
+
+    public InstrumentedExchangeFilter(MeterRegistry registry, String baseUrl) {
+        this.registry = registry;
+        this.basePath = FhirRequestTarget.basePath(baseUrl);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            String method = request.method().name();
+            FhirRequestTarget target = FhirRequestTarget.classify(method, request.url().toString(), basePath);
+            String type = target.type();
+            String operation = target.operation();
+
+            long sent = request.attribute(REQUEST_BODY_ATTRIBUTE)
+                    .map(body -> (long) ((byte[]) body).length)
+                    .orElse(0L);
+            if (sent > 0) {
+                bytes("fhir.client.bytes.sent", type, operation).increment(sent);
+            }
+
+            FhirCallEvent event = new FhirCallEvent();
+            event.begin();
+            event.resourceType = type;
+            event.operation = operation;
+            event.method = method;
+            event.bytesSent = sent;
+
+            long start = System.nanoTime();
+            AtomicBoolean timed = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        time(timed, type, operation, Integer.toString(response.statusCode().value()), start);
+                        event.status = response.statusCode().value();
+                        return counted(response, bytes("fhir.client.bytes.received", type, operation), event);
+                    })
+                    .doOnError(exception -> {
+                        time(timed, type, operation, "IO_ERROR", start);
+                        event.commit();
+                    })
+                    .doOnCancel(() -> {
+                        if (!timed.get()) {
+                            time(timed, type, operation, "CANCELLED", start);
+                            event.commit();
+                        }
+                    });
+        });
+    }
+
+    /** Counts the body bytes as they arrive and ends the JFR event once the body is done. */
+    private ClientResponse counted(ClientResponse response, Counter counter, FhirCallEvent event) {
+        AtomicLong received = new AtomicLong();
+        return response.mutate()
+                .body(body -> body
+                        .doOnNext(buffer -> {
+                            received.addAndGet(buffer.readableByteCount());
+                            counter.increment(buffer.readableByteCount());
+                        })
+                        .doFinally(signal -> {
+                            event.bytesReceived = received.get();
+                            event.commit();
+                        }))
+                .build();
+    }
+
+    private void time(AtomicBoolean timed, String type, String operation, String status, long start) {
+        if (!timed.compareAndSet(false, true)) {
+            return;
+        }
+        Timer.builder("fhir.client.requests")
+                .description("Exchanges with the FHIR server, until the response headers arrive")
+                .tag("type", type)
+                .tag("operation", operation)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter bytes(String name, String type, String operation) {
+        return Counter.builder(name)
+                .baseUnit("bytes")
+                .tag("type", type)
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,167 @@
+package org.prt.prtvaccinationtracking_fhir.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.prt.prtvaccinationtracking_fhir.jfr.FhirCallEvent;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request executor for the FHIR HTTP client that times every exchange with the FHIR server
+ * and counts the bytes sent and received. It sits below the HAPI client, so calls made through
+ * {@code FhirGateway}, its raw {@code client()} and the streaming JSON reader are all covered.
+ *
+ * <p>Meters are tagged with the FHIR resource {@code type}, the {@code operation} derived from
+ * the method and URL (read, search, create, update, patch, ...) and, for the timer, the HTTP
+ * {@code status}. The timer measures until the response headers arrive; received bytes are
+ * counted as the body is read and are compressed bytes when the server gzips the response.
+ * Each exchange is also a {@link FhirCallEvent} for Flight Recorder, which runs until the
+ * response body has been read or closed.
+ */
+public class InstrumentedRequestExecutor extends HttpRequestExecutor {
+
+    private final MeterRegistry registry;
+    private final String basePath;
+
+    public InstrumentedRequestExecutor(MeterRegistry registry, String baseUrl) {
+        this.registry = registry;
+        this.basePath = FhirRequestTarget.basePath(baseUrl);
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context)
+            throws IOException, HttpException {
+        FhirRequestTarget target = FhirRequestTarget.classify(
+                request.getRequestLine().getMethod(), request.getRequestLine().getUri(), basePath);
+        String type = target.type();
+        String operation = target.operation();
+
+        long sent = request instanceof HttpEntityEnclosingRequest enclosing && enclosing.getEntity() != null
+                ? Math.max(enclosing.getEntity().getContentLength(), 0)
+                : 0;
+        if (sent > 0) {
+            bytes("fhir.client.bytes.sent", type, operation).increment(sent);
+        }
+
+        FhirCallEvent event = new FhirCallEvent();
+        event.begin();
+        event.resourceType = type;
+        event.operation = operation;
+        event.method = request.getRequestLine().getMethod();
+        event.bytesSent = sent;
+
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        boolean bodyPending = false;
+        try {
+            HttpResponse response = super.execute(request, connection, context);
+            status = Integer.toString(response.getStatusLine().getStatusCode());
+            event.status = response.getStatusLine().getStatusCode();
+
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                response.setEntity(new CountingEntity(entity, bytes("fhir.client.bytes.received", type, operation), event));
+                bodyPending = true;
+            }
+            return response;
+        } finally {
+            Timer.builder("fhir.client.requests")
+                    .description("Exchanges with the FHIR server, until the response headers arrive")
+                    .tag("type", type)
+                    .tag("operation", operation)
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (!bodyPending) {
+                event.commit();
+            }
+        }
+    }
+
+    private Counter bytes(String name, String type, String operation) {
+        return Counter.builder(name)
+                .baseUnit("bytes")
+                .tag("type", type)
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    /** Counts the response bytes as they are read and ends the JFR event once the body is done. */
+    private static final class CountingEntity extends HttpEntityWrapper {
+
+        private final Counter counter;
+        private final FhirCallEvent event;
+        private long received;
+        private boolean finished;
+
+        private CountingEntity(HttpEntity entity, Counter counter, FhirCallEvent event) {
+            super(entity);
+            this.counter = counter;
+            this.event = event;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int value = super.read();
+                    if (value >= 0) {
+                        count(1);
+                    } else {
+                        finish();
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int count = super.read(buffer, offset, length);
+                    if (count > 0) {
+                        count(count);
+                    } else if (count < 0) {
+                        finish();
+                    }
+                    return count;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        finish();
+                    }
+                }
+            };
+        }
+
+        private void count(int bytes) {
+            received += bytes;
+            counter.increment(bytes);
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                event.bytesReceived = received;
+                event.commit();
+            }
+        }
+    }
+}
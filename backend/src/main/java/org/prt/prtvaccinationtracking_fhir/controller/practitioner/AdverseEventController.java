@@ -4,7 +4,11 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.AdverseEventDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.CreateAdverseEventRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.UpdateAdverseEventRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.AdverseEventService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerAdverseEventController")
@@ -22,13 +26,24 @@ public class AdverseEventController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<AdverseEventDTO> list(@RequestParam(required = false) String patient,
+                                         @RequestParam(name = "_count", required = false) Integer count,
+                                         @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public AdverseEventDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<AdverseEventDTO> getById(@PathVariable String id) {
+        FhirVersioned<AdverseEventDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public AdverseEventDTO update(@PathVariable String id, @RequestBody @Valid UpdateAdverseEventRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<AdverseEventDTO> update(@PathVariable String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody @Valid UpdateAdverseEventRequestDTO dto) {
+        FhirVersioned<AdverseEventDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -2,7 +2,11 @@ package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.*;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.AllergyIntoleranceService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerAllergyIntoleranceController")
@@ -20,13 +24,24 @@ public class AllergyIntoleranceController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<AllergyIntoleranceDTO> list(@RequestParam(required = false) String patient,
+                                               @RequestParam(name = "_count", required = false) Integer count,
+                                               @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public AllergyIntoleranceDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<AllergyIntoleranceDTO> getById(@PathVariable String id) {
+        FhirVersioned<AllergyIntoleranceDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public AllergyIntoleranceDTO update(@PathVariable String id, @RequestBody @Valid UpdateAllergyIntoleranceRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<AllergyIntoleranceDTO> update(@PathVariable String id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestBody @Valid UpdateAllergyIntoleranceRequestDTO dto) {
+        FhirVersioned<AllergyIntoleranceDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
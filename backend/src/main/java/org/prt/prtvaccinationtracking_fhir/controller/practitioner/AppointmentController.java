@@ -2,7 +2,11 @@ package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.*;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.AppointmentService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerAppointmentController")
@@ -20,13 +24,24 @@ public class AppointmentController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<AppointmentDTO> list(@RequestParam(required = false) String patient,
+                                        @RequestParam(name = "_count", required = false) Integer count,
+                                        @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public AppointmentDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<AppointmentDTO> getById(@PathVariable String id) {
+        FhirVersioned<AppointmentDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public AppointmentDTO update(@PathVariable String id, @RequestBody @Valid UpdateAppointmentRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<AppointmentDTO> update(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid UpdateAppointmentRequestDTO dto) {
+        FhirVersioned<AppointmentDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
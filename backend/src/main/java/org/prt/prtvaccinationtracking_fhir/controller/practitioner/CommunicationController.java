@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.CommunicationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerCommunicationController")
@@ -20,13 +24,24 @@ public class CommunicationController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<CommunicationDTO> list(@RequestParam(required = false) String patient,
+                                          @RequestParam(name = "_count", required = false) Integer count,
+                                          @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public CommunicationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<CommunicationDTO> getById(@PathVariable String id) {
+        FhirVersioned<CommunicationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public CommunicationDTO update(@PathVariable String id, @RequestBody @Valid UpdateCommunicationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<CommunicationDTO> update(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody @Valid UpdateCommunicationRequestDTO dto) {
+        FhirVersioned<CommunicationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ConsentService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerConsentController")
@@ -20,13 +24,24 @@ public class ConsentController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<ConsentDTO> list(@RequestParam(required = false) String patient,
+                                    @RequestParam(name = "_count", required = false) Integer count,
+                                    @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public ConsentDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ConsentDTO> getById(@PathVariable String id) {
+        FhirVersioned<ConsentDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ConsentDTO update(@PathVariable String id, @RequestBody @Valid UpdateConsentRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ConsentDTO> update(@PathVariable String id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody @Valid UpdateConsentRequestDTO dto) {
+        FhirVersioned<ConsentDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
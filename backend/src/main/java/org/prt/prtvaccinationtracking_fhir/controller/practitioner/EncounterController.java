@@ -1,10 +1,16 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.CreateEncounterRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterBlockDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.UpdateEncounterRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.EncounterService;
+import org.prt.prtvaccinationtracking_fhir.service.practitioner.EncounterVisitService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerEncounterController")
@@ -12,9 +18,11 @@ import org.springframework.web.bind.annotation.*;
 public class EncounterController {
 
     private final EncounterService service;
+    private final EncounterVisitService visitService;
 
-    public EncounterController(EncounterService service) {
+    public EncounterController(EncounterService service, EncounterVisitService visitService) {
         this.service = service;
+        this.visitService = visitService;
     }
 
     @PostMapping("/encounters")
@@ -22,15 +30,30 @@ public class EncounterController {
         return service.create(dto);
     }
 
+    @PostMapping("/encounters/visits")
+    public EncounterBlockDTO recordVisit(@RequestBody EncounterBlockDTO dto) {
+        return visitService.recordVisit(dto);
+    }
+
+    @GetMapping("/encounters")
+    public PageDTO<EncounterDTO> list(@RequestParam(required = false) String patient,
+                                      @RequestParam(name = "_count", required = false) Integer count,
+                                      @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/encounters/{id}")
-    public EncounterDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<EncounterDTO> getById(@PathVariable String id) {
+        FhirVersioned<EncounterDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/encounters/{id}")
-    public EncounterDTO update(@PathVariable String id,
-                               @RequestBody @Valid UpdateEncounterRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<EncounterDTO> update(@PathVariable String id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody @Valid UpdateEncounterRequestDTO dto) {
+        FhirVersioned<EncounterDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
 }
\ No newline at end of file
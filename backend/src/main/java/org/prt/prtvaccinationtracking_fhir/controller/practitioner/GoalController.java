@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.GoalService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerGoalController")
@@ -20,13 +24,24 @@ public class GoalController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<GoalDTO> list(@RequestParam(required = false) String patient,
+                                 @RequestParam(name = "_count", required = false) Integer count,
+                                 @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public GoalDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<GoalDTO> getById(@PathVariable String id) {
+        FhirVersioned<GoalDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public GoalDTO update(@PathVariable String id, @RequestBody @Valid UpdateGoalRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<GoalDTO> update(@PathVariable String id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestBody @Valid UpdateGoalRequestDTO dto) {
+        FhirVersioned<GoalDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ObservationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerObservationController")
@@ -20,13 +24,24 @@ public class ObservationController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<ObservationDTO> list(@RequestParam(required = false) String patient,
+                                        @RequestParam(name = "_count", required = false) Integer count,
+                                        @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public ObservationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ObservationDTO> getById(@PathVariable String id) {
+        FhirVersioned<ObservationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ObservationDTO update(@PathVariable String id, @RequestBody @Valid UpdateObservationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ObservationDTO> update(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid UpdateObservationRequestDTO dto) {
+        FhirVersioned<ObservationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -1,18 +1,34 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterBlockDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.service.practitioner.EncounterVisitService;
+import org.prt.prtvaccinationtracking_fhir.service.practitioner.PatientChartService;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.PatientService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 
 @RestController("practitionerPatientController")
 @RequestMapping("/api/practitioner/patients")
 public class PatientController {
 
     private final PatientService service;
+    private final PatientChartService chartService;
+    private final EncounterVisitService visitService;
 
-    public PatientController(PatientService service) {
+    public PatientController(
+            PatientService service,
+            PatientChartService chartService,
+            EncounterVisitService visitService
+    ) {
         this.service = service;
+        this.chartService = chartService;
+        this.visitService = visitService;
     }
 
     @PostMapping
@@ -20,13 +36,34 @@ public class PatientController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<PatientDetailsDTO> list(@RequestParam(required = false) String patient,
+                                           @RequestParam(name = "_count", required = false) Integer count,
+                                           @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public PatientDetailsDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<PatientDetailsDTO> getById(@PathVariable String id) {
+        FhirVersioned<PatientDetailsDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
+    }
+
+    @GetMapping("/{id}/chart")
+    public PatientChartDTO getChart(@PathVariable String id) {
+        return chartService.getChart(id);
+    }
+
+    @GetMapping("/{id}/encounters/blocks")
+    public List<EncounterBlockDTO> getEncounterBlocks(@PathVariable String id) {
+        return visitService.getBlocks(id);
     }
 
     @PutMapping("/{id}")
-    public PatientDetailsDTO update(@PathVariable String id, @RequestBody @Valid UpdatePatientRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<PatientDetailsDTO> update(@PathVariable String id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestBody @Valid UpdatePatientRequestDTO dto) {
+        FhirVersioned<PatientDetailsDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
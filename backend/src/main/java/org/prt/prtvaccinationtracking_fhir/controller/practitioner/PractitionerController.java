@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.PractitionerService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerPractitionerController")
@@ -20,13 +24,23 @@ public class PractitionerController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<PractitionerDTO> list(@RequestParam(name = "_count", required = false) Integer count,
+                                         @RequestParam(required = false) String cursor) {
+        return service.list(count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public PractitionerDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<PractitionerDTO> getById(@PathVariable String id) {
+        FhirVersioned<PractitionerDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public PractitionerDTO update(@PathVariable String id, @RequestBody @Valid UpdatePractitionerRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<PractitionerDTO> update(@PathVariable String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody @Valid UpdatePractitionerRequestDTO dto) {
+        FhirVersioned<PractitionerDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ImmunizationRecommendationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerRecommendationController")
@@ -20,14 +24,24 @@ public class RecommendationController {
         return service.create(dto);
     }
 
+    @GetMapping
+    public PageDTO<ImmunizationRecommendationDTO> list(@RequestParam(required = false) String patient,
+                                                       @RequestParam(name = "_count", required = false) Integer count,
+                                                       @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/{id}")
-    public ImmunizationRecommendationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ImmunizationRecommendationDTO> getById(@PathVariable String id) {
+        FhirVersioned<ImmunizationRecommendationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ImmunizationRecommendationDTO update(@PathVariable String id,
-                                                @RequestBody @Valid UpdateImmunizationRecommendationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ImmunizationRecommendationDTO> update(@PathVariable String id,
+                                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                @RequestBody @Valid UpdateImmunizationRecommendationRequestDTO dto) {
+        FhirVersioned<ImmunizationRecommendationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.controller.practitioner;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.RelatedPersonService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("practitionerRelatedPersonController")
@@ -22,14 +26,24 @@ public class RelatedPersonController {
         return service.create(patientId, dto);
     }
 
+    @GetMapping("/related-persons")
+    public PageDTO<RelatedPersonDTO> list(@RequestParam(required = false) String patient,
+                                          @RequestParam(name = "_count", required = false) Integer count,
+                                          @RequestParam(required = false) String cursor) {
+        return service.list(patient, count, cursor);
+    }
+
     @GetMapping("/related-persons/{id}")
-    public RelatedPersonDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<RelatedPersonDTO> getById(@PathVariable String id) {
+        FhirVersioned<RelatedPersonDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/related-persons/{id}")
-    public RelatedPersonDTO update(@PathVariable String id,
-                                   @RequestBody @Valid UpdateRelatedPersonRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<RelatedPersonDTO> update(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody @Valid UpdateRelatedPersonRequestDTO dto) {
+        FhirVersioned<RelatedPersonDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
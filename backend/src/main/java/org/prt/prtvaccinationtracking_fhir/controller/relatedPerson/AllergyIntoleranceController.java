@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.AllergyIntoleranceDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.CreateAllergyIntoleranceRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.UpdateAllergyIntoleranceRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.AllergyIntoleranceService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonAllergyIntoleranceController")
@@ -23,12 +26,16 @@ public class AllergyIntoleranceController {
     }
 
     @GetMapping("/{id}")
-    public AllergyIntoleranceDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<AllergyIntoleranceDTO> getById(@PathVariable String id) {
+        FhirVersioned<AllergyIntoleranceDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public AllergyIntoleranceDTO update(@PathVariable String id, @RequestBody @Valid UpdateAllergyIntoleranceRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<AllergyIntoleranceDTO> update(@PathVariable String id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestBody @Valid UpdateAllergyIntoleranceRequestDTO dto) {
+        FhirVersioned<AllergyIntoleranceDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.AppointmentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.CreateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.UpdateAppointmentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.AppointmentService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonAppointmentController")
@@ -23,12 +26,16 @@ public class AppointmentController {
     }
 
     @GetMapping("/{id}")
-    public AppointmentDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<AppointmentDTO> getById(@PathVariable String id) {
+        FhirVersioned<AppointmentDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public AppointmentDTO update(@PathVariable String id, @RequestBody @Valid UpdateAppointmentRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<AppointmentDTO> update(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid UpdateAppointmentRequestDTO dto) {
+        FhirVersioned<AppointmentDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CarePlanDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CreateCarePlanRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.UpdateCarePlanRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.CarePlanService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonCarePlanController")
@@ -23,12 +26,16 @@ public class CarePlanController {
     }
 
     @GetMapping("/{id}")
-    public CarePlanDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<CarePlanDTO> getById(@PathVariable String id) {
+        FhirVersioned<CarePlanDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public CarePlanDTO update(@PathVariable String id, @RequestBody @Valid UpdateCarePlanRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<CarePlanDTO> update(@PathVariable String id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody @Valid UpdateCarePlanRequestDTO dto) {
+        FhirVersioned<CarePlanDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
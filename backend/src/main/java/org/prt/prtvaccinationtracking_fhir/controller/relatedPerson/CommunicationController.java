@@ -1,11 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.controller.relatedPerson;
 
-import  jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CommunicationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CreateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.UpdateCommunicationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.CommunicationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import  jakarta.validation.Valid;
 
 @RestController("relatedPersonCommunicationController")
 @RequestMapping("/api/related-person/communication")
@@ -23,12 +26,16 @@ public class CommunicationController {
     }
 
     @GetMapping("/{id}")
-    public CommunicationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<CommunicationDTO> getById(@PathVariable String id) {
+        FhirVersioned<CommunicationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public CommunicationDTO update(@PathVariable String id, @RequestBody @Valid UpdateCommunicationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<CommunicationDTO> update(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody @Valid UpdateCommunicationRequestDTO dto) {
+        FhirVersioned<CommunicationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.ConditionDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.CreateConditionRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.UpdateConditionRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ConditionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonConditionController")
@@ -23,12 +26,16 @@ public class ConditionController {
     }
 
     @GetMapping("/{id}")
-    public ConditionDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ConditionDTO> getById(@PathVariable String id) {
+        FhirVersioned<ConditionDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ConditionDTO update(@PathVariable String id, @RequestBody @Valid UpdateConditionRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ConditionDTO> update(@PathVariable String id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody @Valid UpdateConditionRequestDTO dto) {
+        FhirVersioned<ConditionDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
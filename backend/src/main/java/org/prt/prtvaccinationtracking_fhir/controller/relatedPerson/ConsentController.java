@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.ConsentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.CreateConsentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.UpdateConsentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ConsentService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonConsentController")
@@ -23,12 +26,16 @@ public class ConsentController {
     }
 
     @GetMapping("/{id}")
-    public ConsentDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ConsentDTO> getById(@PathVariable String id) {
+        FhirVersioned<ConsentDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ConsentDTO update(@PathVariable String id, @RequestBody @Valid UpdateConsentRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ConsentDTO> update(@PathVariable String id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody @Valid UpdateConsentRequestDTO dto) {
+        FhirVersioned<ConsentDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.CreateGoalRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.GoalDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.UpdateGoalRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.GoalService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonGoalController")
@@ -23,12 +26,16 @@ public class GoalController {
     }
 
     @GetMapping("/{id}")
-    public GoalDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<GoalDTO> getById(@PathVariable String id) {
+        FhirVersioned<GoalDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public GoalDTO update(@PathVariable String id, @RequestBody @Valid UpdateGoalRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<GoalDTO> update(@PathVariable String id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestBody @Valid UpdateGoalRequestDTO dto) {
+        FhirVersioned<GoalDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
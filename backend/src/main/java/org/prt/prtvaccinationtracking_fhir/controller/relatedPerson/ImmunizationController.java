@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.CreateImmunizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.UpdateImmunizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ImmunizationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonImmunizationController")
@@ -23,12 +26,16 @@ public class ImmunizationController {
     }
 
     @GetMapping("/{id}")
-    public ImmunizationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ImmunizationDTO> getById(@PathVariable String id) {
+        FhirVersioned<ImmunizationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ImmunizationDTO update(@PathVariable String id, @RequestBody @Valid UpdateImmunizationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ImmunizationDTO> update(@PathVariable String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody @Valid UpdateImmunizationRequestDTO dto) {
+        FhirVersioned<ImmunizationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.CreateLocationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.LocationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.UpdateLocationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.LocationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonLocationController")
@@ -23,12 +26,16 @@ public class LocationController {
     }
 
     @GetMapping("/{id}")
-    public LocationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<LocationDTO> getById(@PathVariable String id) {
+        FhirVersioned<LocationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public LocationDTO update(@PathVariable String id, @RequestBody @Valid UpdateLocationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<LocationDTO> update(@PathVariable String id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody @Valid UpdateLocationRequestDTO dto) {
+        FhirVersioned<LocationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.CreateObservationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.ObservationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.UpdateObservationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ObservationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonObservationController")
@@ -23,12 +26,16 @@ public class ObservationController {
     }
 
     @GetMapping("/{id}")
-    public ObservationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ObservationDTO> getById(@PathVariable String id) {
+        FhirVersioned<ObservationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ObservationDTO update(@PathVariable String id, @RequestBody @Valid UpdateObservationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ObservationDTO> update(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid UpdateObservationRequestDTO dto) {
+        FhirVersioned<ObservationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.CreateOrganizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.OrganizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.UpdateOrganizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.OrganizationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonOrganizationController")
@@ -23,12 +26,16 @@ public class OrganizationController {
     }
 
     @GetMapping("/{id}")
-    public OrganizationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<OrganizationDTO> getById(@PathVariable String id) {
+        FhirVersioned<OrganizationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public OrganizationDTO update(@PathVariable String id, @RequestBody @Valid UpdateOrganizationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<OrganizationDTO> update(@PathVariable String id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody @Valid UpdateOrganizationRequestDTO dto) {
+        FhirVersioned<OrganizationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
@@ -1,20 +1,36 @@
 package org.prt.prtvaccinationtracking_fhir.controller.relatedPerson;
 
 import jakarta.validation.Valid;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterBlockDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.CreatePatientRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.PatientChartDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.PatientDetailsDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.UpdatePatientRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.service.practitioner.EncounterVisitService;
+import org.prt.prtvaccinationtracking_fhir.service.practitioner.PatientChartService;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.PatientService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 
 @RestController("relatedPersonPatientController")
 @RequestMapping("/api/related-person/patients")
 public class PatientController {
 
     private final PatientService service;
+    private final PatientChartService chartService;
+    private final EncounterVisitService visitService;
 
-    public PatientController(PatientService service) {
+    public PatientController(
+            PatientService service,
+            PatientChartService chartService,
+            EncounterVisitService visitService
+    ) {
         this.service = service;
+        this.chartService = chartService;
+        this.visitService = visitService;
     }
 
     @PostMapping
@@ -23,12 +39,26 @@ public class PatientController {
     }
 
     @GetMapping("/{id}")
-    public PatientDetailsDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<PatientDetailsDTO> getById(@PathVariable String id) {
+        FhirVersioned<PatientDetailsDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
+    }
+
+    @GetMapping("/{id}/chart")
+    public PatientChartDTO getChart(@PathVariable String id) {
+        return chartService.getChart(id);
+    }
+
+    @GetMapping("/{id}/encounters/blocks")
+    public List<EncounterBlockDTO> getEncounterBlocks(@PathVariable String id) {
+        return visitService.getBlocks(id);
     }
 
     @PutMapping("/{id}")
-    public PatientDetailsDTO update(@PathVariable String id, @RequestBody @Valid UpdatePatientRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<PatientDetailsDTO> update(@PathVariable String id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestBody @Valid UpdatePatientRequestDTO dto) {
+        FhirVersioned<PatientDetailsDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
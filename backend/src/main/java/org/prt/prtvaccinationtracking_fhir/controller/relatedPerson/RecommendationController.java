@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.CreateImmunizationRecommendationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.ImmunizationRecommendationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.UpdateImmunizationRecommendationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.ImmunizationRecommendationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonRecommendationController")
@@ -23,13 +26,16 @@ public class RecommendationController {
     }
 
     @GetMapping("/{id}")
-    public ImmunizationRecommendationDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<ImmunizationRecommendationDTO> getById(@PathVariable String id) {
+        FhirVersioned<ImmunizationRecommendationDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ImmunizationRecommendationDTO update(@PathVariable String id,
-                                                @RequestBody @Valid UpdateImmunizationRecommendationRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<ImmunizationRecommendationDTO> update(@PathVariable String id,
+                                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                @RequestBody @Valid UpdateImmunizationRecommendationRequestDTO dto) {
+        FhirVersioned<ImmunizationRecommendationDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
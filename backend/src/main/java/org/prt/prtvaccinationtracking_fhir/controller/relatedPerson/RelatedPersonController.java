@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.CreateRelatedPersonRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.RelatedPersonDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.UpdateRelatedPersonRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.service.practitioner.RelatedPersonService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController("relatedPersonRelatedPersonController")
@@ -25,13 +28,16 @@ public class RelatedPersonController {
     }
 
     @GetMapping("/related-persons/{id}")
-    public RelatedPersonDTO getById(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<RelatedPersonDTO> getById(@PathVariable String id) {
+        FhirVersioned<RelatedPersonDTO> result = service.getById(id);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 
     @PutMapping("/related-persons/{id}")
-    public RelatedPersonDTO update(@PathVariable String id,
-                                   @RequestBody @Valid UpdateRelatedPersonRequestDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<RelatedPersonDTO> update(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody @Valid UpdateRelatedPersonRequestDTO dto) {
+        FhirVersioned<RelatedPersonDTO> result = service.update(id, dto, ifMatch);
+        return ResponseEntity.ok().eTag(result.eTag()).body(result.body());
     }
 }
\ No newline at end of file
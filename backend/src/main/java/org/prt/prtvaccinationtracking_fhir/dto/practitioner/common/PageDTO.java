@@ -0,0 +1,8 @@
+package org.prt.prtvaccinationtracking_fhir.dto.practitioner.common;
+
+import java.util.List;
+
+public record PageDTO<T>(
+        List<T> items,
+        String nextCursor
+) {}
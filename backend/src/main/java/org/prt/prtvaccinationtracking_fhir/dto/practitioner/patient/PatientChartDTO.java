@@ -0,0 +1,35 @@
+package org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient;
+
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.AdverseEventDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.AllergyIntoleranceDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.AppointmentDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CarePlanDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CommunicationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.ConditionDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.ConsentDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.GoalDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.ObservationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.ImmunizationRecommendationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.RelatedPersonDTO;
+
+import java.util.List;
+
+public record PatientChartDTO(
+        PatientDetailsDTO patient,
+        List<RelatedPersonDTO> relatedPersons,
+        List<ImmunizationDTO> immunizations,
+        List<ImmunizationRecommendationDTO> recommendations,
+        List<CarePlanDTO> carePlans,
+        List<GoalDTO> goals,
+        List<AppointmentDTO> appointments,
+        List<EncounterDTO> encounters,
+        List<ObservationDTO> observations,
+        List<ConditionDTO> conditions,
+        List<AllergyIntoleranceDTO> allergyIntolerances,
+        List<ConsentDTO> consents,
+        List<CommunicationDTO> communications,
+        List<AdverseEventDTO> adverseEvents
+) {
+}
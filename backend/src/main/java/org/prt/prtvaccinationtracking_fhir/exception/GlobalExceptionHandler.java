@@ -21,6 +21,19 @@ public class GlobalExceptionHandler {
         return Map.of("error", "BAD_REQUEST", "message", ex.getMessage());
     }
 
+    /** The client's If-Match is outdated: re-read the resource and retry with its new ETag. */
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public Map<String, Object> preconditionFailed(Exception ex) {
+        return Map.of("error", "PRECONDITION_FAILED", "message", ex.getMessage());
+    }
+
+    @ExceptionHandler(ResourceVersionConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> conflict(Exception ex) {
+        return Map.of("error", "CONFLICT", "message", ex.getMessage());
+    }
+
     @ExceptionHandler(UnprocessableEntityException.class)
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     public Map<String, Object> unprocessable(Exception ex) {
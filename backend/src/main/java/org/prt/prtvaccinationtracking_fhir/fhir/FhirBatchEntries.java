@@ -0,0 +1,62 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.OperationOutcome;
+import org.hl7.fhir.r5.model.Resource;
+
+/**
+ * Reads the entries of a batch response. A batch succeeds as a whole even when single
+ * entries fail, so every entry is checked here; a failed entry throws the same exception a
+ * direct request would have, instead of looking like an empty result.
+ */
+public final class FhirBatchEntries {
+
+    private FhirBatchEntries() {
+    }
+
+    public static boolean isSuccess(Bundle.BundleEntryComponent entry) {
+        if (!entry.hasResponse() || !entry.getResponse().hasStatus()) {
+            return entry.hasResource();
+        }
+        return entry.getResponse().getStatus().startsWith("2");
+    }
+
+    /** Returns the entry's resource, or throws with the entry's status when it failed. */
+    public static Resource resource(Bundle.BundleEntryComponent entry, String request) {
+        if (!isSuccess(entry)) {
+            throw failure(entry, request);
+        }
+        return entry.getResource();
+    }
+
+    /** Returns the searchset of a search entry, or throws when the search failed. */
+    public static Bundle searchset(Bundle.BundleEntryComponent entry, String request) {
+        if (!(resource(entry, request) instanceof Bundle searchset)) {
+            throw new IllegalStateException("FHIR batch entry for " + request + " is not a Bundle");
+        }
+        return searchset;
+    }
+
+    private static BaseServerResponseException failure(Bundle.BundleEntryComponent entry, String request) {
+        String status = entry.hasResponse() && entry.getResponse().hasStatus()
+                ? entry.getResponse().getStatus()
+                : "500";
+        int code;
+        try {
+            code = Integer.parseInt(status.split(" ", 2)[0]);
+        } catch (NumberFormatException exception) {
+            code = 500;
+        }
+
+        StringBuilder message = new StringBuilder(request).append(" failed in batch: ").append(status);
+        if (entry.getResponse().getOutcome() instanceof OperationOutcome outcome) {
+            for (OperationOutcome.OperationOutcomeIssueComponent issue : outcome.getIssue()) {
+                if (issue.hasDiagnostics()) {
+                    message.append("; ").append(issue.getDiagnostics());
+                }
+            }
+        }
+        return BaseServerResponseException.newInstance(code, message.toString());
+    }
+}
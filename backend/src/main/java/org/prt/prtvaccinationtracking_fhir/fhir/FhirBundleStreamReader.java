@@ -0,0 +1,236 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.client.api.ClientResponseContext;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.api.IRestfulClient;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads searchset Bundles entry by entry from the HTTP response stream instead of building
+ * the whole Bundle first. Each entry's resource is parsed with the shared {@link FhirContext}
+ * and handed to the callback before the next entry is read, so at most one entry is in memory.
+ * Meant for population jobs and exports that walk large result sets. Requests go through the
+ * HAPI client's transport and interceptors, so they are timed, logged and counted as round
+ * trips like every other call of {@link FhirGateway}.
+ */
+@Component
+public class FhirBundleStreamReader {
+
+    private static final String FHIR_JSON = "application/fhir+json";
+    // Decimals keep their exact text (e.g. "38.50"), as HAPI's DecimalType does.
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
+    private final FhirContext fhirContext;
+    private final IGenericClient client;
+    private final String baseUrl;
+
+    public FhirBundleStreamReader(
+            FhirContext fhirContext,
+            IGenericClient fhirClient,
+            @Value("${fhir.server.base-url}") String baseUrl
+    ) {
+        this.fhirContext = fhirContext;
+        this.client = fhirClient;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Runs a search given as a relative URL such as {@code "Practitioner?_count=500"} and
+     * passes every entry resource of every page to {@code consumer}.
+     */
+    public void search(String query, Consumer<? super Resource> consumer) {
+        String url = baseUrl + "/" + query;
+        while (url != null) {
+            url = fetch(url, consumer);
+        }
+    }
+
+    /**
+     * Streams the entries of one JSON Bundle to {@code consumer} and returns the URL of the
+     * {@code next} link, or null when there is none. The tokens of each entry resource are
+     * copied straight to HAPI's parser, without building a JSON tree first.
+     */
+    public String read(InputStream json, Consumer<? super Resource> consumer) throws IOException {
+        IParser resourceParser = fhirContext.newJsonParser();
+        return readBundle(json, parser -> {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "resource".equals(field)) {
+                    consumer.accept((Resource) resourceParser.parseResource(copy(parser)));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #read} but hands over each raw {@code entry} JSON object, for callers that
+     * project the fields they need without building HAPI resources.
+     */
+    public String readEntries(InputStream json, Consumer<JsonNode> consumer) throws IOException {
+        return readBundle(json, parser -> consumer.accept(JSON.readTree(parser)));
+    }
+
+    /** Calls {@code entries} with the parser on the start of each entry object; it must consume the entry. */
+    private String readBundle(InputStream json, EntryReader entries) throws IOException {
+        String next = null;
+
+        try (JsonParser parser = JSON.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON Bundle");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("resourceType".equals(field) && !"Bundle".equals(parser.getText())) {
+                    throw new IOException("Expected a Bundle but got " + parser.getText());
+                } else if ("link".equals(field) && value == JsonToken.START_ARRAY) {
+                    next = nextLink(JSON.readTree(parser));
+                } else if ("entry".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        entries.read(parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return next;
+    }
+
+    /**
+     * Copies the object the parser is on as JSON text. Numbers keep their exact text
+     * (e.g. "38.50"), as HAPI's DecimalType does.
+     */
+    private static String copy(JsonParser parser) throws IOException {
+        StringWriter text = new StringWriter();
+        try (JsonGenerator generator = JSON.getFactory().createGenerator(text)) {
+            int depth = 0;
+            do {
+                JsonToken token = parser.currentToken();
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    generator.writeNumber(parser.getText());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            } while (depth > 0 && parser.nextToken() != null);
+        }
+        return text.toString();
+    }
+
+    /** Streams the entries of the Bundle at an absolute URL and returns its next link. */
+    public String readPage(String url, Consumer<JsonNode> consumer) {
+        return get(url, content -> readEntries(content, consumer));
+    }
+
+    /** Reads a single resource, e.g. {@code "Immunization/123"}, as a JSON tree. */
+    public JsonNode readResource(String relativeUrl) {
+        return get(baseUrl + "/" + relativeUrl, JSON::readTree);
+    }
+
+    private String fetch(String url, Consumer<? super Resource> consumer) {
+        return get(url, content -> read(content, consumer));
+    }
+
+    /**
+     * GETs {@code url} the way the HAPI client sends its own requests: through its transport
+     * (timing, byte counts, failure reporting) and its interceptors (round trips, request log).
+     */
+    private <R> R get(String url, ContentReader<R> reader) {
+        IHttpRequest request = fhirContext.getRestfulClientFactory()
+                .getHttpClient(new StringBuilder(url), null, null, RequestTypeEnum.GET, List.of())
+                .createGetRequest(fhirContext, EncodingEnum.JSON);
+
+        client.getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, new HookParams()
+                .add(IHttpRequest.class, request)
+                .add(IRestfulClient.class, client));
+
+        IHttpResponse response = null;
+        try {
+            response = request.execute();
+            client.getInterceptorService().callHooks(Pointcut.CLIENT_RESPONSE, new HookParams()
+                    .add(IHttpRequest.class, request)
+                    .add(IHttpResponse.class, response)
+                    .add(IRestfulClient.class, client)
+                    .add(ClientResponseContext.class,
+                            new ClientResponseContext(request, response, client, fhirContext, Bundle.class)));
+
+            int status = response.getStatus();
+            if (status >= 400) {
+                StringWriter body = new StringWriter();
+                try (Reader content = response.createReader()) {
+                    content.transferTo(body);
+                }
+                throw BaseServerResponseException.newInstance(status,
+                        body.toString().isBlank() ? status + " " + response.getStatusInfo() : body.toString());
+            }
+
+            try (InputStream content = response.readEntity()) {
+                return content == null ? null : reader.read(content);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Reading " + url + " failed", exception);
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    private String nextLink(JsonNode links) {
+        for (JsonNode link : links) {
+            if (Bundle.LINK_NEXT.equals(link.path("relation").asText()) && link.hasNonNull("url")) {
+                return link.get("url").asText();
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ContentReader<R> {
+        R read(InputStream content) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EntryReader {
+        void read(JsonParser parser) throws IOException;
+    }
+}
@@ -0,0 +1,11 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+/** URLs of the FHIR extensions this application stores on its resources. */
+public final class FhirExtensions {
+
+    /** BCrypt hash of an account's password, on Practitioner and RelatedPerson. */
+    public static final String PASSWORD_URL = "http://example.org/extensions/password";
+
+    private FhirExtensions() {
+    }
+}
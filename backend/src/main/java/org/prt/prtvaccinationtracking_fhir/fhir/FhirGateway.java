@@ -1,20 +1,78 @@
 package org.prt.prtvaccinationtracking_fhir.fhir;
 
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.PreferReturnEnum;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.gclient.IPatchExecutable;
 import ca.uhn.fhir.rest.gclient.IQuery;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
 import org.hl7.fhir.r5.model.Bundle;
 import org.hl7.fhir.r5.model.IdType;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
 import org.springframework.stereotype.Component;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 @Component
 public class FhirGateway {
 
     private final IGenericClient client;
+    private final FhirResourceCache cache;
+    private final FhirReadBatcher batcher;
+    private final FhirRequestCoalescer coalescer;
+    private final FhirBundleStreamReader reader;
+    private final FhirProperties.Paging paging;
+    private final FhirProperties.Projection projection;
+    private final FhirPageCursors cursors;
+    private final ThreadPoolExecutor prefetcher;
 
-    public FhirGateway(IGenericClient client) {
+    public FhirGateway(
+            IGenericClient client,
+            FhirResourceCache cache,
+            FhirReadBatcher batcher,
+            FhirRequestCoalescer coalescer,
+            FhirBundleStreamReader reader,
+            FhirProperties properties
+    ) {
         this.client = client;
+        this.cache = cache;
+        this.batcher = batcher;
+        this.coalescer = coalescer;
+        this.reader = reader;
+        this.paging = properties.getPaging();
+        this.projection = properties.getProjection();
+        this.cursors = new FhirPageCursors(paging.getCursorSecret());
+        this.prefetcher = new ThreadPoolExecutor(
+                paging.getPrefetchThreads(),
+                paging.getPrefetchThreads(),
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(paging.getPrefetchQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fhir-page-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        prefetcher.allowCoreThreadTimeOut(true);
     }
 
     @SuppressWarnings("unchecked")
@@ -22,33 +80,282 @@ public class FhirGateway {
         MethodOutcome outcome = client.create()
                 .resource(resource)
                 .execute();
+        if (outcome.getId() != null) {
+            written(resource.fhirType(), outcome.getId().getIdPart());
+        }
         return (T) outcome.getResource();
     }
 
     public <T extends Resource> T read(Class<T> resourceType, String id) {
-        return client.read()
-                .resource(resourceType)
-                .withId(id)
-                .execute();
+        return coalescer.execute("read", resourceType.getSimpleName() + "/" + id, resourceType,
+                () -> readThrough(resourceType, id));
     }
 
-    @SuppressWarnings("unchecked")
-    public <T extends Resource> T update(T resource) {
-        MethodOutcome outcome = client.update()
-                .resource(resource)
-                .execute();
-        return (T) outcome.getResource();
+    private <T extends Resource> T readThrough(Class<T> resourceType, String id) {
+        if (!cache.isCacheable(resourceType)) {
+            return fetch(resourceType, id);
+        }
+
+        return cache.read(resourceType, id, knownVersion -> knownVersion == null
+                ? fetch(resourceType, id)
+                : client.read()
+                        .resource(resourceType)
+                        .withId(id)
+                        .ifVersionMatches(knownVersion)
+                        .returnNull()
+                        .execute());
+    }
+
+    /**
+     * Applies a FHIRPath Patch in a single round trip and returns the patched resource.
+     * {@code ifMatch} is the entity tag the client last saw (see {@link FhirVersioned}); it
+     * is sent as {@code If-Match}, so a write that happened in between fails with 412
+     * instead of being silently overwritten. Without it the patch applies unconditionally.
+     */
+    public <T extends Resource> T patch(Class<T> resourceType, String id, Parameters patch, String ifMatch) {
+        if (!patch.hasParameter()) {
+            return read(resourceType, id);
+        }
+
+        String type = resourceType.getSimpleName();
+        IPatchExecutable request = client.patch()
+                .withFhirPatch(patch)
+                .withId(new IdType(type, id))
+                .prefer(PreferReturnEnum.REPRESENTATION);
+
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            request = request.withAdditionalHeader("If-Match", ifMatch);
+        }
+
+        MethodOutcome outcome;
+        try {
+            outcome = request.execute();
+        } finally {
+            written(type, id);
+        }
+
+        return outcome.getResource() != null
+                ? resourceType.cast(outcome.getResource())
+                : read(resourceType, id);
     }
 
     public Bundle search(IQuery<Bundle> query) {
         return query.returnBundle(Bundle.class).execute();
     }
 
+    /** Runs a search given as a relative URL such as "Immunization?patient=123". */
+    public Bundle search(String query) {
+        return coalescer.execute("search", normalizeQuery(query), Bundle.class, () -> client.search()
+                .byUrl(query)
+                .returnBundle(Bundle.class)
+                .execute());
+    }
+
+    /**
+     * Iterates every {@code resourceType} match of the query, loading further pages only as
+     * the caller reaches them. Close the iterator when stopping early.
+     */
+    public <T extends Resource> FhirSearchIterator<T> iterate(IQuery<Bundle> query, Class<T> resourceType, boolean prefetch) {
+        return new FhirSearchIterator<>(search(query), resourceType,
+                page -> client.loadPage().next(page).execute(),
+                prefetch ? task -> prefetcher.execute(FhirRoundTrips.wrap(task)) : null);
+    }
+
+    /**
+     * Iterates the {@code resourceType} entries of a searchset that was already fetched, for
+     * example as one entry of a batch response, following its {@code next} links as needed.
+     */
+    public <T extends Resource> FhirSearchIterator<T> iterate(Bundle firstPage, Class<T> resourceType) {
+        return new FhirSearchIterator<>(firstPage, resourceType, page -> client.loadPage().next(page).execute(), null);
+    }
+
+    /**
+     * Same as {@link #iterate} as a sequential stream; short-circuiting operations such as
+     * {@code findFirst} or {@code limit} stop paging, and closing the stream drops a pending prefetch.
+     */
+    public <T extends Resource> Stream<T> stream(IQuery<Bundle> query, Class<T> resourceType, boolean prefetch) {
+        FhirSearchIterator<T> iterator = iterate(query, resourceType, prefetch);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Returns one page of {@code resourceType}, restricted to a patient when both
+     * {@code patientParam} and {@code patientId} are given. When a cursor from a previous page
+     * is passed, the server's paging link is followed and the other criteria are ignored; a
+     * cursor that was not issued for {@code resourceType} is rejected with an
+     * {@link IllegalArgumentException}.
+     */
+    public <T extends Resource> FhirPage<T> searchPage(
+            Class<T> resourceType,
+            String patientParam,
+            String patientId,
+            Integer count,
+            String cursor
+    ) {
+        Bundle bundle = cursor != null && !cursor.isBlank()
+                ? client.loadPage()
+                        .byUrl(client.getServerBase() + cursors.decode(resourceType.getSimpleName(), cursor))
+                        .andReturnBundle(Bundle.class)
+                        .execute()
+                : search(firstPageQuery(resourceType, patientParam, patientId, count));
+
+        List<T> resources = new ArrayList<>();
+        for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+            if (resourceType.isInstance(entry.getResource())) {
+                resources.add(resourceType.cast(entry.getResource()));
+            }
+        }
+
+        Bundle.BundleLinkComponent next = bundle.getLink(Bundle.LINK_NEXT);
+        return new FhirPage<>(resources, next == null ? null : cursors.encode(resourceType.getSimpleName(), next.getUrl()));
+    }
+
+    /**
+     * Same as {@link #searchPage} but returns the matching resources as raw JSON trees, for
+     * the endpoints listed under {@code fhir.projection.search}.
+     */
+    public FhirPage<JsonNode> searchPageJson(
+            Class<? extends Resource> resourceType,
+            String patientParam,
+            String patientId,
+            Integer count,
+            String cursor
+    ) {
+        String url = cursor != null && !cursor.isBlank()
+                ? client.getServerBase() + cursors.decode(resourceType.getSimpleName(), cursor)
+                : client.getServerBase() + "/" + firstPageQuery(resourceType, patientParam, patientId, count);
+
+        List<JsonNode> resources = new ArrayList<>();
+        String next = reader.readPage(url, entry -> {
+            JsonNode resource = entry.path("resource");
+            if (resourceType.getSimpleName().equals(resource.path("resourceType").asText())) {
+                resources.add(resource);
+            }
+        });
+
+        return new FhirPage<>(resources, next == null ? null : cursors.encode(resourceType.getSimpleName(), next));
+    }
+
+    /** Reads a resource as a raw JSON tree, for the endpoints listed under {@code fhir.projection.read}. */
+    public JsonNode readJson(Class<? extends Resource> resourceType, String id) {
+        return reader.readResource(resourceType.getSimpleName() + "/" + URLEncoder.encode(id, StandardCharsets.UTF_8));
+    }
+
+    public boolean readsAsJson(Class<? extends Resource> resourceType) {
+        return projection.getRead().contains(resourceType.getSimpleName());
+    }
+
+    public boolean searchesAsJson(Class<? extends Resource> resourceType) {
+        return projection.getSearch().contains(resourceType.getSimpleName());
+    }
+
+    /** Posts a batch or transaction Bundle to the server base in a single round trip. */
+    public Bundle transaction(Bundle bundle) {
+        if (isReadOnly(bundle)) {
+            StringJoiner key = new StringJoiner("|");
+            bundle.getEntry().forEach(entry -> key.add(normalizeQuery(entry.getRequest().getUrl())));
+            return coalescer.execute("batch", key.toString(), Bundle.class, () -> client.transaction()
+                    .withBundle(bundle)
+                    .execute());
+        }
+
+        Bundle response = client.transaction()
+                .withBundle(bundle)
+                .execute();
+
+        for (Bundle.BundleEntryComponent entry : response.getEntry()) {
+            if (entry.hasResponse() && entry.getResponse().hasLocation()) {
+                IdType location = new IdType(entry.getResponse().getLocation());
+                written(location.getResourceType(), location.getIdPart());
+            }
+        }
+        return response;
+    }
+
     /** Ensures resource has an id like "Goal/123" before update if needed. */
     public <T extends Resource> void ensureId(Class<T> resourceType, T resource, String idPart) {
         resource.setId(new IdType(resourceType.getSimpleName(), idPart));
     }
 
+    /** Drops everything cached or in flight that a write to this resource may have outdated. */
+    private void written(String resourceType, String id) {
+        cache.invalidate(resourceType, id);
+        coalescer.invalidate(resourceType, id);
+    }
+
+    private <T extends Resource> T fetch(Class<T> resourceType, String id) {
+        if (batcher.isEnabled()) {
+            try {
+                return batcher.read(resourceType, id).join();
+            } catch (CompletionException exception) {
+                Throwable cause = exception.getCause();
+                if (!(cause instanceof RejectedExecutionException)) {
+                    if (cause instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw exception;
+                }
+                // The batch pool is saturated; read this one directly instead.
+            }
+        }
+
+        return client.read()
+                .resource(resourceType)
+                .withId(id)
+                .execute();
+    }
+
+    private boolean isReadOnly(Bundle bundle) {
+        if (bundle.getType() != Bundle.BundleType.BATCH || !bundle.hasEntry()) {
+            return false;
+        }
+
+        for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+            if (!entry.hasRequest() || entry.getRequest().getMethod() != Bundle.HTTPVerb.GET) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String firstPageQuery(
+            Class<? extends Resource> resourceType,
+            String patientParam,
+            String patientId,
+            Integer count
+    ) {
+        int pageSize = count == null ? paging.getDefaultPageSize() : count;
+        if (pageSize < 1 || pageSize > paging.getMaxPageSize()) {
+            throw new IllegalArgumentException("_count must be between 1 and " + paging.getMaxPageSize());
+        }
+
+        StringBuilder query = new StringBuilder(resourceType.getSimpleName())
+                .append("?_count=").append(pageSize);
+        if (patientParam != null && patientId != null && !patientId.isBlank()) {
+            query.append('&').append(patientParam).append('=')
+                    .append(URLEncoder.encode(patientId, StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    /** Orders query parameters so equivalent searches share one in-flight request. */
+    private String normalizeQuery(String query) {
+        int separator = query.indexOf('?');
+        if (separator < 0) {
+            return query;
+        }
+
+        String[] parameters = query.substring(separator + 1).split("&");
+        Arrays.sort(parameters);
+        return query.substring(0, separator) + "?" + String.join("&", parameters);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetcher.shutdownNow();
+    }
+
     /** Escape hatch for advanced queries (try not to use directly unless needed). */
     public IGenericClient client() {
         return client;
@@ -0,0 +1,28 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/** Checks logical ids taken from API paths before they are put into FHIR request URLs. */
+public final class FhirIds {
+
+    // The FHIR "id" datatype: https://hl7.org/fhir/R5/datatypes.html#id
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9\\-.]{1,64}");
+
+    private FhirIds() {
+    }
+
+    /** Returns {@code id} when it is a valid FHIR logical id, otherwise throws (400). */
+    public static String requireValid(String id, String name) {
+        if (id == null || !ID.matcher(id).matches()) {
+            throw new IllegalArgumentException(name + " is not a valid FHIR id");
+        }
+        return id;
+    }
+
+    /** Validates {@code id} and URL-encodes it for use as a search parameter value. */
+    public static String queryValue(String id, String name) {
+        return URLEncoder.encode(requireValid(id, name), StandardCharsets.UTF_8);
+    }
+}
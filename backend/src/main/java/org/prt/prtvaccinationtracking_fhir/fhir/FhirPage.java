@@ -0,0 +1,13 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import java.util.List;
+
+/**
+ * One page of search results, as HAPI resources or raw JSON trees. {@code nextCursor} is an
+ * opaque token for {@link FhirGateway#searchPage} that continues the search, or null on the
+ * last page.
+ */
+public record FhirPage<T>(
+        List<T> resources,
+        String nextCursor
+) {}
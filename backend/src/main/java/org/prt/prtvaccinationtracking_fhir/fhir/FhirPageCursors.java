@@ -0,0 +1,115 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the server's paging links into opaque cursors for the list endpoints and back. Only the
+ * server paging form {@code ?_getpages=..&_getpagesoffset=..} is accepted, and each cursor is
+ * signed together with the resource type of the endpoint that issued it, so a client can neither
+ * make the gateway GET an arbitrary path nor replay a Patient cursor on the Immunization list.
+ * Without a configured secret a random key is used, and cursors do not survive a restart.
+ */
+final class FhirPageCursors {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern SEARCH_ID = Pattern.compile("[A-Za-z0-9.\\-]{1,64}");
+    private static final Pattern NUMBER = Pattern.compile("\\d{1,9}");
+
+    private final SecretKeySpec key;
+
+    FhirPageCursors(String secret) {
+        byte[] bytes;
+        if (secret == null || secret.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+    }
+
+    /** Cursor for the {@code link[next]} of a {@code resourceType} search page. */
+    String encode(String resourceType, String link) {
+        int separator = link.indexOf('?');
+        String relative = separator < 0 ? null : pagingQuery(link.substring(separator + 1));
+        if (relative == null) {
+            throw new IllegalStateException("FHIR server returned an unsupported paging link: " + link);
+        }
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(relative.getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(sign(resourceType, relative));
+    }
+
+    /** The paging query ({@code ?_getpages=..}) of a cursor issued for {@code resourceType}. */
+    String decode(String resourceType, String cursor) {
+        int separator = cursor.indexOf('.');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String relative;
+        byte[] signature;
+        try {
+            relative = new String(Base64.getUrlDecoder().decode(cursor.substring(0, separator)), StandardCharsets.UTF_8);
+            signature = Base64.getUrlDecoder().decode(cursor.substring(separator + 1));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (!MessageDigest.isEqual(signature, sign(resourceType, relative))
+                || !relative.startsWith("?") || !relative.equals(pagingQuery(relative.substring(1)))) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return relative;
+    }
+
+    /**
+     * Rebuilds {@code query} as {@code ?_getpages=..&_getpagesoffset=..[&_count=..]}, dropping
+     * parameters that only shape the response, or null when it is not a paging query.
+     */
+    private static String pagingQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.putIfAbsent(parameter.substring(0, equals), parameter.substring(equals + 1));
+            }
+        }
+
+        String searchId = parameters.get("_getpages");
+        String offset = parameters.get("_getpagesoffset");
+        String count = parameters.get("_count");
+        if (searchId == null || !SEARCH_ID.matcher(searchId).matches()
+                || offset == null || !NUMBER.matcher(offset).matches()
+                || count != null && !NUMBER.matcher(count).matches()) {
+            return null;
+        }
+
+        StringBuilder relative = new StringBuilder("?_getpages=").append(searchId)
+                .append("&_getpagesoffset=").append(offset);
+        if (count != null) {
+            relative.append("&_count=").append(count);
+        }
+        return relative.toString();
+    }
+
+    private byte[] sign(String resourceType, String relative) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((resourceType + "\n" + relative).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
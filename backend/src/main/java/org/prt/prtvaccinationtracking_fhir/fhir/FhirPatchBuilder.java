@@ -0,0 +1,92 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import org.hl7.fhir.r5.model.CodeType;
+import org.hl7.fhir.r5.model.DataType;
+import org.hl7.fhir.r5.model.Parameters;
+import org.hl7.fhir.r5.model.StringType;
+
+/**
+ * Builds a FHIRPath Patch document for {@link FhirGateway#patch}. Paths are FHIRPath
+ * expressions starting at the resource type, e.g. {@code "Encounter.actualPeriod"}.
+ * An {@code add} on a single-valued element sets it; on a repeating element it appends.
+ */
+public class FhirPatchBuilder {
+
+    private final String resourceType;
+    private final Parameters parameters = new Parameters();
+
+    public FhirPatchBuilder(String resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    /** Sets a top-level element of the resource. */
+    public FhirPatchBuilder set(String element, DataType value) {
+        return add(resourceType, element, value);
+    }
+
+    public FhirPatchBuilder add(String path, String element, DataType value) {
+        Parameters.ParametersParameterComponent operation = operation("add", path);
+        operation.addPart().setName("name").setValue(new StringType(element));
+        operation.addPart().setName("value").setValue(value);
+        return this;
+    }
+
+    /** Adds a backbone element that has a single populated child. */
+    public FhirPatchBuilder add(String path, String element, String child, DataType value) {
+        Parameters.ParametersParameterComponent operation = operation("add", path);
+        operation.addPart().setName("name").setValue(new StringType(element));
+        operation.addPart().setName("value")
+                .addPart().setName(child).setValue(value);
+        return this;
+    }
+
+    /**
+     * Creates an empty top-level element when the resource has none, so that later
+     * operations on paths below it always have something to apply to.
+     */
+    public FhirPatchBuilder ensure(String element) {
+        Parameters.ParametersParameterComponent operation =
+                operation("add", resourceType + ".where(" + element + ".empty())");
+        operation.addPart().setName("name").setValue(new StringType(element));
+        operation.addPart().setName("value");
+        return this;
+    }
+
+    /** Replaces the value of an element that exists; a no-op when the path matches nothing. */
+    public FhirPatchBuilder replace(String path, DataType value) {
+        operation("replace", path).addPart().setName("value").setValue(value);
+        return this;
+    }
+
+    /** Removes a single-valued element. */
+    public FhirPatchBuilder delete(String path) {
+        operation("delete", path);
+        return this;
+    }
+
+    /** Removes the entries of a repeating element that match the FHIRPath criteria. */
+    public FhirPatchBuilder deleteWhere(String path, String criteria) {
+        operation("delete", path + ".where(" + criteria + ")");
+        return this;
+    }
+
+    /** Removes every entry of a repeating element. */
+    public FhirPatchBuilder deleteAll(String path) {
+        return deleteWhere(path, "true");
+    }
+
+    public boolean isEmpty() {
+        return !parameters.hasParameter();
+    }
+
+    public Parameters build() {
+        return parameters;
+    }
+
+    private Parameters.ParametersParameterComponent operation(String type, String path) {
+        Parameters.ParametersParameterComponent operation = parameters.addParameter().setName("operation");
+        operation.addPart().setName("type").setValue(new CodeType(type));
+        operation.addPart().setName("path").setValue(new StringType(path));
+        return operation;
+    }
+}
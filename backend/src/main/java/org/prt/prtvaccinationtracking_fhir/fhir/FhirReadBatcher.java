@@ -0,0 +1,179 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in micro-batching for reads: reads of the same resource type that arrive within
+ * the configured window are sent as one {@code _id=a,b,c} search and each caller's
+ * future is completed from the shared result. The scheduler only runs the window timers;
+ * the blocking searches go to a separate bounded pool. When that pool is saturated the
+ * futures fail with {@link RejectedExecutionException} and the caller reads directly.
+ * The shared search counts as one {@link FhirRoundTrips round trip} of every API request
+ * that waits for it.
+ */
+@Component
+public class FhirReadBatcher {
+
+    private final IGenericClient client;
+    private final FhirProperties.Batching settings;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor flusher;
+    private final Map<Class<? extends Resource>, PendingBatch> pending = new HashMap<>();
+
+    public FhirReadBatcher(IGenericClient client, FhirProperties properties) {
+        this.client = client;
+        this.settings = properties.getBatching();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fhir-read-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = new ThreadPoolExecutor(
+                settings.getFlushThreads(),
+                settings.getFlushThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.getFlushQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fhir-read-batcher-flush");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    public <T extends Resource> CompletableFuture<T> read(Class<T> resourceType, String id) {
+        // Ids are joined with ',' into one _id parameter, so only plain FHIR ids are accepted.
+        FhirIds.requireValid(id, resourceType.getSimpleName() + " id");
+
+        CompletableFuture<Resource> future;
+        PendingBatch full = null;
+
+        synchronized (pending) {
+            PendingBatch batch = pending.get(resourceType);
+            if (batch == null) {
+                PendingBatch created = new PendingBatch(resourceType);
+                pending.put(resourceType, created);
+                scheduler.schedule(() -> flushIfPending(created), settings.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+                batch = created;
+            }
+
+            future = batch.futures.computeIfAbsent(id, key -> new CompletableFuture<>());
+            FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+            if (tally != null) {
+                batch.tallies.add(tally);
+            }
+            if (batch.futures.size() >= settings.getMaxBatchSize()) {
+                pending.remove(resourceType);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+
+        // Callers may mutate what they read, so every caller gets its own copy.
+        return future.thenApply(resource -> resourceType.cast(resource.copy()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flusher.shutdownNow();
+    }
+
+    private void flushIfPending(PendingBatch batch) {
+        synchronized (pending) {
+            if (pending.get(batch.resourceType) != batch) {
+                return;
+            }
+            pending.remove(batch.resourceType);
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(PendingBatch batch) {
+        try {
+            flusher.execute(() -> flush(batch));
+        } catch (RejectedExecutionException exception) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    private void flush(PendingBatch batch) {
+        List<String> ids = new ArrayList<>(batch.futures.keySet());
+
+        try {
+            // The flush thread has no tally of its own; the search is reported to every waiting request.
+            long start = System.nanoTime();
+            batch.tallies.forEach(FhirRoundTrips::started);
+            Bundle bundle;
+            try {
+                bundle = client.search()
+                        .forResource(batch.resourceType)
+                        .where(Resource.RES_ID.exactly().codes(ids))
+                        .count(ids.size())
+                        .returnBundle(Bundle.class)
+                        .execute();
+            } finally {
+                batch.tallies.forEach(tally -> FhirRoundTrips.finished(tally, start));
+            }
+
+            Map<String, Resource> found = new HashMap<>();
+            for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+                if (entry.hasResource() && batch.resourceType.isInstance(entry.getResource())) {
+                    found.put(entry.getResource().getIdElement().getIdPart(), entry.getResource());
+                }
+            }
+
+            batch.futures.forEach((id, future) -> {
+                Resource resource = found.get(id);
+                if (resource == null) {
+                    future.completeExceptionally(new ResourceNotFoundException(
+                            batch.resourceType.getSimpleName() + "/" + id));
+                } else {
+                    future.complete(resource);
+                }
+            });
+        } catch (RuntimeException exception) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    private static final class PendingBatch {
+        private final Class<? extends Resource> resourceType;
+        private final Map<String, CompletableFuture<Resource>> futures = new LinkedHashMap<>();
+        private final Set<FhirRoundTrips.Tally> tallies = new HashSet<>();
+
+        private PendingBatch(Class<? extends Resource> resourceType) {
+            this.resourceType = resourceType;
+        }
+    }
+}
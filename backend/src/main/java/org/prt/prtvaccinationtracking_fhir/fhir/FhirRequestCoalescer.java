@@ -0,0 +1,81 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hl7.fhir.r5.model.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical FHIR requests. The first caller for a key performs
+ * the HTTP exchange; callers arriving while it is in flight wait for and share its result.
+ * A write through {@link FhirGateway} detaches the flights it may have made stale, so a
+ * caller that starts after the write returned never joins a request sent before it.
+ */
+@Component
+public class FhirRequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Resource>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public FhirRequestCoalescer(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("fhir.coalescer.inflight", inFlight, ConcurrentHashMap::size)
+                .register(registry);
+    }
+
+    public <T extends Resource> T execute(String operation, String key, Class<T> resultType, Supplier<T> call) {
+        CompletableFuture<Resource> flight = new CompletableFuture<>();
+        CompletableFuture<Resource> existing = inFlight.putIfAbsent(operation + ":" + key, flight);
+
+        if (existing != null) {
+            deduplicated(operation).increment();
+            Resource shared = await(existing);
+            return shared == null ? null : resultType.cast(shared.copy());
+        }
+
+        try {
+            T result = call.get();
+            flight.complete(result);
+            // The shared instance stays untouched for waiting callers; the leader gets a copy too.
+            return result == null ? null : resultType.cast(result.copy());
+        } catch (RuntimeException exception) {
+            flight.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(operation + ":" + key, flight);
+        }
+    }
+
+    /**
+     * Called after a write to {@code resourceType/id}: the read of that resource and every
+     * search or batch in flight stop accepting new callers. Callers already waiting keep
+     * their result.
+     */
+    public void invalidate(String resourceType, String id) {
+        String read = "read:" + resourceType + "/" + id;
+        inFlight.keySet().removeIf(key -> key.equals(read) || !key.startsWith("read:"));
+    }
+
+    private Counter deduplicated(String operation) {
+        return Counter.builder("fhir.coalescer.deduplicated")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private Resource await(CompletableFuture<Resource> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
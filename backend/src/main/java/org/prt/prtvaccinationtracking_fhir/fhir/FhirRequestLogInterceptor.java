@@ -0,0 +1,260 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.rest.client.api.IClientInterceptor;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.prt.prtvaccinationtracking_fhir.config.InstrumentedExchangeFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Logs a sample of the FHIR client's requests, plus every call that failed or was slower than
+ * the threshold, as one structured event on the {@code fhir.requests} logger. Bodies are only
+ * logged when {@code max-body-length} is above 0, cut to that length and only read for calls
+ * that are logged. The logger writes through
+ * the bounded asynchronous appender in {@code logback-spring.xml}, so the request thread never
+ * waits for the disk; when the queue fills up, sampled events are dropped before slow or
+ * failed ones. Calls that fail without a response are reported through {@link #interceptFailure}.
+ * {@link #exchangeFilter()} applies the same log to the reactive client.
+ * Password extension values and BCrypt hashes are masked before a body is logged.
+ */
+public class FhirRequestLogInterceptor implements IClientInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger("fhir.requests");
+
+    private static final String REDACTED = "[redacted]";
+    private static final String PASSWORD_URL = Pattern.quote(FhirExtensions.PASSWORD_URL);
+    // The value after the password extension's url; the closing quote may have been cut off
+    private static final Pattern PASSWORD_JSON = Pattern.compile(
+            "(\"url\"\\s*:\\s*\"" + PASSWORD_URL + "\"\\s*,\\s*\"value[A-Za-z]+\"\\s*:\\s*\")(?:[^\"\\\\]|\\\\.)*");
+    private static final Pattern PASSWORD_XML = Pattern.compile(
+            "(url=\"" + PASSWORD_URL + "\"\\s*>\\s*<value[A-Za-z]+\\s+value=\")[^\"]*");
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[abxy]?\\$\\d{2}\\$[./A-Za-z0-9]+");
+
+    private final FhirProperties.Logging settings;
+    private final ThreadLocal<Call> current = new ThreadLocal<>();
+
+    public FhirRequestLogInterceptor(FhirProperties.Logging settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public void interceptRequest(IHttpRequest request) {
+        current.set(new Call(request, sample(), System.nanoTime()));
+    }
+
+    @Override
+    public void interceptResponse(IHttpResponse response) throws IOException {
+        Call call = current.get();
+        current.remove();
+        if (call == null) {
+            return;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - call.startNanos());
+        String reason = reason(response.getStatus(), millis, call.sampled());
+        if (reason == null) {
+            return;
+        }
+
+        IHttpRequest request = call.request();
+        logResponse(request.getHttpVerbName(), request.getUri(), response.getStatus(), millis, reason,
+                requestBody(request), responseBody(response));
+    }
+
+    /**
+     * Logs a call that ended in an I/O error (refused connection, pool, connect or socket timeout)
+     * instead of a response. Every such call is logged, and the call state of the thread is cleared.
+     */
+    public void interceptFailure(IOException exception) {
+        Call call = current.get();
+        current.remove();
+        if (call == null) {
+            return;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - call.startNanos());
+        String reason = exception instanceof InterruptedIOException ? "timeout" : "io-error";
+        logFailure(call.request().getHttpVerbName(), call.request().getUri(), millis, reason, exception,
+                requestBody(call.request()));
+    }
+
+    /**
+     * The same log for the WebClient of {@link ReactiveFhirGateway}. The request body is taken
+     * from the {@link InstrumentedExchangeFilter#REQUEST_BODY_ATTRIBUTE} attribute; the response
+     * body is only buffered for calls that are logged.
+     */
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> Mono.defer(() -> {
+            boolean sampled = sample();
+            long start = System.nanoTime();
+            String method = request.method().name();
+            String url = request.url().toString();
+
+            return next.exchange(request)
+                    .flatMap(response -> {
+                        int status = response.statusCode().value();
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        String reason = reason(status, millis, sampled);
+                        if (reason == null) {
+                            return Mono.just(response);
+                        }
+
+                        String requestBody = requestBody(request);
+                        if (settings.getMaxBodyLength() <= 0 || !isText(response.headers().contentType()
+                                .map(MediaType::toString).orElse(null))) {
+                            logResponse(method, url, status, millis, reason, requestBody, null);
+                            return Mono.just(response);
+                        }
+
+                        return response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .map(body -> {
+                                    logResponse(method, url, status, millis, reason, requestBody,
+                                            truncate(new String(body, StandardCharsets.UTF_8)));
+                                    return response.mutate()
+                                            .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                                            .build();
+                                });
+                    })
+                    .doOnError(exception -> {
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        logFailure(method, url, millis, isTimeout(exception) ? "timeout" : "io-error", exception,
+                                requestBody(request));
+                    });
+        });
+    }
+
+    private boolean sample() {
+        return settings.getSampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.getSampleRate();
+    }
+
+    /** Why a call with this outcome is logged, or null when it is not. */
+    private String reason(int status, long millis, boolean sampled) {
+        if (status >= 400) {
+            return "error";
+        }
+        if (millis >= settings.getSlowThreshold().toMillis()) {
+            return "slow";
+        }
+        return sampled ? "sampled" : null;
+    }
+
+    private void logResponse(String method, String url, int status, long millis, String reason,
+                             String requestBody, String responseBody) {
+        log.atLevel("sampled".equals(reason) ? Level.INFO : Level.WARN)
+                .addKeyValue("fhir.method", method)
+                .addKeyValue("fhir.url", url)
+                .addKeyValue("fhir.status", status)
+                .addKeyValue("fhir.duration_ms", millis)
+                .addKeyValue("fhir.reason", reason)
+                .addKeyValue("fhir.request_body", requestBody)
+                .addKeyValue("fhir.response_body", responseBody)
+                .log("FHIR {} {} -> {} in {} ms ({})", method, url, status, millis, reason);
+    }
+
+    private void logFailure(String method, String url, long millis, String reason, Throwable exception,
+                            String requestBody) {
+        log.atLevel(Level.WARN)
+                .addKeyValue("fhir.method", method)
+                .addKeyValue("fhir.url", url)
+                .addKeyValue("fhir.duration_ms", millis)
+                .addKeyValue("fhir.reason", reason)
+                .addKeyValue("fhir.error", exception.toString())
+                .addKeyValue("fhir.request_body", requestBody)
+                .log("FHIR {} {} failed after {} ms ({}): {}", method, url, millis, reason, exception.toString());
+    }
+
+    private static boolean isTimeout(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isText(String mimeType) {
+        return mimeType != null
+                && (mimeType.contains("json") || mimeType.contains("xml") || mimeType.startsWith("text/"));
+    }
+
+    private String requestBody(ClientRequest request) {
+        if (settings.getMaxBodyLength() <= 0) {
+            return null;
+        }
+        return request.attribute(InstrumentedExchangeFilter.REQUEST_BODY_ATTRIBUTE)
+                .map(body -> truncate(new String((byte[]) body, StandardCharsets.UTF_8)))
+                .orElse(null);
+    }
+
+    private String requestBody(IHttpRequest request) {
+        if (settings.getMaxBodyLength() <= 0) {
+            return null;
+        }
+        try {
+            return truncate(request.getRequestBodyFromStream());
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private String responseBody(IHttpResponse response) throws IOException {
+        if (settings.getMaxBodyLength() <= 0 || !isText(response.getMimeType())) {
+            return null;
+        }
+
+        // Buffered so the client can still parse the whole body after we read its start.
+        response.bufferEntity();
+        char[] buffer = new char[settings.getMaxBodyLength() + 1];
+        int length = 0;
+        try (Reader reader = response.createReader()) {
+            int read;
+            while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+            }
+        }
+        return truncate(new String(buffer, 0, length));
+    }
+
+    private String truncate(String body) {
+        if (body == null) {
+            return null;
+        }
+
+        body = redact(body);
+        if (body.length() <= settings.getMaxBodyLength()) {
+            return body;
+        }
+        return body.substring(0, settings.getMaxBodyLength()) + "...";
+    }
+
+    private static String redact(String body) {
+        if (body.contains(FhirExtensions.PASSWORD_URL)) {
+            body = PASSWORD_JSON.matcher(body).replaceAll("$1" + REDACTED);
+            body = PASSWORD_XML.matcher(body).replaceAll("$1" + REDACTED);
+        }
+        return BCRYPT_HASH.matcher(body).replaceAll(REDACTED);
+    }
+
+    private record Call(IHttpRequest request, boolean sampled, long startNanos) {
+    }
+}
@@ -0,0 +1,158 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for rarely changing resources. Entries younger than the
+ * configured TTL are served locally; older ones are revalidated with a conditional GET
+ * on their version id, so an unchanged resource only costs a 304. Entries that were not
+ * revalidated for {@code fhir.cache.max-age} are dropped. Every invalidation bumps a
+ * generation counter for its key (striped over a fixed array), and a loaded value is only
+ * stored when the generation did not move while it was being fetched, so a read racing with
+ * a write never puts back the copy from before the write.
+ * <p>
+ * The store is a Caffeine cache, so reads do not share a lock; its statistics are published
+ * as the {@code cache.*} meters tagged {@code cache=fhir.resources}. Cached resources are
+ * shared and must not be modified: {@link FhirGateway} reads go through
+ * {@link FhirRequestCoalescer}, which hands every caller its own copy.
+ */
+@Component
+public class FhirResourceCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final FhirProperties.Cache settings;
+    private final Set<String> resourceTypes;
+    private final Cache<String, CachedResource> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    public FhirResourceCache(FhirProperties properties, MeterRegistry registry) {
+        this.settings = properties.getCache();
+        this.resourceTypes = Set.copyOf(settings.getResourceTypes());
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getMaxAge())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, entries, "fhir.resources");
+        FunctionCounter.builder("fhir.cache.requests", hits, LongAdder::doubleValue)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("fhir.cache.requests", misses, LongAdder::doubleValue)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("fhir.cache.requests", revalidations, LongAdder::doubleValue)
+                .tag("result", "revalidated")
+                .register(registry);
+    }
+
+    public boolean isCacheable(Class<? extends Resource> resourceType) {
+        return settings.isEnabled() && resourceTypes.contains(resourceType.getSimpleName());
+    }
+
+    /**
+     * Returns the cached resource, loading or revalidating it as needed. The result is the
+     * shared cached instance; copy it before handing it to code that may modify it. The loader
+     * receives the known version id (or null for an unconditional read) and returns null when
+     * the server answers 304 Not Modified.
+     */
+    public <T extends Resource> T read(Class<T> resourceType, String id, Function<String, T> loader) {
+        String key = key(resourceType.getSimpleName(), id);
+        Instant now = Instant.now();
+        long generation = generation(key);
+        CachedResource cached = entries.getIfPresent(key);
+
+        if (cached != null && cached.isFresh(now, settings)) {
+            hits.increment();
+            return resourceType.cast(cached.resource());
+        }
+
+        if (cached != null && cached.versionId() != null) {
+            T changed = loader.apply(cached.versionId());
+            if (changed == null) {
+                revalidations.increment();
+                put(key, new CachedResource(cached.resource(), cached.versionId(), now), generation);
+                return resourceType.cast(cached.resource());
+            }
+            misses.increment();
+            put(key, toEntry(changed, now), generation);
+            return changed;
+        }
+
+        // Without a version id the entry cannot be revalidated; it is reloaded, not evicted.
+        if (cached != null) {
+            invalidate(key);
+        }
+
+        misses.increment();
+        T loaded = loader.apply(null);
+        if (loaded != null) {
+            put(key, toEntry(loaded, now), generation);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String resourceType, String id) {
+        if (resourceType == null || id == null) {
+            return;
+        }
+        invalidate(key(resourceType, id));
+    }
+
+    /**
+     * Stores the entry unless the key was invalidated since {@code generation} was taken. The
+     * check runs inside the map's per-key compute, and {@link #invalidate(String)} bumps the
+     * generation before removing, so an invalidation either prevents the store or removes it.
+     */
+    private void put(String key, CachedResource entry, long generation) {
+        entries.asMap().compute(key, (ignored, current) -> generation(key) == generation ? entry : current);
+    }
+
+    private void invalidate(String key) {
+        generations.incrementAndGet(stripe(key));
+        entries.invalidate(key);
+    }
+
+    private long generation(String key) {
+        return generations.get(stripe(key));
+    }
+
+    private int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private CachedResource toEntry(Resource resource, Instant now) {
+        String versionId = resource.hasMeta() && resource.getMeta().hasVersionId()
+                ? resource.getMeta().getVersionId()
+                : resource.getIdElement().getVersionIdPart();
+        return new CachedResource(resource, versionId, now);
+    }
+
+    private String key(String resourceType, String id) {
+        return resourceType + "/" + id;
+    }
+
+    private record CachedResource(Resource resource, String versionId, Instant validatedAt) {
+        boolean isFresh(Instant now, FhirProperties.Cache settings) {
+            return validatedAt.plus(settings.getTimeToLive()).isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link FhirRoundTrips} tally for every {@code /api} request. When the request is done
+ * the FHIR request count and time are stored as request attributes, logged at debug level and
+ * published per endpoint as {@code fhir.round.trips} and {@code fhir.round.trip.time}.
+ */
+@Component
+public class FhirRoundTripFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FhirRoundTripFilter.class);
+
+    private final MeterRegistry registry;
+
+    public FhirRoundTripFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            FhirRoundTrips.close();
+            record(request, tally);
+        }
+    }
+
+    private void record(HttpServletRequest request, FhirRoundTrips.Tally tally) {
+        request.setAttribute(FhirRoundTrips.COUNT_ATTRIBUTE, tally.count());
+        request.setAttribute(FhirRoundTrips.TIME_ATTRIBUTE, tally.time());
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("fhir.round.trips")
+                .description("FHIR requests made per API request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(tally.count());
+        Timer.builder("fhir.round.trip.time")
+                .description("Time spent waiting for FHIR responses per API request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(tally.time());
+
+        if (log.isDebugEnabled()) {
+            log.debug("{} {} made {} FHIR request(s) taking {} ms", request.getMethod(), request.getRequestURI(),
+                    tally.count(), tally.time().toMillis());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Adds the FHIR request count ({@code X-Fhir-Round-Trips}) and time ({@code Server-Timing: fhir})
+ * to API responses. The body is written after the handler returns, so the tally is complete here
+ * while the headers can still be set. Off unless {@code fhir.round-trips.headers} is set, since the
+ * numbers describe the backend's FHIR traffic to any caller.
+ */
+@RestControllerAdvice
+public class FhirRoundTripHeaders implements ResponseBodyAdvice<Object> {
+
+    public static final String ROUND_TRIPS_HEADER = "X-Fhir-Round-Trips";
+
+    private final boolean enabled;
+
+    public FhirRoundTripHeaders(FhirProperties properties) {
+        this.enabled = properties.getRoundTrips().isHeaders();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+        if (tally != null) {
+            response.getHeaders().set(ROUND_TRIPS_HEADER, Integer.toString(tally.count()));
+            response.getHeaders().add("Server-Timing",
+                    String.format(Locale.ROOT, "fhir;dur=%.1f", tally.time().toNanos() / 1e6));
+        }
+        return body;
+    }
+}
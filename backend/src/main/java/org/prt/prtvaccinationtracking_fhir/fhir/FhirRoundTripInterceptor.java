@@ -0,0 +1,34 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.rest.client.api.IClientInterceptor;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+
+/** Reports every request of the HAPI client to the {@link FhirRoundTrips} tally of the calling thread. */
+public class FhirRoundTripInterceptor implements IClientInterceptor {
+
+    private final ThreadLocal<Long> started = new ThreadLocal<>();
+
+    @Override
+    public void interceptRequest(IHttpRequest request) {
+        started.set(FhirRoundTrips.started());
+    }
+
+    @Override
+    public void interceptResponse(IHttpResponse response) {
+        finished();
+    }
+
+    /** A request that failed without a response still counts. */
+    public void interceptFailure() {
+        finished();
+    }
+
+    private void finished() {
+        Long start = started.get();
+        started.remove();
+        if (start != null) {
+            FhirRoundTrips.finished(start);
+        }
+    }
+}
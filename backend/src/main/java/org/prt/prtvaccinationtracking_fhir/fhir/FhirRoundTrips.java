@@ -0,0 +1,100 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the FHIR requests made on behalf of one inbound API request. {@link FhirRoundTripFilter}
+ * opens a tally for the request thread; the HAPI client interceptor and the raw JSON reader
+ * report every call into whatever tally is open on the calling thread. Work handed to another
+ * thread is attributed only when it is wrapped with {@link #wrap(Runnable)}; reactive calls
+ * take the tally of the thread that created them and report into it explicitly.
+ */
+public final class FhirRoundTrips {
+
+    /** Request attribute holding the number of FHIR requests (Integer). */
+    public static final String COUNT_ATTRIBUTE = FhirRoundTrips.class.getName() + ".count";
+    /** Request attribute holding the time spent waiting for FHIR responses (Duration). */
+    public static final String TIME_ATTRIBUTE = FhirRoundTrips.class.getName() + ".time";
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    private FhirRoundTrips() {
+    }
+
+    static Tally open() {
+        Tally tally = new Tally();
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /** Tally of the inbound request being handled on this thread, or null outside of one. */
+    public static Tally current() {
+        return CURRENT.get();
+    }
+
+    /** Records a FHIR request that was just sent and returns its start time for {@link #finished}. */
+    static long started() {
+        return started(CURRENT.get());
+    }
+
+    /** Records the response of a request begun with {@link #started}. */
+    static void finished(long startNanos) {
+        finished(CURRENT.get(), startNanos);
+    }
+
+    /** Same as {@link #started()} for a tally taken earlier with {@link #current()}; null is ignored. */
+    static long started(Tally tally) {
+        if (tally != null) {
+            tally.count.increment();
+        }
+        return System.nanoTime();
+    }
+
+    /** Same as {@link #finished(long)} for a tally taken earlier with {@link #current()}. */
+    static void finished(Tally tally, long startNanos) {
+        if (tally != null) {
+            tally.nanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Runs {@code task} with the caller's tally, so FHIR calls made on a pool thread still count. */
+    static Runnable wrap(Runnable task) {
+        Tally tally = CURRENT.get();
+        if (tally == null) {
+            return task;
+        }
+
+        return () -> {
+            Tally previous = CURRENT.get();
+            CURRENT.set(tally);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public static final class Tally {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public int count() {
+            return count.intValue();
+        }
+
+        public Duration time() {
+            return Duration.ofNanos(nanos.sum());
+        }
+    }
+}
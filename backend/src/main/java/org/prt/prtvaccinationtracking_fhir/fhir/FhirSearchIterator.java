@@ -0,0 +1,116 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Resource;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Iterates the resources of a search across all of its pages, following {@code link[next]}
+ * only when the current page is used up. Only the current page is held; with prefetching
+ * enabled the next page is requested in the background as soon as the current one arrives,
+ * or fetched when it is reached if the prefetch executor turns the task away. Closing the
+ * iterator stops paging; a prefetch that has not started is dropped and one that is running
+ * is interrupted.
+ */
+public class FhirSearchIterator<T extends Resource> implements Iterator<T>, AutoCloseable {
+
+    private final Class<T> resourceType;
+    private final UnaryOperator<Bundle> nextPage;
+    private final Executor prefetcher;
+
+    private Bundle page;
+    private int position;
+    private FutureTask<Bundle> prefetched;
+    private T upcoming;
+    private boolean closed;
+
+    FhirSearchIterator(Bundle firstPage, Class<T> resourceType, UnaryOperator<Bundle> nextPage, Executor prefetcher) {
+        this.resourceType = resourceType;
+        this.nextPage = nextPage;
+        this.prefetcher = prefetcher;
+        enter(firstPage);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (upcoming == null && !closed && page != null) {
+            if (position < page.getEntry().size()) {
+                Resource resource = page.getEntry().get(position++).getResource();
+                if (resourceType.isInstance(resource)) {
+                    upcoming = resourceType.cast(resource);
+                }
+            } else {
+                enter(advance());
+            }
+        }
+        return upcoming != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T resource = upcoming;
+        upcoming = null;
+        return resource;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        page = null;
+        if (prefetched != null) {
+            prefetched.cancel(true);
+            prefetched = null;
+        }
+    }
+
+    private void enter(Bundle bundle) {
+        page = bundle;
+        position = 0;
+
+        if (prefetcher != null && hasNextLink(bundle)) {
+            FutureTask<Bundle> task = new FutureTask<>(() -> nextPage.apply(bundle));
+            try {
+                prefetcher.execute(task);
+                prefetched = task;
+            } catch (RejectedExecutionException exception) {
+                // The pool is saturated; advance() loads the page itself.
+            }
+        }
+    }
+
+    private Bundle advance() {
+        if (prefetched != null) {
+            FutureTask<Bundle> pending = prefetched;
+            prefetched = null;
+            try {
+                return pending.get();
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(exception.getCause());
+            } catch (InterruptedException exception) {
+                pending.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next search page", exception);
+            }
+        }
+
+        return hasNextLink(page) ? nextPage.apply(page) : null;
+    }
+
+    private boolean hasNextLink(Bundle bundle) {
+        return bundle != null && bundle.getLink(Bundle.LINK_NEXT) != null;
+    }
+}
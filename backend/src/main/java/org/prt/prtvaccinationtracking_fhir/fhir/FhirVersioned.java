@@ -0,0 +1,37 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.hl7.fhir.r5.model.Resource;
+
+import java.util.function.Function;
+
+/**
+ * A mapped DTO together with the {@code meta.versionId} of the resource it was mapped from.
+ * Controllers send the version as a weak {@code ETag}; clients send it back as
+ * {@code If-Match} on updates, which {@link FhirGateway#patch} forwards to the server.
+ */
+public record FhirVersioned<T>(
+        T body,
+        String versionId
+) {
+
+    public static <R extends Resource, T> FhirVersioned<T> of(R resource, Function<R, T> mapper) {
+        String versionId = null;
+        if (resource != null) {
+            versionId = resource.getMeta().hasVersionId()
+                    ? resource.getMeta().getVersionId()
+                    : resource.getIdElement().getVersionIdPart();
+        }
+        return new FhirVersioned<>(mapper.apply(resource), versionId);
+    }
+
+    public static <T> FhirVersioned<T> ofJson(JsonNode json, Function<JsonNode, T> mapper) {
+        JsonNode versionId = json == null ? null : json.path("meta").get("versionId");
+        return new FhirVersioned<>(mapper.apply(json), versionId != null ? versionId.asText() : null);
+    }
+
+    /** The version as a weak entity tag, or null when the server did not report one. */
+    public String eTag() {
+        return versionId != null ? "W/\"" + versionId + "\"" : null;
+    }
+}
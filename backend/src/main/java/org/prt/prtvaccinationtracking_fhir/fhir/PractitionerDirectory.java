@@ -0,0 +1,181 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hl7.fhir.r5.model.HumanName;
+import org.hl7.fhir.r5.model.InstantType;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Reference;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory directory of practitioner display names, so mappers can name the performer of
+ * an immunization, encounter or appointment without reading the Practitioner. It is loaded
+ * in the background at startup and then refreshed with {@code _lastUpdated} searches that
+ * only return practitioners changed since the previous refresh. A practitioner whose name was
+ * removed is dropped when it shows up in such a refresh. Deletions never show up there, so every
+ * {@code fhir.directory.full-refresh-interval} the directory is reloaded completely and ids the
+ * server no longer returns are dropped. Pages are streamed through {@link FhirBundleStreamReader},
+ * so a full load never holds a whole page of Practitioners.
+ */
+@Component
+public class PractitionerDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(PractitionerDirectory.class);
+
+    private final FhirBundleStreamReader reader;
+    private final FhirProperties.Directory settings;
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private InstantType lastUpdated;
+    private Instant lastFullRefresh;
+    // Ids seen or remembered while a full refresh runs; null outside of one
+    private volatile Set<String> seen;
+
+    public PractitionerDirectory(FhirBundleStreamReader reader, FhirProperties properties, MeterRegistry registry) {
+        this.reader = reader;
+        this.settings = properties.getDirectory();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "practitioner-directory");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("fhir.directory.practitioners", names, Map::size)
+                .register(registry);
+
+        if (settings.isEnabled()) {
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0,
+                    settings.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Display name of the practitioner, or null when it is not in the directory (yet). */
+    public String nameOf(String practitionerId) {
+        return practitionerId == null ? null : names.get(practitionerId);
+    }
+
+    /** Display name for a {@code Practitioner/..} reference, or null for any other reference. */
+    public String nameOf(Reference reference) {
+        if (reference == null || !reference.hasReferenceElement()
+                || !"Practitioner".equals(reference.getReferenceElement().getResourceType())) {
+            return null;
+        }
+        return nameOf(reference.getReferenceElement().getIdPart());
+    }
+
+    /** Records a practitioner this application just created or changed; one without a name is dropped. */
+    public void remember(Practitioner practitioner) {
+        if (practitioner == null || !practitioner.getIdElement().hasIdPart()) {
+            return;
+        }
+
+        String id = practitioner.getIdElement().getIdPart();
+        // Marked before it is stored, so a full refresh finishing in between cannot drop it.
+        Set<String> current = seen;
+        if (current != null) {
+            current.add(id);
+        }
+
+        String name = displayName(practitioner);
+        if (name != null) {
+            names.put(id, name);
+        } else {
+            names.remove(id);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException exception) {
+            log.warn("Refreshing the practitioner directory failed: {}", exception.getMessage());
+        }
+    }
+
+    private void refresh() {
+        Instant now = Instant.now();
+        boolean full = lastFullRefresh == null
+                || !lastFullRefresh.plus(settings.getFullRefreshInterval()).isAfter(now);
+
+        StringBuilder query = new StringBuilder("Practitioner?_elements=name&_count=")
+                .append(settings.getPageSize());
+
+        // "ge" re-reads practitioners stamped exactly at the watermark, so none are missed.
+        if (!full && lastUpdated != null) {
+            query.append("&_lastUpdated=ge")
+                    .append(URLEncoder.encode(lastUpdated.getValueAsString(), StandardCharsets.UTF_8));
+        }
+
+        if (full) {
+            seen = ConcurrentHashMap.newKeySet();
+        }
+
+        AtomicReference<InstantType> newest = new AtomicReference<>(lastUpdated);
+        try {
+            reader.search(query.toString(), resource -> {
+                if (!(resource instanceof Practitioner practitioner)) {
+                    return;
+                }
+                remember(practitioner);
+
+                InstantType stamp = practitioner.getMeta().getLastUpdatedElement();
+                InstantType current = newest.get();
+                if (stamp.getValue() != null && (current == null || stamp.after(current.getValue()))) {
+                    newest.set(stamp.copy());
+                }
+            });
+
+            if (full) {
+                names.keySet().retainAll(seen);
+                lastFullRefresh = now;
+            }
+        } finally {
+            seen = null;
+        }
+
+        lastUpdated = newest.get();
+    }
+
+    /** Formats the first name of the practitioner as "given family", or either part alone. */
+    public String displayName(Practitioner practitioner) {
+        if (!practitioner.hasName()) {
+            return null;
+        }
+
+        HumanName name = practitioner.getNameFirstRep();
+        String given = name.hasGiven() && !name.getGiven().isEmpty()
+                ? name.getGiven().get(0).getValue()
+                : null;
+        String family = name.hasFamily() ? name.getFamily() : null;
+
+        if (given != null && family != null) {
+            return given + " " + family;
+        }
+        if (given != null) {
+            return given;
+        }
+        return family;
+    }
+}
@@ -0,0 +1,199 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.OperationOutcome;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.config.InstrumentedExchangeFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking counterpart of {@link FhirGateway} that speaks FHIR REST over WebClient, for
+ * fan-out work where holding a servlet thread per FHIR call is too costly. The WebClient
+ * carries the same timing, byte and Flight Recorder instrumentation and request log as the
+ * blocking client (see {@code FhirClientConfig#fhirWebClient}), and every call counts as a
+ * round trip of the API request that created it. Bodies are encoded and parsed on the
+ * bounded elastic scheduler, never on the Netty event loop. Reads are not cached; writes drop
+ * the cached and in-flight state of the resource like {@link FhirGateway} writes do.
+ */
+@Component
+public class ReactiveFhirGateway {
+
+    private static final MediaType FHIR_JSON = MediaType.parseMediaType("application/fhir+json");
+    private static final int DEFAULT_CONCURRENCY = 16;
+
+    private final WebClient webClient;
+    private final FhirContext fhirContext;
+    private final FhirResourceCache cache;
+    private final FhirRequestCoalescer coalescer;
+    private final String baseUrl;
+
+    public ReactiveFhirGateway(
+            WebClient fhirWebClient,
+            FhirContext fhirContext,
+            FhirResourceCache cache,
+            FhirRequestCoalescer coalescer,
+            @Value("${fhir.server.base-url}") String baseUrl
+    ) {
+        this.webClient = fhirWebClient;
+        this.fhirContext = fhirContext;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public <T extends Resource> Mono<T> read(Class<T> resourceType, String id) {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+        return exchange(webClient.get().uri("/{type}/{id}", resourceType.getSimpleName(), id), resourceType, tally);
+    }
+
+    /** Reads many resources of one type concurrently, with at most {@code concurrency} calls in flight. */
+    public <T extends Resource> Flux<T> readAll(Class<T> resourceType, Collection<String> ids, int concurrency) {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+        return Flux.fromIterable(ids)
+                .flatMap(id -> exchange(webClient.get().uri("/{type}/{id}", resourceType.getSimpleName(), id),
+                        resourceType, tally), concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> Mono<T> create(T resource) {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+        String type = resource.fhirType();
+        return encode(resource)
+                .flatMap(body -> exchange(webClient.post()
+                        .uri("/{type}", type)
+                        .contentType(FHIR_JSON)
+                        .header("Prefer", "return=representation")
+                        .attribute(InstrumentedExchangeFilter.REQUEST_BODY_ATTRIBUTE, body)
+                        .bodyValue(body), (Class<T>) resource.getClass(), tally))
+                .doOnSuccess(created -> written(type, created == null ? null : created.getIdElement().getIdPart()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> Mono<T> update(T resource) {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+        String type = resource.fhirType();
+        String id = resource.getIdElement().getIdPart();
+        return encode(resource)
+                .flatMap(body -> exchange(webClient.put()
+                        .uri("/{type}/{id}", type, id)
+                        .contentType(FHIR_JSON)
+                        .header("Prefer", "return=representation")
+                        .attribute(InstrumentedExchangeFilter.REQUEST_BODY_ATTRIBUTE, body)
+                        .bodyValue(body), (Class<T>) resource.getClass(), tally))
+                .doFinally(signal -> written(type, id));
+    }
+
+    /**
+     * Runs a search given as a relative URL such as {@code "Immunization?patient=123"} (already
+     * encoded, as for {@link FhirGateway#search(String)}) and emits the matching resources,
+     * following {@code link[next]} only as far as the subscriber requests.
+     */
+    public Flux<Resource> search(String query) {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.current();
+        return exchange(webClient.get().uri(URI.create(baseUrl + "/" + query)), Bundle.class, tally)
+                .expand(bundle -> bundle.getLink(Bundle.LINK_NEXT) == null
+                        ? Mono.empty()
+                        : exchange(webClient.get().uri(URI.create(bundle.getLink(Bundle.LINK_NEXT).getUrl())),
+                                Bundle.class, tally))
+                .concatMapIterable(Bundle::getEntry)
+                .filter(entry -> entry.hasResource()
+                        && (!entry.hasSearch() || entry.getSearch().getMode() == Bundle.SearchEntryMode.MATCH))
+                .map(Bundle.BundleEntryComponent::getResource);
+    }
+
+    /**
+     * Sends the request and parses the response. The round trip is reported to {@code tally}
+     * from subscription until the response headers arrive, as the blocking client does.
+     */
+    private <T extends Resource> Mono<T> exchange(
+            WebClient.RequestHeadersSpec<?> request,
+            Class<T> resourceType,
+            FhirRoundTrips.Tally tally
+    ) {
+        return Mono.defer(() -> {
+            long start = FhirRoundTrips.started(tally);
+            AtomicBoolean finished = new AtomicBoolean();
+            Runnable finish = () -> {
+                if (finished.compareAndSet(false, true)) {
+                    FhirRoundTrips.finished(tally, start);
+                }
+            };
+
+            return request.accept(FHIR_JSON)
+                    .exchangeToMono(response -> {
+                        finish.run();
+                        return response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .map(body -> new RawResponse(response.statusCode().value(), body));
+                    })
+                    .doFinally(signal -> finish.run())
+                    // Parsing and everything downstream run off the Netty event loop
+                    .publishOn(Schedulers.boundedElastic())
+                    .handle((response, sink) -> {
+                        if (response.status() >= 400) {
+                            sink.error(BaseServerResponseException.newInstance(response.status(), errorMessage(response)));
+                            return;
+                        }
+                        if (response.body().length == 0) {
+                            sink.complete();
+                            return;
+                        }
+                        sink.next(fhirContext.newJsonParser()
+                                .parseResource(resourceType, new ByteArrayInputStream(response.body())));
+                    });
+        });
+    }
+
+    /** The diagnostics of the OperationOutcome the server sent, or the status line. */
+    private String errorMessage(RawResponse response) {
+        byte[] body = response.body();
+        StringJoiner message = new StringJoiner("; ", "HTTP " + response.status() + ": ", "");
+        message.setEmptyValue("HTTP " + response.status());
+        if (body.length > 0) {
+            try {
+                OperationOutcome outcome = fhirContext.newJsonParser()
+                        .parseResource(OperationOutcome.class, new String(body, StandardCharsets.UTF_8));
+                for (OperationOutcome.OperationOutcomeIssueComponent issue : outcome.getIssue()) {
+                    if (issue.hasDiagnostics()) {
+                        message.add(issue.getDiagnostics());
+                    }
+                }
+            } catch (DataFormatException exception) {
+                // Not an OperationOutcome; the status line will do.
+            }
+        }
+        return message.toString();
+    }
+
+    private Mono<byte[]> encode(Resource resource) {
+        return Mono.fromCallable(() -> fhirContext.newJsonParser()
+                        .encodeResourceToString(resource)
+                        .getBytes(StandardCharsets.UTF_8))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Drops everything cached or in flight that a write to this resource may have outdated. */
+    private void written(String resourceType, String id) {
+        cache.invalidate(resourceType, id);
+        coalescer.invalidate(resourceType, id);
+    }
+
+    private record RawResponse(int status, byte[] body) {
+    }
+}
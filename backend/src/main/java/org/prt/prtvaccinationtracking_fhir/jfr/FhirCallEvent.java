@@ -0,0 +1,35 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("prt.FhirCall")
+@Label("FHIR Call")
+@Category({"PRT", "FHIR"})
+@Description("One exchange with the FHIR server, until its response body has been read")
+public class FhirCallEvent extends Event {
+
+    @Label("Resource Type")
+    public String resourceType;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("HTTP Method")
+    public String method;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    public long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    public long bytesReceived;
+}
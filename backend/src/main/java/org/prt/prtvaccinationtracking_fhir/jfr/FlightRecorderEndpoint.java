@@ -0,0 +1,150 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: controls one JDK Flight Recorder recording of this process, which
+ * includes the {@code prt.*} events for FHIR calls, mappers, password checks and JWTs.
+ * <ul>
+ *     <li>{@code GET /actuator/jfr} shows whether a recording exists and its state.</li>
+ *     <li>{@code POST /actuator/jfr/start} with a JSON body starts one with the JDK's
+ *     {@code default} settings (about 1% overhead) for {@code {}}, or with
+ *     {@code {"configuration": "profile"}} for more detail.</li>
+ *     <li>{@code POST /actuator/jfr/stop} (JSON body {@code {}}) stops it; the data is kept for a dump.</li>
+ *     <li>{@code GET /actuator/jfr/dump} downloads the recording as a {@code .jfr} file.</li>
+ * </ul>
+ * The recording keeps at most {@link #MAX_AGE} and {@link #MAX_SIZE} bytes of data. Events that
+ * copy the process environment, system properties or command line ({@link #SECRET_BEARING_EVENTS})
+ * are switched off whatever the configuration says, since those carry the JWT secret and other
+ * credentials into the dump.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    static final Duration MAX_AGE = Duration.ofMinutes(30);
+    static final long MAX_SIZE = 200L * 1024 * 1024;
+    static final List<String> SECRET_BEARING_EVENTS =
+            List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private Recording recording;
+    private Path lastDump;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            status.put("started", recording.getStartTime());
+            status.put("stopped", recording.getStopTime());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> control(@Selector String action,
+                                                                        @Nullable String configuration) {
+        switch (action) {
+            case "start" -> {
+                if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                    return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+                }
+                discard();
+                recording = new Recording(settings(configuration == null ? "default" : configuration));
+                recording.setName("prt-backend");
+                recording.setToDisk(true);
+                recording.setMaxAge(MAX_AGE);
+                recording.setMaxSize(MAX_SIZE);
+                recording.start();
+            }
+            case "stop" -> {
+                if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                    return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+                }
+                recording.stop();
+            }
+            default -> {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+        }
+        return new WebEndpointResponse<>(status());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String file) {
+        if (!"dump".equals(file)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        try {
+            deleteLastDump();
+            lastDump = Files.createTempFile("prt-backend-", ".jfr");
+            recording.dump(lastDump);
+            return new WebEndpointResponse<>(new FileSystemResource(lastDump));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Dumping the flight recording failed", exception);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        deleteLastDump();
+    }
+
+    private void deleteLastDump() {
+        if (lastDump != null) {
+            try {
+                Files.deleteIfExists(lastDump);
+            } catch (IOException ignored) {
+                // a temp file that is still open elsewhere is left for the OS to clean up
+            }
+            lastDump = null;
+        }
+    }
+
+    private Map<String, String> settings(String name) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException exception) {
+            throw new IllegalArgumentException("Unknown JFR configuration " + name, exception);
+        }
+
+        Map<String, String> settings = new HashMap<>(configuration.getSettings());
+        for (String event : SECRET_BEARING_EVENTS) {
+            settings.put(event + "#enabled", "false");
+        }
+        return settings;
+    }
+}
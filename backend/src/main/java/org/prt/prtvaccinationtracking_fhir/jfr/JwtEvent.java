@@ -0,0 +1,21 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("prt.Jwt")
+@Label("JWT")
+@Category({"PRT", "Auth"})
+@Description("Signing an access token or decoding and verifying one")
+public class JwtEvent extends Event {
+
+    @Label("Operation")
+    @Description("encode or decode")
+    public String operation;
+
+    @Label("Success")
+    public boolean success;
+}
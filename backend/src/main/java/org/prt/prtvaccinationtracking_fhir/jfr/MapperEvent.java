@@ -0,0 +1,23 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("prt.Mapper")
+@Label("Mapper Call")
+@Category({"PRT", "Mapping"})
+@Description("A FHIR resource to DTO conversion or the reverse")
+public class MapperEvent extends Event {
+
+    @Label("Mapper")
+    public String mapper;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Input Type")
+    public String inputType;
+}
@@ -0,0 +1,67 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the {@link RecordedMapper} beans so every {@code toDTO}, {@code toDetailsDTO},
+ * {@code toResource} and {@code toPatch} call emits a {@link MapperEvent}. While no recording
+ * is running the event is created but never committed. Other beans are returned as they are.
+ */
+@Component
+public class MapperEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = bean.getClass();
+        if (!type.isAnnotationPresent(RecordedMapper.class)) {
+            return bean;
+        }
+
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            String method = invocation.getMethod().getName();
+            if (!isMapping(method)) {
+                return invocation.proceed();
+            }
+
+            MapperEvent event = new MapperEvent();
+            event.begin();
+            try {
+                return invocation.proceed();
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.mapper = type.getSimpleName();
+                    event.method = method;
+                    event.inputType = inputType(invocation.getArguments());
+                    event.commit();
+                }
+            }
+        });
+        return factory.getProxy(type.getClassLoader());
+    }
+
+    private boolean isMapping(String method) {
+        return method.equals("toResource") || method.equals("toPatch")
+                || method.startsWith("to") && method.endsWith("DTO");
+    }
+
+    private String inputType(Object[] arguments) {
+        if (arguments.length == 0 || arguments[0] == null) {
+            return null;
+        }
+        if (arguments[0] instanceof IBaseResource resource) {
+            return resource.fhirType();
+        }
+        if (arguments[0] instanceof JsonNode json && json.hasNonNull("resourceType")) {
+            return json.get("resourceType").asText() + " (JSON)";
+        }
+        return arguments[0].getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,21 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("prt.PasswordCheck")
+@Label("Password Check")
+@Category({"PRT", "Auth"})
+@Description("Comparison of a login password with the stored value")
+public class PasswordCheckEvent extends Event {
+
+    @Label("Scheme")
+    @Description("bcrypt or plain")
+    public String scheme;
+
+    @Label("Matched")
+    public boolean matched;
+}
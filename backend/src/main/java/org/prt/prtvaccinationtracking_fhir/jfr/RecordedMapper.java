@@ -0,0 +1,18 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a mapper bean whose conversions are recorded as {@link MapperEvent}s by
+ * {@link MapperEventPostProcessor}. Only the mappers that run once per search result carry it;
+ * the others are left unproxied.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RecordedMapper {
+}
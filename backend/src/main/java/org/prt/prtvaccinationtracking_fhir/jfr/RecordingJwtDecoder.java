@@ -0,0 +1,34 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/** Emits a {@link JwtEvent} around every decode and signature check of the wrapped decoder. */
+public class RecordingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    public RecordingJwtDecoder(JwtDecoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        JwtEvent event = new JwtEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            Jwt jwt = delegate.decode(token);
+            success = true;
+            return jwt;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "decode";
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
 import org.hl7.fhir.r5.model.AdverseEvent;
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
-import org.hl7.fhir.r5.model.Reference;
+import org.hl7.fhir.r5.model.DateTimeType;
+import org.hl7.fhir.r5.model.Parameters;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.AdverseEventDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.CreateAdverseEventRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.UpdateAdverseEventRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -68,38 +71,42 @@ public class AdverseEventMapper {
         return resource;
     }
 
-    public void updateResource(UpdateAdverseEventRequestDTO dto, AdverseEvent resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateAdverseEventRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("AdverseEvent");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.status() != null) {
-            resource.setStatus(mapStatus(dto.status()));
+            patch.set("status", new CodeType(mapStatus(dto.status()).toCode()));
         }
 
         if (dto.actuality() != null) {
-            resource.setActuality(mapActuality(dto.actuality()));
+            patch.set("actuality", new CodeType(mapActuality(dto.actuality()).toCode()));
         }
 
         if (dto.category() != null) {
-            if (dto.category().isBlank()) {
-                resource.setCategory(List.of());
-            } else {
-                resource.setCategory(List.of(new CodeableConcept().setText(dto.category())));
+            patch.deleteAll("AdverseEvent.category");
+            if (!dto.category().isBlank()) {
+                patch.set("category", new CodeableConcept().setText(dto.category()));
             }
         }
 
         if (dto.recordedDate() != null) {
-            resource.setRecordedDate(support.toDate(dto.recordedDate()));
+            patch.set("recordedDate", new DateTimeType(support.toDate(dto.recordedDate())));
         }
 
         if (dto.encounter() != null) {
             if (dto.encounter().isBlank()) {
-                resource.setEncounter((Reference) null);
+                patch.delete("AdverseEvent.encounter");
             } else {
-                resource.setEncounter(support.toEncounterReference(dto.encounter()));
+                patch.set("encounter", support.toEncounterReference(dto.encounter()));
             }
         }
+
+        return patch.build();
     }
 
     private String extractCategory(AdverseEvent resource) {
@@ -1,14 +1,19 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Appointment;
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.CodeableReference;
-import org.hl7.fhir.r5.model.HumanName;
+import org.hl7.fhir.r5.model.InstantType;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Practitioner;
 import org.hl7.fhir.r5.model.Reference;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.AppointmentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.CreateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.UpdateAppointmentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -18,6 +23,7 @@ import java.util.Date;
 import java.util.List;
 
 @Component("practitionerAppointmentMapper")
+@RecordedMapper
 public class AppointmentMapper {
 
     private final MapperSupport support;
@@ -33,7 +39,7 @@ public class AppointmentMapper {
 
         return new AppointmentDTO(
                 resource.getIdElement().getIdPart(),
-                resource.hasStatus() ? resource.getStatus().toCode() : null,
+                resource.getStatus() != null ? resource.getStatus().toCode() : null,
                 toLocalDateTime(resource.hasStart() ? resource.getStart() : null),
                 toLocalDateTime(resource.hasEnd() ? resource.getEnd() : null),
                 extractReason(resource),
@@ -43,6 +49,30 @@ public class AppointmentMapper {
         );
     }
 
+    /**
+     * Same projection as {@link #toDTO(Appointment)} read straight from the resource's FHIR JSON, used by the
+     * endpoints listed under {@code fhir.projection.*}.
+     */
+    public AppointmentDTO toDTO(JsonNode json) {
+        if (json == null || json.isMissingNode()) {
+            return null;
+        }
+
+        String start = support.text(json, "start");
+        String end = support.text(json, "end");
+
+        return new AppointmentDTO(
+                support.text(json, "id"),
+                support.text(json, "status"),
+                start != null ? toLocalDateTime(new InstantType(start).getValue()) : null,
+                end != null ? toLocalDateTime(new InstantType(end).getValue()) : null,
+                support.codeableConceptToText(json.path("reason").path(0).get("concept")),
+                extractPractitionerName(json),
+                participantId(json, "Patient/"),
+                participantId(json, "Location/")
+        );
+    }
+
     public Appointment toResource(CreateAppointmentRequestDTO dto) {
         if (dto == null) {
             return null;
@@ -76,22 +106,27 @@ public class AppointmentMapper {
         return resource;
     }
 
-    public void updateResource(UpdateAppointmentRequestDTO dto, Appointment resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateAppointmentRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Appointment");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.start() != null) {
-            resource.setStart(toDate(dto.start()));
+            patch.set("start", new InstantType(toDate(dto.start())));
         }
 
         if (dto.end() != null) {
-            resource.setEnd(toDate(dto.end()));
+            patch.set("end", new InstantType(toDate(dto.end())));
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Appointment.AppointmentStatus.fromCode(dto.status()));
+            patch.set("status", new CodeType(Appointment.AppointmentStatus.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractReason(Appointment resource) {
@@ -146,22 +181,28 @@ public class AppointmentMapper {
                 continue;
             }
 
-            if (actor.getResource() instanceof Practitioner practitioner && practitioner.hasName()) {
-                HumanName name = practitioner.getNameFirstRep();
-                String given = name.hasGiven() && !name.getGiven().isEmpty()
-                        ? name.getGiven().get(0).getValue()
-                        : null;
-                String family = name.hasFamily() ? name.getFamily() : null;
-
-                if (given != null && family != null) {
-                    return given + " " + family;
-                }
-                if (given != null) {
-                    return given;
-                }
-                if (family != null) {
-                    return family;
-                }
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
+            }
+
+            return support.referenceToId(actor);
+        }
+
+        return null;
+    }
+
+    private String extractPractitionerName(JsonNode json) {
+        for (JsonNode participant : json.path("participant")) {
+            JsonNode actor = participant.get("actor");
+            String reference = support.text(actor, "reference");
+            if (reference == null || !reference.startsWith("Practitioner/")) {
+                continue;
+            }
+
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
             }
 
             return support.referenceToId(actor);
@@ -170,6 +211,17 @@ public class AppointmentMapper {
         return null;
     }
 
+    private String participantId(JsonNode json, String prefix) {
+        for (JsonNode participant : json.path("participant")) {
+            JsonNode actor = participant.get("actor");
+            String reference = support.text(actor, "reference");
+            if (reference != null && reference.startsWith(prefix)) {
+                return support.referenceToId(actor);
+            }
+        }
+        return null;
+    }
+
     private Date toDate(LocalDateTime value) {
         if (value == null) {
             return null;
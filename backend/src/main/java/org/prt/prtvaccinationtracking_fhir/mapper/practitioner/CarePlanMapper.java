@@ -2,12 +2,17 @@ package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
 import org.hl7.fhir.r5.model.Annotation;
 import org.hl7.fhir.r5.model.CarePlan;
+import org.hl7.fhir.r5.model.CodeType;
+import org.hl7.fhir.r5.model.DateTimeType;
 import org.hl7.fhir.r5.model.Enumerations;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Period;
 import org.hl7.fhir.r5.model.Reference;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CarePlanDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CreateCarePlanRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.UpdateCarePlanRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -82,32 +87,35 @@ public class CarePlanMapper {
         return resource;
     }
 
-    public void updateResource(UpdateCarePlanRequestDTO dto, CarePlan resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateCarePlanRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("CarePlan");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.title() != null) {
-            resource.setTitle(dto.title());
+            patch.set("title", new StringType(dto.title()));
         }
 
         if (dto.description() != null) {
-            if (dto.description().isBlank()) {
-                resource.setNote(new ArrayList<>());
-            } else {
-                resource.setNote(List.of(new Annotation().setText(dto.description())));
+            patch.deleteAll("CarePlan.note");
+            if (!dto.description().isBlank()) {
+                patch.set("note", new Annotation().setText(dto.description()));
             }
         }
 
         if (dto.endDate() != null) {
-            Period period = resource.hasPeriod() ? resource.getPeriod() : new Period();
-            period.setEnd(support.toDate(dto.endDate()));
-            resource.setPeriod(period);
+            patch.ensure("period");
+            patch.add("CarePlan.period", "end", new DateTimeType(support.toDate(dto.endDate())));
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Enumerations.RequestStatus.fromCode(dto.status()));
+            patch.set("status", new CodeType(Enumerations.RequestStatus.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractNote(CarePlan resource) {
@@ -1,14 +1,17 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.CodeableReference;
 import org.hl7.fhir.r5.model.Communication;
 import org.hl7.fhir.r5.model.Enumerations;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Reference;
 import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CommunicationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CreateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.UpdateCommunicationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -82,14 +85,19 @@ public class CommunicationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateCommunicationRequestDTO dto, Communication resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateCommunicationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Communication");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Enumerations.EventStatus.fromCode(dto.status()));
+            patch.set("status", new CodeType(Enumerations.EventStatus.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractPatientId(Communication resource) {
@@ -1,26 +1,29 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.CodeableReference;
+import org.hl7.fhir.r5.model.DateTimeType;
 import org.hl7.fhir.r5.model.Encounter;
 import org.hl7.fhir.r5.model.Enumerations;
-import org.hl7.fhir.r5.model.HumanName;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Period;
-import org.hl7.fhir.r5.model.Practitioner;
 import org.hl7.fhir.r5.model.Reference;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.CreateEncounterRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.UpdateEncounterRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 @Component("practitionerEncounterMapper")
+@RecordedMapper
 public class EncounterMapper {
 
     private final MapperSupport support;
@@ -75,50 +78,45 @@ public class EncounterMapper {
         return resource;
     }
 
-    public void updateResource(UpdateEncounterRequestDTO dto, Encounter resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateEncounterRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Encounter");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.start() != null || dto.end() != null) {
-            Period period = resource.hasActualPeriod() ? resource.getActualPeriod() : new Period();
+            patch.ensure("actualPeriod");
 
             if (dto.start() != null) {
-                period.setStart(toDate(dto.start()));
+                patch.add("Encounter.actualPeriod", "start", new DateTimeType(toDate(dto.start())));
             }
 
             if (dto.end() != null) {
-                period.setEnd(toDate(dto.end()));
+                patch.add("Encounter.actualPeriod", "end", new DateTimeType(toDate(dto.end())));
             }
-
-            resource.setActualPeriod(period);
         }
 
         if (dto.reason() != null) {
-            if (dto.reason().isBlank()) {
-                resource.setReason(new ArrayList<>());
-            } else {
-                resource.setReason(List.of(
-                        new Encounter.ReasonComponent()
-                                .setUse(List.of(new CodeableConcept().setText(dto.reason())))
-                ));
+            patch.deleteAll("Encounter.reason");
+            if (!dto.reason().isBlank()) {
+                patch.add("Encounter", "reason", "use", new CodeableConcept().setText(dto.reason()));
             }
         }
 
         if (dto.location() != null) {
-            if (dto.location().isBlank()) {
-                resource.setLocation(new ArrayList<>());
-            } else {
-                resource.setLocation(List.of(
-                        new Encounter.EncounterLocationComponent()
-                                .setLocation(new Reference(dto.location()))
-                ));
+            patch.deleteAll("Encounter.location");
+            if (!dto.location().isBlank()) {
+                patch.add("Encounter", "location", "location", new Reference(dto.location()));
             }
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Enumerations.EncounterStatus.fromCode(dto.status()));
+            patch.set("status", new CodeType(Enumerations.EncounterStatus.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractReason(Encounter resource) {
@@ -181,22 +179,9 @@ public class EncounterMapper {
 
             Reference actor = participant.getActor();
 
-            if (actor.getResource() instanceof Practitioner practitioner && practitioner.hasName()) {
-                HumanName name = practitioner.getNameFirstRep();
-                String given = name.hasGiven() && !name.getGiven().isEmpty()
-                        ? name.getGiven().get(0).getValue()
-                        : null;
-                String family = name.hasFamily() ? name.getFamily() : null;
-
-                if (given != null && family != null) {
-                    return given + " " + family;
-                }
-                if (given != null) {
-                    return given;
-                }
-                if (family != null) {
-                    return family;
-                }
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
             }
 
             if (actor.hasDisplay()) {
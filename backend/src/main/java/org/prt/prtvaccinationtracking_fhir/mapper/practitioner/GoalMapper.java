@@ -1,12 +1,15 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.DateType;
 import org.hl7.fhir.r5.model.Goal;
 import org.hl7.fhir.r5.model.Identifier;
+import org.hl7.fhir.r5.model.Parameters;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.CreateGoalRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.GoalDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.UpdateGoalRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -79,22 +82,27 @@ public class GoalMapper {
         return resource;
     }
 
-    public void updateResource(UpdateGoalRequestDTO dto, Goal resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateGoalRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Goal");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.patientId() != null && !dto.patientId().isBlank()) {
-            resource.setSubject(support.toPatientReference(dto.patientId()));
+            patch.set("subject", support.toPatientReference(dto.patientId()));
         }
 
         if (dto.lifecycleStatus() != null && !dto.lifecycleStatus().isBlank()) {
-            resource.setLifecycleStatus(Goal.GoalLifecycleStatus.fromCode(dto.lifecycleStatus()));
+            patch.set("lifecycleStatus", new CodeType(Goal.GoalLifecycleStatus.fromCode(dto.lifecycleStatus()).toCode()));
         }
 
         if (dto.description() != null && !dto.description().isBlank()) {
-            resource.setDescription(new CodeableConcept().setText(dto.description()));
+            patch.set("description", new CodeableConcept().setText(dto.description()));
         }
+
+        return patch.build();
     }
 
     private LocalDate extractTargetDueDate(Goal resource) {
@@ -1,23 +1,27 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Annotation;
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.DateTimeType;
-import org.hl7.fhir.r5.model.HumanName;
 import org.hl7.fhir.r5.model.Immunization;
-import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Reference;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.CreateImmunizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationStatusDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.UpdateImmunizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("practitionerImmunizationMapper")
+@RecordedMapper
 public class ImmunizationMapper {
 
     private final MapperSupport support;
@@ -40,13 +44,43 @@ public class ImmunizationMapper {
                 extractDoseNumber(resource),
                 resource.hasLotNumber() ? resource.getLotNumber() : null,
                 resource.hasSite() ? support.codeableConceptToText(resource.getSite()) : null,
-                resource.hasStatus() ? ImmunizationStatusDTO.fromFhirCode(resource.getStatus().toCode()) : null,
+                resource.getStatus() != null ? ImmunizationStatusDTO.fromFhirCode(resource.getStatus().toCode()) : null,
                 extractPractitionerName(resource),
                 resource.hasEncounter() ? support.referenceToId(resource.getEncounter()) : null,
                 resource.hasReaction() && !resource.getReaction().isEmpty()
         );
     }
 
+    /**
+     * Same projection as {@link #toDTO(Immunization)} read straight from the resource's FHIR JSON, used by the
+     * endpoints listed under {@code fhir.projection.*}.
+     */
+    public ImmunizationDTO toDTO(JsonNode json) {
+        if (json == null || json.isMissingNode()) {
+            return null;
+        }
+
+        JsonNode vaccineCode = json.path("vaccineCode");
+        JsonNode coding = vaccineCode.path("coding").path(0);
+        String display = support.text(coding, "display");
+        String occurrence = support.text(json, "occurrenceDateTime");
+
+        return new ImmunizationDTO(
+                support.text(json, "id"),
+                support.referenceToId(json.get("patient")),
+                support.text(coding, "code"),
+                display != null ? display : support.text(vaccineCode, "text"),
+                occurrence != null ? support.toLocalDate(new DateTimeType(occurrence).getValue()) : null,
+                toDoseNumber(support.text(json.path("protocolApplied").path(0), "doseNumber")),
+                support.text(json, "lotNumber"),
+                support.codeableConceptToText(json.get("site")),
+                ImmunizationStatusDTO.fromFhirCode(support.text(json, "status")),
+                extractPractitionerName(json),
+                support.referenceToId(json.get("encounter")),
+                json.path("reaction").size() > 0
+        );
+    }
+
     public Immunization toResource(CreateImmunizationRequestDTO dto) {
         if (dto == null) {
             return null;
@@ -92,34 +126,38 @@ public class ImmunizationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateImmunizationRequestDTO dto, Immunization resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateImmunizationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Immunization");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.lotNumber() != null) {
-            resource.setLotNumber(dto.lotNumber());
+            patch.set("lotNumber", new StringType(dto.lotNumber()));
         }
 
         if (dto.site() != null) {
             if (dto.site().isBlank()) {
-                resource.setSite(null);
+                patch.delete("Immunization.site");
             } else {
-                resource.setSite(new CodeableConcept().setText(dto.site()));
+                patch.set("site", new CodeableConcept().setText(dto.site()));
             }
         }
 
         if (dto.status() != null) {
-            resource.setStatus(Immunization.ImmunizationStatusCodes.fromCode(dto.status().toFhirCode()));
+            patch.set("status", new CodeType(dto.status().toFhirCode()));
         }
 
         if (dto.notes() != null) {
-            if (dto.notes().isBlank()) {
-                resource.setNote(new ArrayList<>());
-            } else {
-                resource.setNote(List.of(new Annotation().setText(dto.notes())));
+            patch.deleteAll("Immunization.note");
+            if (!dto.notes().isBlank()) {
+                patch.set("note", new Annotation().setText(dto.notes()));
             }
         }
+
+        return patch.build();
     }
 
     private CodeableConcept toVaccineCode(String code, String display) {
@@ -171,7 +209,10 @@ public class ImmunizationMapper {
             return null;
         }
 
-        String doseNumber = resource.getProtocolAppliedFirstRep().getDoseNumber();
+        return toDoseNumber(resource.getProtocolAppliedFirstRep().getDoseNumber());
+    }
+
+    private Integer toDoseNumber(String doseNumber) {
         if (doseNumber == null || doseNumber.isBlank()) {
             return null;
         }
@@ -195,22 +236,9 @@ public class ImmunizationMapper {
 
             Reference actor = performer.getActor();
 
-            if (actor.getResource() instanceof Practitioner practitioner && practitioner.hasName()) {
-                HumanName name = practitioner.getNameFirstRep();
-                String given = name.hasGiven() && !name.getGiven().isEmpty()
-                        ? name.getGiven().get(0).getValue()
-                        : null;
-                String family = name.hasFamily() ? name.getFamily() : null;
-
-                if (given != null && family != null) {
-                    return given + " " + family;
-                }
-                if (given != null) {
-                    return given;
-                }
-                if (family != null) {
-                    return family;
-                }
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
             }
 
             if (actor.hasDisplay()) {
@@ -224,4 +252,28 @@ public class ImmunizationMapper {
 
         return null;
     }
+
+    private String extractPractitionerName(JsonNode json) {
+        for (JsonNode performer : json.path("performer")) {
+            JsonNode actor = performer.get("actor");
+            if (actor == null) {
+                continue;
+            }
+
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
+            }
+
+            if (support.text(actor, "display") != null) {
+                return support.text(actor, "display");
+            }
+
+            if (support.text(actor, "reference") != null) {
+                return support.referenceToId(actor);
+            }
+        }
+
+        return null;
+    }
 }
\ No newline at end of file
@@ -5,12 +5,15 @@ import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.ContactPoint;
 import org.hl7.fhir.r5.model.ExtendedContactDetail;
 import org.hl7.fhir.r5.model.Location;
+import org.hl7.fhir.r5.model.MarkdownType;
+import org.hl7.fhir.r5.model.Parameters;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.CreateLocationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.LocationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.UpdateLocationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("practitionerLocationMapper")
@@ -73,48 +76,49 @@ public class LocationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateLocationRequestDTO dto, Location resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateLocationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Location");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.name() != null) {
-            resource.setName(dto.name());
+            patch.set("name", new StringType(dto.name()));
         }
 
         if (dto.description() != null) {
-            resource.setDescription(dto.description());
+            patch.set("description", new MarkdownType(dto.description()));
         }
 
         if (dto.address() != null) {
             if (dto.address().isBlank()) {
-                resource.setAddress(null);
+                patch.delete("Location.address");
             } else {
-                resource.setAddress(new Address().setText(dto.address()));
+                patch.set("address", new Address().setText(dto.address()));
             }
         }
 
         if (dto.phone() != null) {
-            if (dto.phone().isBlank()) {
-                resource.setContact(new ArrayList<>());
-            } else {
-                resource.setContact(List.of(
-                        new ExtendedContactDetail().setTelecom(List.of(
-                                new ContactPoint()
-                                        .setSystem(ContactPoint.ContactPointSystem.PHONE)
-                                        .setValue(dto.phone())
-                        ))
-                ));
+            patch.deleteAll("Location.contact");
+            if (!dto.phone().isBlank()) {
+                patch.set("contact", new ExtendedContactDetail().setTelecom(List.of(
+                        new ContactPoint()
+                                .setSystem(ContactPoint.ContactPointSystem.PHONE)
+                                .setValue(dto.phone())
+                )));
             }
         }
 
         if (dto.type() != null) {
-            if (dto.type().isBlank()) {
-                resource.setType(new ArrayList<>());
-            } else {
-                resource.setType(List.of(new CodeableConcept().setText(dto.type())));
+            patch.deleteAll("Location.type");
+            if (!dto.type().isBlank()) {
+                patch.set("type", new CodeableConcept().setText(dto.type()));
             }
         }
+
+        return patch.build();
     }
 
     private String extractAddress(Location resource) {
@@ -1,10 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.Communication;
 import org.hl7.fhir.r5.model.DataType;
+import org.hl7.fhir.r5.model.IdType;
+import org.hl7.fhir.r5.model.Practitioner;
 import org.hl7.fhir.r5.model.Reference;
 import org.hl7.fhir.r5.model.StringType;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -16,6 +20,12 @@ import java.util.List;
 @Component("practitionerSupportMapper")
 public class MapperSupport {
 
+    private final PractitionerDirectory practitionerDirectory;
+
+    public MapperSupport(PractitionerDirectory practitionerDirectory) {
+        this.practitionerDirectory = practitionerDirectory;
+    }
+
     public String referenceToId(Reference reference) {
         if (reference == null || !reference.hasReferenceElement()) {
             return null;
@@ -23,6 +33,52 @@ public class MapperSupport {
         return reference.getReferenceElement().getIdPart();
     }
 
+    /**
+     * Display name of the practitioner behind the reference: taken from the resource when it
+     * was included with the search, otherwise looked up in the {@link PractitionerDirectory}.
+     */
+    public String practitionerName(Reference reference) {
+        if (reference == null) {
+            return null;
+        }
+
+        if (reference.getResource() instanceof Practitioner practitioner) {
+            String name = practitionerDirectory.displayName(practitioner);
+            if (name != null) {
+                return name;
+            }
+        }
+
+        return practitionerDirectory.nameOf(reference);
+    }
+
+    /** Text of a primitive field in FHIR JSON, or null when the node or field is absent. */
+    public String text(JsonNode node, String field) {
+        return node == null ? null : text(node.get(field));
+    }
+
+    /** Text of a primitive array item in FHIR JSON, such as {@code name[0].given[0]}. */
+    public String text(JsonNode node, int index) {
+        return node == null ? null : text(node.get(index));
+    }
+
+    /** JSON counterpart of {@link #referenceToId(Reference)}. */
+    public String referenceToId(JsonNode reference) {
+        String value = text(reference, "reference");
+        return value == null ? null : new IdType(value).getIdPart();
+    }
+
+    /** JSON counterpart of {@link #practitionerName(Reference)}; only the directory is consulted. */
+    public String practitionerName(JsonNode reference) {
+        String value = text(reference, "reference");
+        if (value == null) {
+            return null;
+        }
+
+        IdType id = new IdType(value);
+        return "Practitioner".equals(id.getResourceType()) ? practitionerDirectory.nameOf(id.getIdPart()) : null;
+    }
+
     public Reference toPatientReference(String patientId) {
         return buildReference("Patient", patientId);
     }
@@ -105,6 +161,22 @@ public class MapperSupport {
         return null;
     }
 
+    /** JSON counterpart of {@link #codeableConceptToText(CodeableConcept)}. */
+    public String codeableConceptToText(JsonNode concept) {
+        if (concept == null) {
+            return null;
+        }
+
+        JsonNode coding = concept.path("coding").path(0);
+        if (text(concept, "text") != null) {
+            return text(concept, "text");
+        }
+        if (text(coding, "display") != null) {
+            return text(coding, "display");
+        }
+        return text(coding, "code");
+    }
+
     public List<Communication.CommunicationPayloadComponent> toPayload(String message) {
         if (message == null || message.isBlank()) {
             return List.of();
@@ -133,4 +205,11 @@ public class MapperSupport {
 
         return null;
     }
-}
\ No newline at end of file
+
+    private String text(JsonNode value) {
+        if (value == null || value.isNull() || !value.isValueNode() || value.asText().isEmpty()) {
+            return null;
+        }
+        return value.asText();
+    }
+}
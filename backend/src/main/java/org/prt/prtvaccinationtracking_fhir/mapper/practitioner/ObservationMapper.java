@@ -1,13 +1,19 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Coding;
 import org.hl7.fhir.r5.model.DateTimeType;
+import org.hl7.fhir.r5.model.DecimalType;
 import org.hl7.fhir.r5.model.Enumerations;
 import org.hl7.fhir.r5.model.Observation;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Quantity;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.CreateObservationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.ObservationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.UpdateObservationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -16,6 +22,7 @@ import java.time.ZoneId;
 import java.util.Date;
 
 @Component("practitionerObservationMapper")
+@RecordedMapper
 public class ObservationMapper {
 
     private final MapperSupport support;
@@ -39,6 +46,32 @@ public class ObservationMapper {
         );
     }
 
+    /**
+     * Same projection as {@link #toDTO(Observation)} read straight from the resource's FHIR JSON, used by the
+     * endpoints listed under {@code fhir.projection.*}.
+     */
+    public ObservationDTO toDTO(JsonNode json) {
+        if (json == null || json.isMissingNode()) {
+            return null;
+        }
+
+        JsonNode code = json.path("code");
+        JsonNode coding = code.path("coding").path(0);
+        String display = support.text(coding, "display");
+        JsonNode quantity = json.path("valueQuantity");
+        JsonNode value = quantity.get("value");
+        String effective = support.text(json, "effectiveDateTime");
+
+        return new ObservationDTO(
+                support.text(json, "id"),
+                support.text(coding, "code"),
+                display != null ? display : support.text(code, "text"),
+                value != null && value.isNumber() ? value.decimalValue().toPlainString() : null,
+                support.text(quantity, "unit"),
+                effective != null ? toLocalDateTime(new DateTimeType(effective).getValue()) : null
+        );
+    }
+
     public Observation toResource(CreateObservationRequestDTO dto) {
         if (dto == null) {
             return null;
@@ -66,14 +99,39 @@ public class ObservationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateObservationRequestDTO dto, Observation resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateObservationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Observation");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.value() != null || dto.unit() != null) {
-            resource.setValue(updateQuantity(resource.hasValueQuantity() ? resource.getValueQuantity() : null, dto.value(), dto.unit()));
+            // value[x] may hold another type; it is replaced by a Quantity before value and unit are set.
+            String quantity = "Observation.value";
+            patch.deleteWhere(quantity, "($this is Quantity).not()");
+            patch.add("Observation.where(value.empty())", "value", toQuantity(dto.value(), dto.unit()));
+
+            if (dto.value() != null) {
+                DecimalType value = toDecimal(dto.value());
+                if (value == null) {
+                    patch.delete(quantity + ".value");
+                } else {
+                    patch.add(quantity, "value", value);
+                }
+            }
+
+            if (dto.unit() != null) {
+                if (dto.unit().isBlank()) {
+                    patch.delete(quantity + ".unit");
+                } else {
+                    patch.add(quantity, "unit", new StringType(dto.unit()));
+                }
+            }
         }
+
+        return patch.build();
     }
 
     private org.hl7.fhir.r5.model.CodeableConcept toCodeableConcept(String code, String display) {
@@ -108,30 +166,16 @@ public class ObservationMapper {
         return quantity;
     }
 
-    private Quantity updateQuantity(Quantity existing, String value, String unit) {
-        Quantity quantity = existing != null ? existing : new Quantity();
-
-        if (value != null) {
-            if (value.isBlank()) {
-                quantity.setValueElement(null);
-            } else {
-                try {
-                    quantity.setValue(Double.parseDouble(value));
-                } catch (NumberFormatException ignored) {
-                    quantity.setValueElement(null);
-                }
-            }
+    private DecimalType toDecimal(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
         }
 
-        if (unit != null) {
-            if (unit.isBlank()) {
-                quantity.setUnit(null);
-            } else {
-                quantity.setUnit(unit);
-            }
+        try {
+            return new DecimalType(Double.parseDouble(value));
+        } catch (NumberFormatException ignored) {
+            return null;
         }
-
-        return quantity;
     }
 
     private String extractCode(Observation resource) {
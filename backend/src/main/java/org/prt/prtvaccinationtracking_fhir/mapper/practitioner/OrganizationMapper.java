@@ -5,9 +5,12 @@ import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.ContactPoint;
 import org.hl7.fhir.r5.model.ExtendedContactDetail;
 import org.hl7.fhir.r5.model.Organization;
+import org.hl7.fhir.r5.model.Parameters;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.CreateOrganizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.OrganizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.UpdateOrganizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -61,31 +64,49 @@ public class OrganizationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateOrganizationRequestDTO dto, Organization resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateOrganizationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Organization");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.name() != null) {
-            resource.setName(dto.name());
+            patch.set("name", new StringType(dto.name()));
         }
 
         if (dto.phone() != null || dto.email() != null || dto.address() != null) {
-            String currentPhone = extractPhone(resource);
-            String currentEmail = extractEmail(resource);
-            String currentAddress = extractAddress(resource);
-
-            String phone = dto.phone() != null ? dto.phone() : currentPhone;
-            String email = dto.email() != null ? dto.email() : currentEmail;
-            String address = dto.address() != null ? dto.address() : currentAddress;
-
-            if (isBlank(phone) && isBlank(email) && isBlank(address)) {
-                resource.setContact(new ArrayList<>());
-            } else {
-                ExtendedContactDetail contact = buildContact(phone, email, address);
-                resource.setContact(contact == null ? new ArrayList<>() : List.of(contact));
+            patch.ensure("contact");
+
+            if (dto.phone() != null) {
+                patch.deleteWhere("Organization.contact.first().telecom", "system = 'phone'");
+                if (!isBlank(dto.phone())) {
+                    patch.add("Organization.contact.first()", "telecom", new ContactPoint()
+                            .setSystem(ContactPoint.ContactPointSystem.PHONE)
+                            .setValue(dto.phone()));
+                }
+            }
+
+            if (dto.email() != null) {
+                patch.deleteWhere("Organization.contact.first().telecom", "system = 'email'");
+                if (!isBlank(dto.email())) {
+                    patch.add("Organization.contact.first()", "telecom", new ContactPoint()
+                            .setSystem(ContactPoint.ContactPointSystem.EMAIL)
+                            .setValue(dto.email()));
+                }
+            }
+
+            if (dto.address() != null) {
+                if (isBlank(dto.address())) {
+                    patch.delete("Organization.contact.first().address");
+                } else {
+                    patch.add("Organization.contact.first()", "address", new Address().setText(dto.address()));
+                }
             }
         }
+
+        return patch.build();
     }
 
     private ExtendedContactDetail buildContact(String phone, String email, String addressText) {
@@ -156,29 +177,6 @@ public class OrganizationMapper {
         return null;
     }
 
-    private String extractEmail(Organization resource) {
-        if (!resource.hasContact() || resource.getContact().isEmpty()) {
-            return null;
-        }
-
-        for (ExtendedContactDetail contact : resource.getContact()) {
-            if (contact == null || !contact.hasTelecom() || contact.getTelecom().isEmpty()) {
-                continue;
-            }
-
-            for (ContactPoint telecom : contact.getTelecom()) {
-                if (telecom != null
-                        && telecom.hasSystem()
-                        && telecom.getSystem() == ContactPoint.ContactPointSystem.EMAIL
-                        && telecom.hasValue()) {
-                    return telecom.getValue();
-                }
-            }
-        }
-
-        return null;
-    }
-
     private String extractAddress(Organization resource) {
         if (!resource.hasContact() || resource.getContact().isEmpty()) {
             return null;
@@ -1,21 +1,27 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Address;
 import org.hl7.fhir.r5.model.ContactPoint;
+import org.hl7.fhir.r5.model.DateType;
 import org.hl7.fhir.r5.model.Enumerations;
 import org.hl7.fhir.r5.model.HumanName;
 import org.hl7.fhir.r5.model.Identifier;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Patient;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.CreatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.PatientDetailsDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.UpdatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.RelatedPersonDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("practitionerPatientMapper")
+@RecordedMapper
 public class PatientMapper {
 
     private static final String SVNR_SYSTEM = "app:svnr";
@@ -49,6 +55,35 @@ public class PatientMapper {
         );
     }
 
+    /**
+     * Same projection as {@link #toDetailsDTO(Patient)} read straight from the resource's FHIR JSON, used by the
+     * endpoints listed under {@code fhir.projection.*}.
+     */
+    public PatientDetailsDTO toDetailsDTO(JsonNode json) {
+        if (json == null || json.isMissingNode()) {
+            return null;
+        }
+
+        JsonNode name = json.path("name").path(0);
+        String firstName = support.text(name.path("given"), 0);
+        String lastName = support.text(name, "family");
+        String birthDate = support.text(json, "birthDate");
+
+        return new PatientDetailsDTO(
+                support.text(json, "id"),
+                extractSvnr(json),
+                firstName,
+                lastName,
+                buildFullName(firstName, lastName),
+                birthDate != null ? support.toLocalDate(new DateType(birthDate).getValue()) : null,
+                toGender(support.text(json, "gender")),
+                telecom(json, "phone"),
+                telecom(json, "email"),
+                support.text(json.path("address").path(0), "text"),
+                null
+        );
+    }
+
     public Patient toResource(CreatePatientRequestDTO dto) {
         if (dto == null) {
             return null;
@@ -79,58 +114,59 @@ public class PatientMapper {
         return resource;
     }
 
-    public void updateResource(UpdatePatientRequestDTO dto, Patient resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdatePatientRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Patient");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.firstName() != null || dto.lastName() != null) {
-            HumanName name = resource.hasName() ? resource.getNameFirstRep() : new HumanName();
+            patch.ensure("name");
 
             if (dto.firstName() != null) {
-                if (dto.firstName().isBlank()) {
-                    name.setGiven(new ArrayList<>());
-                } else {
-                    name.setGiven(List.of(new org.hl7.fhir.r5.model.StringType(dto.firstName())));
+                patch.deleteAll("Patient.name.first().given");
+                if (!dto.firstName().isBlank()) {
+                    patch.add("Patient.name.first()", "given", new StringType(dto.firstName()));
                 }
             }
 
             if (dto.lastName() != null) {
-                name.setFamily(dto.lastName().isBlank() ? null : dto.lastName());
-            }
-
-            if (resource.hasName()) {
-                resource.getName().set(0, name);
-            } else {
-                resource.setName(List.of(name));
+                if (dto.lastName().isBlank()) {
+                    patch.delete("Patient.name.first().family");
+                } else {
+                    patch.add("Patient.name.first()", "family", new StringType(dto.lastName()));
+                }
             }
         }
 
-        if (dto.phone() != null || dto.email() != null) {
-            List<ContactPoint> telecom = new ArrayList<>();
-
-            if (dto.phone() != null && !dto.phone().isBlank()) {
-                telecom.add(new ContactPoint()
+        if (dto.phone() != null) {
+            patch.deleteWhere("Patient.telecom", "system = 'phone'");
+            if (!dto.phone().isBlank()) {
+                patch.add("Patient", "telecom", new ContactPoint()
                         .setSystem(ContactPoint.ContactPointSystem.PHONE)
                         .setValue(dto.phone()));
             }
+        }
 
-            if (dto.email() != null && !dto.email().isBlank()) {
-                telecom.add(new ContactPoint()
+        if (dto.email() != null) {
+            patch.deleteWhere("Patient.telecom", "system = 'email'");
+            if (!dto.email().isBlank()) {
+                patch.add("Patient", "telecom", new ContactPoint()
                         .setSystem(ContactPoint.ContactPointSystem.EMAIL)
                         .setValue(dto.email()));
             }
-
-            resource.setTelecom(telecom);
         }
 
         if (dto.address() != null) {
-            if (dto.address().isBlank()) {
-                resource.setAddress(new ArrayList<>());
-            } else {
-                resource.setAddress(List.of(new Address().setText(dto.address())));
+            patch.deleteAll("Patient.address");
+            if (!dto.address().isBlank()) {
+                patch.set("address", new Address().setText(dto.address()));
             }
         }
+
+        return patch.build();
     }
 
     private HumanName buildHumanName(String firstName, String lastName) {
@@ -165,6 +201,22 @@ public class PatientMapper {
         return null;
     }
 
+    private String extractSvnr(JsonNode json) {
+        for (JsonNode identifier : json.path("identifier")) {
+            String value = support.text(identifier, "value");
+            if (value == null) {
+                continue;
+            }
+
+            String system = support.text(identifier, "system");
+            if (system == null || SVNR_SYSTEM.equals(system)) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
     private String extractFirstName(Patient resource) {
         if (!resource.hasName()) {
             return null;
@@ -201,7 +253,7 @@ public class PatientMapper {
     }
 
     private CreatePatientRequestDTO.Gender extractGender(Patient resource) {
-        if (!resource.hasGender()) {
+        if (resource.getGender() == null) {
             return null;
         }
 
@@ -214,6 +266,20 @@ public class PatientMapper {
         };
     }
 
+    private CreatePatientRequestDTO.Gender toGender(String code) {
+        if (code == null) {
+            return null;
+        }
+
+        return switch (code) {
+            case "male" -> CreatePatientRequestDTO.Gender.male;
+            case "female" -> CreatePatientRequestDTO.Gender.female;
+            case "other" -> CreatePatientRequestDTO.Gender.other;
+            case "unknown" -> CreatePatientRequestDTO.Gender.unknown;
+            default -> null;
+        };
+    }
+
     private Enumerations.AdministrativeGender toAdministrativeGender(CreatePatientRequestDTO.Gender gender) {
         return switch (gender) {
             case male -> Enumerations.AdministrativeGender.MALE;
@@ -257,6 +323,16 @@ public class PatientMapper {
         return null;
     }
 
+    private String telecom(JsonNode json, String system) {
+        for (JsonNode telecom : json.path("telecom")) {
+            if (system.equals(support.text(telecom, "system")) && support.text(telecom, "value") != null) {
+                return support.text(telecom, "value");
+            }
+        }
+
+        return null;
+    }
+
     private String extractAddress(Patient resource) {
         if (!resource.hasAddress() || resource.getAddress().isEmpty()) {
             return null;
@@ -4,11 +4,14 @@ import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.ContactPoint;
 import org.hl7.fhir.r5.model.HumanName;
 import org.hl7.fhir.r5.model.Identifier;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Practitioner;
 import org.hl7.fhir.r5.model.Reference;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.CreatePractitionerRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.PractitionerDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.UpdatePractitionerRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -89,62 +92,73 @@ public class PractitionerMapper {
         return resource;
     }
 
-    public void updateResource(UpdatePractitionerRequestDTO dto, Practitioner resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdatePractitionerRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Practitioner");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.firstName() != null || dto.lastName() != null) {
-            HumanName name = resource.hasName() ? resource.getNameFirstRep() : new HumanName();
+            patch.ensure("name");
 
             if (dto.firstName() != null) {
-                if (dto.firstName().isBlank()) {
-                    name.setGiven(new ArrayList<>());
-                } else {
-                    name.setGiven(List.of(new org.hl7.fhir.r5.model.StringType(dto.firstName())));
+                patch.deleteAll("Practitioner.name.first().given");
+                if (!dto.firstName().isBlank()) {
+                    patch.add("Practitioner.name.first()", "given", new StringType(dto.firstName()));
                 }
             }
 
             if (dto.lastName() != null) {
-                name.setFamily(dto.lastName().isBlank() ? null : dto.lastName());
-            }
-
-            if (resource.hasName()) {
-                resource.getName().set(0, name);
-            } else {
-                resource.setName(List.of(name));
+                if (dto.lastName().isBlank()) {
+                    patch.delete("Practitioner.name.first().family");
+                } else {
+                    patch.add("Practitioner.name.first()", "family", new StringType(dto.lastName()));
+                }
             }
         }
 
         if (dto.specialization() != null) {
-            if (dto.specialization().isBlank()) {
-                resource.setQualification(new ArrayList<>());
-            } else {
-                resource.setQualification(List.of(
-                        new Practitioner.PractitionerQualificationComponent()
-                                .setCode(new CodeableConcept().addCoding(
-                                        new org.hl7.fhir.r5.model.Coding()
-                                                .setSystem(SPECIALIZATION_SYSTEM)
-                                                .setCode(dto.specialization())
-                                                .setDisplay(dto.specialization())
-                                ).setText(dto.specialization()))
-                ));
+            patch.deleteAll("Practitioner.qualification");
+            if (!dto.specialization().isBlank()) {
+                patch.add("Practitioner", "qualification", "code", new CodeableConcept().addCoding(
+                        new org.hl7.fhir.r5.model.Coding()
+                                .setSystem(SPECIALIZATION_SYSTEM)
+                                .setCode(dto.specialization())
+                                .setDisplay(dto.specialization())
+                ).setText(dto.specialization()));
             }
         }
 
-        if (dto.phone() != null || dto.email() != null) {
-            String currentPhone = extractPhone(resource);
-            String currentEmail = extractEmail(resource);
-
-            String phone = dto.phone() != null ? dto.phone() : currentPhone;
-            String email = dto.email() != null ? dto.email() : currentEmail;
+        if (dto.phone() != null) {
+            patch.deleteWhere("Practitioner.telecom", "system = 'phone'");
+            if (!dto.phone().isBlank()) {
+                patch.add("Practitioner", "telecom", new ContactPoint()
+                        .setSystem(ContactPoint.ContactPointSystem.PHONE)
+                        .setValue(dto.phone()));
+            }
+        }
 
-            resource.setTelecom(buildTelecom(phone, email));
+        if (dto.email() != null) {
+            patch.deleteWhere("Practitioner.telecom", "system = 'email'");
+            if (!dto.email().isBlank()) {
+                patch.add("Practitioner", "telecom", new ContactPoint()
+                        .setSystem(ContactPoint.ContactPointSystem.EMAIL)
+                        .setValue(dto.email()));
+            }
         }
 
         if (dto.organizationId() != null) {
-            upsertOrganizationIdentifier(resource, dto.organizationId());
+            patch.deleteWhere("Practitioner.identifier", "system = '" + ORGANIZATION_SYSTEM + "'");
+            if (!dto.organizationId().isBlank()) {
+                patch.set("identifier", new Identifier()
+                        .setSystem(ORGANIZATION_SYSTEM)
+                        .setValue(dto.organizationId()));
+            }
         }
+
+        return patch.build();
     }
 
     private HumanName buildHumanName(String firstName, String lastName) {
@@ -236,54 +250,4 @@ public class PractitionerMapper {
         return null;
     }
 
-    private String extractPhone(Practitioner resource) {
-        if (!resource.hasTelecom() || resource.getTelecom().isEmpty()) {
-            return null;
-        }
-
-        for (ContactPoint telecom : resource.getTelecom()) {
-            if (telecom != null
-                    && telecom.hasSystem()
-                    && telecom.getSystem() == ContactPoint.ContactPointSystem.PHONE
-                    && telecom.hasValue()) {
-                return telecom.getValue();
-            }
-        }
-
-        return null;
-    }
-
-    private String extractEmail(Practitioner resource) {
-        if (!resource.hasTelecom() || resource.getTelecom().isEmpty()) {
-            return null;
-        }
-
-        for (ContactPoint telecom : resource.getTelecom()) {
-            if (telecom != null
-                    && telecom.hasSystem()
-                    && telecom.getSystem() == ContactPoint.ContactPointSystem.EMAIL
-                    && telecom.hasValue()) {
-                return telecom.getValue();
-            }
-        }
-
-        return null;
-    }
-
-    private void upsertOrganizationIdentifier(Practitioner resource, String organizationId) {
-        List<Identifier> identifiers = resource.hasIdentifier()
-                ? new ArrayList<>(resource.getIdentifier())
-                : new ArrayList<>();
-
-        identifiers.removeIf(identifier ->
-                identifier != null && identifier.hasSystem() && ORGANIZATION_SYSTEM.equals(identifier.getSystem()));
-
-        if (organizationId != null && !organizationId.isBlank()) {
-            identifiers.add(new Identifier()
-                    .setSystem(ORGANIZATION_SYSTEM)
-                    .setValue(organizationId));
-        }
-
-        resource.setIdentifier(identifiers);
-    }
 }
\ No newline at end of file
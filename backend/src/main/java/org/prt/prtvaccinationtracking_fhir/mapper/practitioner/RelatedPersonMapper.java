@@ -4,10 +4,12 @@ import org.hl7.fhir.r5.model.Address;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.ContactPoint;
 import org.hl7.fhir.r5.model.HumanName;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.RelatedPerson;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.CreateRelatedPersonRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.RelatedPersonDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.UpdateRelatedPersonRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -67,28 +69,40 @@ public class RelatedPersonMapper {
         return resource;
     }
 
-    public void updateResource(UpdateRelatedPersonRequestDTO dto, RelatedPerson resource) {
-        if (dto == null || resource == null) {
-            return;
-        }
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateRelatedPersonRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("RelatedPerson");
 
-        if (dto.phone() != null || dto.email() != null) {
-            String currentPhone = extractPhone(resource);
-            String currentEmail = extractEmail(resource);
+        if (dto == null) {
+            return patch.build();
+        }
 
-            String phone = dto.phone() != null ? dto.phone() : currentPhone;
-            String email = dto.email() != null ? dto.email() : currentEmail;
+        if (dto.phone() != null) {
+            patch.deleteWhere("RelatedPerson.telecom", "system = 'phone'");
+            if (!dto.phone().isBlank()) {
+                patch.add("RelatedPerson", "telecom", new ContactPoint()
+                        .setSystem(ContactPoint.ContactPointSystem.PHONE)
+                        .setValue(dto.phone()));
+            }
+        }
 
-            resource.setTelecom(buildTelecom(phone, email));
+        if (dto.email() != null) {
+            patch.deleteWhere("RelatedPerson.telecom", "system = 'email'");
+            if (!dto.email().isBlank()) {
+                patch.add("RelatedPerson", "telecom", new ContactPoint()
+                        .setSystem(ContactPoint.ContactPointSystem.EMAIL)
+                        .setValue(dto.email()));
+            }
         }
 
         if (dto.address() != null) {
-            if (dto.address().isBlank()) {
-                resource.setAddress(new ArrayList<>());
-            } else {
-                resource.setAddress(List.of(new Address().setText(dto.address())));
+            patch.deleteAll("RelatedPerson.address");
+            if (!dto.address().isBlank()) {
+                patch.set("address", new Address().setText(dto.address()));
             }
         }
+
+        return patch.build();
     }
 
     private HumanName buildHumanName(String firstName, String lastName) {
@@ -1,12 +1,15 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.AllergyIntolerance;
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.Coding;
 import org.hl7.fhir.r5.model.Enumeration;
+import org.hl7.fhir.r5.model.Parameters;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.allergyIntolerance.AllergyIntoleranceDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.allergyIntolerance.CreateAllergyIntoleranceRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.allergyIntolerance.UpdateAllergyIntoleranceRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -86,18 +89,23 @@ public class AllergyIntoleranceMapper {
         return resource;
     }
 
-    public void updateResource(UpdateAllergyIntoleranceRequestDTO dto, AllergyIntolerance resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateAllergyIntoleranceRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("AllergyIntolerance");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.clinicalStatus() != null) {
-            resource.setClinicalStatus(toClinicalStatusConcept(dto.clinicalStatus()));
+            patch.set("clinicalStatus", toClinicalStatusConcept(dto.clinicalStatus()));
         }
 
         if (dto.criticality() != null) {
-            resource.setCriticality(toFhirCriticality(dto.criticality()));
+            patch.set("criticality", new CodeType(toFhirCriticality(dto.criticality()).toCode()));
         }
+
+        return patch.build();
     }
 
     private AllergyIntoleranceDTO.AllergyClinicalStatus mapClinicalStatus(CodeableConcept concept) {
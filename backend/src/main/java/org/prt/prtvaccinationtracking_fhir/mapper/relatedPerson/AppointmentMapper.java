@@ -2,14 +2,17 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.Appointment;
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.CodeableReference;
-import org.hl7.fhir.r5.model.HumanName;
-import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.InstantType;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Reference;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.appointment.AppointmentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.appointment.CreateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.appointment.UpdateAppointmentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -19,6 +22,7 @@ import java.util.Date;
 import java.util.List;
 
 @Component("relatedpersonAppointmentMapper")
+@RecordedMapper
 public class AppointmentMapper {
 
     private final MapperSupport support;
@@ -77,22 +81,27 @@ public class AppointmentMapper {
         return resource;
     }
 
-    public void updateResource(UpdateAppointmentRequestDTO dto, Appointment resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateAppointmentRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Appointment");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.start() != null) {
-            resource.setStart(toDate(dto.start()));
+            patch.set("start", new InstantType(toDate(dto.start())));
         }
 
         if (dto.end() != null) {
-            resource.setEnd(toDate(dto.end()));
+            patch.set("end", new InstantType(toDate(dto.end())));
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Appointment.AppointmentStatus.fromCode(dto.status()));
+            patch.set("status", new CodeType(Appointment.AppointmentStatus.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractReason(Appointment resource) {
@@ -147,22 +156,9 @@ public class AppointmentMapper {
                 continue;
             }
 
-            if (actor.getResource() instanceof Practitioner practitioner && practitioner.hasName()) {
-                HumanName name = practitioner.getNameFirstRep();
-                String given = name.hasGiven() && !name.getGiven().isEmpty()
-                        ? name.getGiven().get(0).getValue()
-                        : null;
-                String family = name.hasFamily() ? name.getFamily() : null;
-
-                if (given != null && family != null) {
-                    return given + " " + family;
-                }
-                if (given != null) {
-                    return given;
-                }
-                if (family != null) {
-                    return family;
-                }
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
             }
 
             return support.referenceToId(actor);
@@ -1,9 +1,12 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.*;
+import org.hl7.fhir.r5.model.CodeType;
+import org.hl7.fhir.r5.model.Parameters;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.communication.CommunicationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.communication.CreateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.communication.UpdateCommunicationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -77,14 +80,19 @@ public class CommunicationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateCommunicationRequestDTO dto, Communication resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateCommunicationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Communication");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Enumerations.EventStatus.fromCode(dto.status()));
+            patch.set("status", new CodeType(Enumerations.EventStatus.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractPatientId(Communication resource) {
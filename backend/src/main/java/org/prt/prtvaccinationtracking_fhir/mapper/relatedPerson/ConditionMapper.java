@@ -1,13 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.*;
+import org.hl7.fhir.r5.model.Parameters;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.condition.ConditionDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.condition.CreateConditionRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.condition.UpdateConditionRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("relatedpersonConditionMapper")
@@ -73,34 +74,38 @@ public class ConditionMapper {
         return resource;
     }
 
-    public void updateResource(UpdateConditionRequestDTO dto, Condition resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateConditionRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Condition");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.clinicalStatus() != null) {
             if (dto.clinicalStatus().isBlank()) {
-                resource.setClinicalStatus(null);
+                patch.delete("Condition.clinicalStatus");
             } else {
-                resource.setClinicalStatus(toClinicalStatus(dto.clinicalStatus()));
+                patch.set("clinicalStatus", toClinicalStatus(dto.clinicalStatus()));
             }
         }
 
         if (dto.verificationStatus() != null) {
             if (dto.verificationStatus().isBlank()) {
-                resource.setVerificationStatus(null);
+                patch.delete("Condition.verificationStatus");
             } else {
-                resource.setVerificationStatus(toVerificationStatus(dto.verificationStatus()));
+                patch.set("verificationStatus", toVerificationStatus(dto.verificationStatus()));
             }
         }
 
         if (dto.notes() != null) {
-            if (dto.notes().isBlank()) {
-                resource.setNote(new ArrayList<>());
-            } else {
-                resource.setNote(List.of(new Annotation().setText(dto.notes())));
+            patch.deleteAll("Condition.note");
+            if (!dto.notes().isBlank()) {
+                patch.set("note", new Annotation().setText(dto.notes()));
             }
         }
+
+        return patch.build();
     }
 
     private String extractCode(Condition resource) {
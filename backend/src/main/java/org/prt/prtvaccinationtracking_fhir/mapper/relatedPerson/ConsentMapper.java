@@ -1,11 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.Consent;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Reference;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.consent.ConsentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.consent.CreateConsentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.consent.UpdateConsentRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -65,14 +68,19 @@ public class ConsentMapper {
         return resource;
     }
 
-    public void updateResource(UpdateConsentRequestDTO dto, Consent resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateConsentRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Consent");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.status() != null && !dto.status().isBlank()) {
-            resource.setStatus(Consent.ConsentState.fromCode(dto.status()));
+            patch.set("status", new CodeType(Consent.ConsentState.fromCode(dto.status()).toCode()));
         }
+
+        return patch.build();
     }
 
     private String extractRelatedPersonId(Consent resource) {
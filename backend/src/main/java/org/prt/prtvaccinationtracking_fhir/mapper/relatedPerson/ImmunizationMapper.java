@@ -2,23 +2,26 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.Annotation;
+import org.hl7.fhir.r5.model.CodeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.DateTimeType;
-import org.hl7.fhir.r5.model.HumanName;
 import org.hl7.fhir.r5.model.Immunization;
-import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Reference;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.CreateImmunizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.ImmunizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.ImmunizationStatusDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.UpdateImmunizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("relatedpersonImmunizationMapper")
+@RecordedMapper
 public class ImmunizationMapper {
 
     private final MapperSupport support;
@@ -93,34 +96,38 @@ public class ImmunizationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateImmunizationRequestDTO dto, Immunization resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateImmunizationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Immunization");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.lotNumber() != null) {
-            resource.setLotNumber(dto.lotNumber());
+            patch.set("lotNumber", new StringType(dto.lotNumber()));
         }
 
         if (dto.site() != null) {
             if (dto.site().isBlank()) {
-                resource.setSite(null);
+                patch.delete("Immunization.site");
             } else {
-                resource.setSite(new CodeableConcept().setText(dto.site()));
+                patch.set("site", new CodeableConcept().setText(dto.site()));
             }
         }
 
         if (dto.status() != null) {
-            resource.setStatus(Immunization.ImmunizationStatusCodes.fromCode(dto.status().toFhirCode()));
+            patch.set("status", new CodeType(dto.status().toFhirCode()));
         }
 
         if (dto.notes() != null) {
-            if (dto.notes().isBlank()) {
-                resource.setNote(new ArrayList<>());
-            } else {
-                resource.setNote(List.of(new Annotation().setText(dto.notes())));
+            patch.deleteAll("Immunization.note");
+            if (!dto.notes().isBlank()) {
+                patch.set("note", new Annotation().setText(dto.notes()));
             }
         }
+
+        return patch.build();
     }
 
     private CodeableConcept toVaccineCode(String code, String display) {
@@ -196,22 +203,9 @@ public class ImmunizationMapper {
 
             Reference actor = performer.getActor();
 
-            if (actor.getResource() instanceof Practitioner practitioner && practitioner.hasName()) {
-                HumanName name = practitioner.getNameFirstRep();
-                String given = name.hasGiven() && !name.getGiven().isEmpty()
-                        ? name.getGiven().get(0).getValue()
-                        : null;
-                String family = name.hasFamily() ? name.getFamily() : null;
-
-                if (given != null && family != null) {
-                    return given + " " + family;
-                }
-                if (given != null) {
-                    return given;
-                }
-                if (family != null) {
-                    return family;
-                }
+            String name = support.practitionerName(actor);
+            if (name != null) {
+                return name;
             }
 
             if (actor.hasDisplay()) {
@@ -1,6 +1,7 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.*;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -12,6 +13,12 @@ import java.util.List;
 @Component("relatedpersonSupportMapper")
 public class MapperSupport {
 
+    private final PractitionerDirectory practitionerDirectory;
+
+    public MapperSupport(PractitionerDirectory practitionerDirectory) {
+        this.practitionerDirectory = practitionerDirectory;
+    }
+
     public String referenceToId(Reference reference) {
         if (reference == null || !reference.hasReferenceElement()) {
             return null;
@@ -19,6 +26,25 @@ public class MapperSupport {
         return reference.getReferenceElement().getIdPart();
     }
 
+    /**
+     * Display name of the practitioner behind the reference: taken from the resource when it
+     * was included with the search, otherwise looked up in the {@link PractitionerDirectory}.
+     */
+    public String practitionerName(Reference reference) {
+        if (reference == null) {
+            return null;
+        }
+
+        if (reference.getResource() instanceof Practitioner practitioner) {
+            String name = practitionerDirectory.displayName(practitioner);
+            if (name != null) {
+                return name;
+            }
+        }
+
+        return practitionerDirectory.nameOf(reference);
+    }
+
     public Reference toPatientReference(String patientId) {
         return buildReference("Patient", patientId);
     }
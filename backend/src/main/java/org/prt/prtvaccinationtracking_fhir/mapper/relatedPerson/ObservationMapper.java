@@ -1,9 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.*;
+import org.hl7.fhir.r5.model.DecimalType;
+import org.hl7.fhir.r5.model.Parameters;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.observation.CreateObservationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.observation.ObservationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.observation.UpdateObservationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -12,6 +17,7 @@ import java.time.ZoneId;
 import java.util.Date;
 
 @Component("relatedpersonObservationMapper")
+@RecordedMapper
 public class ObservationMapper {
 
     private final MapperSupport support;
@@ -62,14 +68,39 @@ public class ObservationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateObservationRequestDTO dto, Observation resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateObservationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Observation");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.value() != null || dto.unit() != null) {
-            resource.setValue(updateQuantity(resource.hasValueQuantity() ? resource.getValueQuantity() : null, dto.value(), dto.unit()));
+            // value[x] may hold another type; it is replaced by a Quantity before value and unit are set.
+            String quantity = "Observation.value";
+            patch.deleteWhere(quantity, "($this is Quantity).not()");
+            patch.add("Observation.where(value.empty())", "value", toQuantity(dto.value(), dto.unit()));
+
+            if (dto.value() != null) {
+                DecimalType value = toDecimal(dto.value());
+                if (value == null) {
+                    patch.delete(quantity + ".value");
+                } else {
+                    patch.add(quantity, "value", value);
+                }
+            }
+
+            if (dto.unit() != null) {
+                if (dto.unit().isBlank()) {
+                    patch.delete(quantity + ".unit");
+                } else {
+                    patch.add(quantity, "unit", new StringType(dto.unit()));
+                }
+            }
         }
+
+        return patch.build();
     }
 
     private org.hl7.fhir.r5.model.CodeableConcept toCodeableConcept(String code, String display) {
@@ -104,30 +135,16 @@ public class ObservationMapper {
         return quantity;
     }
 
-    private Quantity updateQuantity(Quantity existing, String value, String unit) {
-        Quantity quantity = existing != null ? existing : new Quantity();
-
-        if (value != null) {
-            if (value.isBlank()) {
-                quantity.setValueElement(null);
-            } else {
-                try {
-                    quantity.setValue(Double.parseDouble(value));
-                } catch (NumberFormatException ignored) {
-                    quantity.setValueElement(null);
-                }
-            }
+    private DecimalType toDecimal(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
         }
 
-        if (unit != null) {
-            if (unit.isBlank()) {
-                quantity.setUnit(null);
-            } else {
-                quantity.setUnit(unit);
-            }
+        try {
+            return new DecimalType(Double.parseDouble(value));
+        } catch (NumberFormatException ignored) {
+            return null;
         }
-
-        return quantity;
     }
 
     private String extractCode(Observation resource) {
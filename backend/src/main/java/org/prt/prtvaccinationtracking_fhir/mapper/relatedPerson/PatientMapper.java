@@ -2,16 +2,20 @@
 package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.*;
+import org.hl7.fhir.r5.model.Parameters;
+import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.patient.CreatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.patient.PatientDetailsDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.patient.UpdatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.relatedPerson.RelatedPersonDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
+import org.prt.prtvaccinationtracking_fhir.jfr.RecordedMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component("relatedpersonPatientMapper")
+@RecordedMapper
 public class PatientMapper {
 
     private static final String SVNR_SYSTEM = "app:svnr";
@@ -75,58 +79,59 @@ public class PatientMapper {
         return resource;
     }
 
-    public void updateResource(UpdatePatientRequestDTO dto, Patient resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdatePatientRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Patient");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.firstName() != null || dto.lastName() != null) {
-            HumanName name = resource.hasName() ? resource.getNameFirstRep() : new HumanName();
+            patch.ensure("name");
 
             if (dto.firstName() != null) {
-                if (dto.firstName().isBlank()) {
-                    name.setGiven(new ArrayList<>());
-                } else {
-                    name.setGiven(List.of(new org.hl7.fhir.r5.model.StringType(dto.firstName())));
+                patch.deleteAll("Patient.name.first().given");
+                if (!dto.firstName().isBlank()) {
+                    patch.add("Patient.name.first()", "given", new StringType(dto.firstName()));
                 }
             }
 
             if (dto.lastName() != null) {
-                name.setFamily(dto.lastName().isBlank() ? null : dto.lastName());
-            }
-
-            if (resource.hasName()) {
-                resource.getName().set(0, name);
-            } else {
-                resource.setName(List.of(name));
+                if (dto.lastName().isBlank()) {
+                    patch.delete("Patient.name.first().family");
+                } else {
+                    patch.add("Patient.name.first()", "family", new StringType(dto.lastName()));
+                }
             }
         }
 
-        if (dto.phone() != null || dto.email() != null) {
-            List<ContactPoint> telecom = new ArrayList<>();
-
-            if (dto.phone() != null && !dto.phone().isBlank()) {
-                telecom.add(new ContactPoint()
+        if (dto.phone() != null) {
+            patch.deleteWhere("Patient.telecom", "system = 'phone'");
+            if (!dto.phone().isBlank()) {
+                patch.add("Patient", "telecom", new ContactPoint()
                         .setSystem(ContactPoint.ContactPointSystem.PHONE)
                         .setValue(dto.phone()));
             }
+        }
 
-            if (dto.email() != null && !dto.email().isBlank()) {
-                telecom.add(new ContactPoint()
+        if (dto.email() != null) {
+            patch.deleteWhere("Patient.telecom", "system = 'email'");
+            if (!dto.email().isBlank()) {
+                patch.add("Patient", "telecom", new ContactPoint()
                         .setSystem(ContactPoint.ContactPointSystem.EMAIL)
                         .setValue(dto.email()));
             }
-
-            resource.setTelecom(telecom);
         }
 
         if (dto.address() != null) {
-            if (dto.address().isBlank()) {
-                resource.setAddress(new ArrayList<>());
-            } else {
-                resource.setAddress(List.of(new Address().setText(dto.address())));
+            patch.deleteAll("Patient.address");
+            if (!dto.address().isBlank()) {
+                patch.set("address", new Address().setText(dto.address()));
             }
         }
+
+        return patch.build();
     }
 
     private HumanName buildHumanName(String firstName, String lastName) {
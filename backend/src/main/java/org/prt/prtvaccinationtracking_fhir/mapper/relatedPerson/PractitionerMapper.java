@@ -6,11 +6,13 @@ import org.hl7.fhir.r5.model.Coding;
 import org.hl7.fhir.r5.model.ContactPoint;
 import org.hl7.fhir.r5.model.HumanName;
 import org.hl7.fhir.r5.model.Identifier;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Practitioner;
 import org.hl7.fhir.r5.model.StringType;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.practitioner.CreatePractitionerRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.practitioner.PractitionerDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.practitioner.UpdatePractitionerRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -85,54 +87,73 @@ public class PractitionerMapper {
         return resource;
     }
 
-    public void updateResource(UpdatePractitionerRequestDTO dto, Practitioner resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdatePractitionerRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("Practitioner");
+
+        if (dto == null) {
+            return patch.build();
         }
 
         if (dto.firstName() != null || dto.lastName() != null) {
-            HumanName name = resource.hasName() ? resource.getNameFirstRep() : new HumanName();
+            patch.ensure("name");
 
             if (dto.firstName() != null) {
-                if (dto.firstName().isBlank()) {
-                    name.setGiven(new ArrayList<>());
-                } else {
-                    name.setGiven(List.of(new StringType(dto.firstName())));
+                patch.deleteAll("Practitioner.name.first().given");
+                if (!dto.firstName().isBlank()) {
+                    patch.add("Practitioner.name.first()", "given", new StringType(dto.firstName()));
                 }
             }
 
             if (dto.lastName() != null) {
-                name.setFamily(dto.lastName().isBlank() ? null : dto.lastName());
+                if (dto.lastName().isBlank()) {
+                    patch.delete("Practitioner.name.first().family");
+                } else {
+                    patch.add("Practitioner.name.first()", "family", new StringType(dto.lastName()));
+                }
             }
+        }
 
-            if (resource.hasName()) {
-                resource.getName().set(0, name);
-            } else {
-                resource.setName(List.of(name));
+        if (dto.specialization() != null) {
+            patch.deleteAll("Practitioner.qualification");
+            if (!dto.specialization().isBlank()) {
+                patch.add("Practitioner", "qualification", "code", new CodeableConcept().addCoding(
+                        new org.hl7.fhir.r5.model.Coding()
+                                .setSystem(SPECIALIZATION_SYSTEM)
+                                .setCode(dto.specialization())
+                                .setDisplay(dto.specialization())
+                ).setText(dto.specialization()));
             }
         }
 
-        if (dto.organizationId() != null) {
-            updateIdentifier(resource, ORGANIZATION_SYSTEM, dto.organizationId());
+        if (dto.phone() != null) {
+            patch.deleteWhere("Practitioner.telecom", "system = 'phone'");
+            if (!dto.phone().isBlank()) {
+                patch.add("Practitioner", "telecom", new ContactPoint()
+                        .setSystem(ContactPoint.ContactPointSystem.PHONE)
+                        .setValue(dto.phone()));
+            }
         }
 
-        if (dto.specialization() != null) {
-            if (dto.specialization().isBlank()) {
-                resource.setQualification(new ArrayList<>());
-            } else {
-                resource.setQualification(List.of(
-                        new Practitioner.PractitionerQualificationComponent()
-                                .setCode(new CodeableConcept()
-                                        .addCoding(new Coding()
-                                                .setSystem(SPECIALIZATION_SYSTEM)
-                                                .setCode(dto.specialization())
-                                                .setDisplay(dto.specialization()))
-                                        .setText(dto.specialization()))
-                ));
+        if (dto.email() != null) {
+            patch.deleteWhere("Practitioner.telecom", "system = 'email'");
+            if (!dto.email().isBlank()) {
+                patch.add("Practitioner", "telecom", new ContactPoint()
+                        .setSystem(ContactPoint.ContactPointSystem.EMAIL)
+                        .setValue(dto.email()));
             }
         }
 
-        updateTelecom(resource, dto.phone(), dto.email());
+        if (dto.organizationId() != null) {
+            patch.deleteWhere("Practitioner.identifier", "system = '" + ORGANIZATION_SYSTEM + "'");
+            if (!dto.organizationId().isBlank()) {
+                patch.set("identifier", new Identifier()
+                        .setSystem(ORGANIZATION_SYSTEM)
+                        .setValue(dto.organizationId()));
+            }
+        }
+
+        return patch.build();
     }
 
     private String extractFullName(Practitioner resource) {
@@ -228,51 +249,4 @@ public class PractitionerMapper {
         return telecom;
     }
 
-    private void updateTelecom(Practitioner resource, String phone, String email) {
-        List<ContactPoint> telecom = new ArrayList<>();
-
-        if (phone != null) {
-            if (!phone.isBlank()) {
-                telecom.add(new ContactPoint()
-                        .setSystem(ContactPoint.ContactPointSystem.PHONE)
-                        .setValue(phone));
-            }
-        } else {
-            resource.getTelecom().stream()
-                    .filter(cp -> cp.getSystem() == ContactPoint.ContactPointSystem.PHONE)
-                    .findFirst()
-                    .ifPresent(telecom::add);
-        }
-
-        if (email != null) {
-            if (!email.isBlank()) {
-                telecom.add(new ContactPoint()
-                        .setSystem(ContactPoint.ContactPointSystem.EMAIL)
-                        .setValue(email));
-            }
-        } else {
-            resource.getTelecom().stream()
-                    .filter(cp -> cp.getSystem() == ContactPoint.ContactPointSystem.EMAIL)
-                    .findFirst()
-                    .ifPresent(telecom::add);
-        }
-
-        resource.setTelecom(telecom);
-    }
-
-    private void updateIdentifier(Practitioner resource, String system, String value) {
-        List<Identifier> identifiers = new ArrayList<>(
-                resource.hasIdentifier() ? resource.getIdentifier() : List.of()
-        );
-
-        identifiers.removeIf(identifier -> system.equals(identifier.getSystem()));
-
-        if (value != null && !value.isBlank()) {
-            identifiers.add(new Identifier()
-                    .setSystem(system)
-                    .setValue(value));
-        }
-
-        resource.setIdentifier(identifiers);
-    }
 }
\ No newline at end of file
@@ -2,11 +2,14 @@ package org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson;
 
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.Coding;
+import org.hl7.fhir.r5.model.DateTimeType;
 import org.hl7.fhir.r5.model.ImmunizationRecommendation;
+import org.hl7.fhir.r5.model.Parameters;
 import org.hl7.fhir.r5.model.Reference;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.recommendation.CreateImmunizationRecommendationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.recommendation.ImmunizationRecommendationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.recommendation.UpdateImmunizationRecommendationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPatchBuilder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -74,36 +77,34 @@ public class RecommendationMapper {
         return resource;
     }
 
-    public void updateResource(UpdateImmunizationRecommendationRequestDTO dto, ImmunizationRecommendation resource) {
-        if (dto == null || resource == null) {
-            return;
+    /** Turns the fields set in {@code dto} into a FHIRPath Patch; null fields are left unchanged. */
+    public Parameters toPatch(UpdateImmunizationRecommendationRequestDTO dto) {
+        FhirPatchBuilder patch = new FhirPatchBuilder("ImmunizationRecommendation");
+
+        if (dto == null) {
+            return patch.build();
         }
 
-        ImmunizationRecommendation.ImmunizationRecommendationRecommendationComponent recommendation =
-                resource.hasRecommendation()
-                        ? resource.getRecommendationFirstRep()
-                        : new ImmunizationRecommendation.ImmunizationRecommendationRecommendationComponent();
+        String recommendation = "ImmunizationRecommendation.recommendation.first()";
+
+        if (dto.status() != null || dto.dueDate() != null) {
+            patch.ensure("recommendation");
+        }
 
         if (dto.status() != null) {
             if (dto.status().isBlank()) {
-                recommendation.setForecastStatus(null);
+                patch.delete(recommendation + ".forecastStatus");
             } else {
-                recommendation.setForecastStatus(new CodeableConcept().setText(dto.status()));
+                patch.add(recommendation, "forecastStatus", new CodeableConcept().setText(dto.status()));
             }
         }
 
         if (dto.dueDate() != null) {
-            recommendation.setDateCriterion(List.of(
-                    new ImmunizationRecommendation.ImmunizationRecommendationRecommendationDateCriterionComponent()
-                            .setValue(support.toDate(dto.dueDate()))
-            ));
+            patch.deleteAll(recommendation + ".dateCriterion");
+            patch.add(recommendation, "dateCriterion", "value", new DateTimeType(support.toDate(dto.dueDate())));
         }
 
-        if (resource.hasRecommendation()) {
-            resource.getRecommendation().set(0, recommendation);
-        } else {
-            resource.setRecommendation(List.of(recommendation));
-        }
+        return patch.build();
     }
 
     private CodeableConcept toVaccineCode(String code, String display) {
@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.AdverseEvent;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.AdverseEventDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.CreateAdverseEventRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.UpdateAdverseEventRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AdverseEventMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class AdverseEventService {
         return mapper.toDTO(created);
     }
 
-    public AdverseEventDTO getById(String id) {
-        return mapper.toDTO(fhir.read(AdverseEvent.class, id));
+    public FhirVersioned<AdverseEventDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(AdverseEvent.class, id), mapper::toDTO);
     }
 
-    public AdverseEventDTO update(String id, UpdateAdverseEventRequestDTO dto) {
-        AdverseEvent existing = fhir.read(AdverseEvent.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(AdverseEvent.class, existing, id);
-        AdverseEvent updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<AdverseEventDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<AdverseEvent> page = fhir.searchPage(AdverseEvent.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<AdverseEventDTO> update(String id, UpdateAdverseEventRequestDTO dto, String ifMatch) {
+        AdverseEvent updated = fhir.patch(AdverseEvent.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 
@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.AllergyIntolerance;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.AllergyIntoleranceDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.CreateAllergyIntoleranceRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.allergyIntolerance.UpdateAllergyIntoleranceRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AllergyIntoleranceMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class AllergyIntoleranceService {
         return mapper.toDTO(created);
     }
 
-    public AllergyIntoleranceDTO getById(String id) {
-        return mapper.toDTO(fhir.read(AllergyIntolerance.class, id));
+    public FhirVersioned<AllergyIntoleranceDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(AllergyIntolerance.class, id), mapper::toDTO);
     }
 
-    public AllergyIntoleranceDTO update(String id, UpdateAllergyIntoleranceRequestDTO dto) {
-        AllergyIntolerance existing = fhir.read(AllergyIntolerance.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(AllergyIntolerance.class, existing, id);
-        AllergyIntolerance updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<AllergyIntoleranceDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<AllergyIntolerance> page = fhir.searchPage(AllergyIntolerance.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<AllergyIntoleranceDTO> update(String id, UpdateAllergyIntoleranceRequestDTO dto, String ifMatch) {
+        AllergyIntolerance updated = fhir.patch(AllergyIntolerance.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 
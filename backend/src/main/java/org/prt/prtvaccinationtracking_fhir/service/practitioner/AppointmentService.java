@@ -1,10 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Appointment;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.AppointmentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.CreateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.appointment.UpdateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AppointmentMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +29,26 @@ public class AppointmentService {
         return mapper.toDTO(created);
     }
 
-    public AppointmentDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Appointment.class, id));
+    public FhirVersioned<AppointmentDTO> getById(String id) {
+        if (fhir.readsAsJson(Appointment.class)) {
+            return FhirVersioned.ofJson(fhir.readJson(Appointment.class, id), mapper::toDTO);
+        }
+        return FhirVersioned.of(fhir.read(Appointment.class, id), mapper::toDTO);
     }
 
-    public AppointmentDTO update(String id, UpdateAppointmentRequestDTO dto) {
-        Appointment existing = fhir.read(Appointment.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Appointment.class, existing, id);
-        Appointment updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<AppointmentDTO> list(String patientId, Integer count, String cursor) {
+        if (fhir.searchesAsJson(Appointment.class)) {
+            FhirPage<JsonNode> page = fhir.searchPageJson(Appointment.class, "patient", patientId, count, cursor);
+            return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+        }
+
+        FhirPage<Appointment> page = fhir.searchPage(Appointment.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<AppointmentDTO> update(String id, UpdateAppointmentRequestDTO dto, String ifMatch) {
+        Appointment updated = fhir.patch(Appointment.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
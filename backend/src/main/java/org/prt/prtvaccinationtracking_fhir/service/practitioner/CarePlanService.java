@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.CarePlan;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CarePlanDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.CreateCarePlanRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.careplan.UpdateCarePlanRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.CarePlanMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class CarePlanService {
         return mapper.toDTO(created);
     }
 
-    public CarePlanDTO getById(String id) {
-        return mapper.toDTO(fhir.read(CarePlan.class, id));
+    public FhirVersioned<CarePlanDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(CarePlan.class, id), mapper::toDTO);
     }
 
-    public CarePlanDTO update(String id, UpdateCarePlanRequestDTO dto) {
-        CarePlan existing = fhir.read(CarePlan.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(CarePlan.class, existing, id);
-        CarePlan updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<CarePlanDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<CarePlan> page = fhir.searchPage(CarePlan.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<CarePlanDTO> update(String id, UpdateCarePlanRequestDTO dto, String ifMatch) {
+        CarePlan updated = fhir.patch(CarePlan.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Communication;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CommunicationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.CreateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.communication.UpdateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.CommunicationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class CommunicationService {
         return mapper.toDTO(created);
     }
 
-    public CommunicationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Communication.class, id));
+    public FhirVersioned<CommunicationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Communication.class, id), mapper::toDTO);
     }
 
-    public CommunicationDTO update(String id, UpdateCommunicationRequestDTO dto) {
-        Communication existing = fhir.read(Communication.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Communication.class, existing, id);
-        Communication updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<CommunicationDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<Communication> page = fhir.searchPage(Communication.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<CommunicationDTO> update(String id, UpdateCommunicationRequestDTO dto, String ifMatch) {
+        Communication updated = fhir.patch(Communication.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Condition;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.ConditionDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.CreateConditionRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.condition.UpdateConditionRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ConditionMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class ConditionService {
         return mapper.toDTO(created);
     }
 
-    public ConditionDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Condition.class, id));
+    public FhirVersioned<ConditionDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Condition.class, id), mapper::toDTO);
     }
 
-    public ConditionDTO update(String id, UpdateConditionRequestDTO dto) {
-        Condition existing = fhir.read(Condition.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Condition.class, existing, id);
-        Condition updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<ConditionDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<Condition> page = fhir.searchPage(Condition.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<ConditionDTO> update(String id, UpdateConditionRequestDTO dto, String ifMatch) {
+        Condition updated = fhir.patch(Condition.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
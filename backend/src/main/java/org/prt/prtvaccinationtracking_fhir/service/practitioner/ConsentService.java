@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Consent;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.ConsentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.CreateConsentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.consent.UpdateConsentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ConsentMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class ConsentService {
         return mapper.toDTO(created);
     }
 
-    public ConsentDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Consent.class, id));
+    public FhirVersioned<ConsentDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Consent.class, id), mapper::toDTO);
     }
 
-    public ConsentDTO update(String id, UpdateConsentRequestDTO dto) {
-        Consent existing = fhir.read(Consent.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Consent.class, existing, id);
-        Consent updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<ConsentDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<Consent> page = fhir.searchPage(Consent.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<ConsentDTO> update(String id, UpdateConsentRequestDTO dto, String ifMatch) {
+        Consent updated = fhir.patch(Consent.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
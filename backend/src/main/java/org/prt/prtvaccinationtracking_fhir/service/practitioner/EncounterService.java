@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Encounter;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.CreateEncounterRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.UpdateEncounterRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.EncounterMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class EncounterService {
         return mapper.toDTO(created);
     }
 
-    public EncounterDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Encounter.class, id));
+    public FhirVersioned<EncounterDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Encounter.class, id), mapper::toDTO);
     }
 
-    public EncounterDTO update(String id, UpdateEncounterRequestDTO dto) {
-        Encounter existing = fhir.read(Encounter.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Encounter.class, existing, id);
-        Encounter updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<EncounterDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<Encounter> page = fhir.searchPage(Encounter.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<EncounterDTO> update(String id, UpdateEncounterRequestDTO dto, String ifMatch) {
+        Encounter updated = fhir.patch(Encounter.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,482 @@
+package org.prt.prtvaccinationtracking_fhir.service.practitioner;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.exceptions.FHIRException;
+import org.hl7.fhir.r5.model.AdverseEvent;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Encounter;
+import org.hl7.fhir.r5.model.Enumerations;
+import org.hl7.fhir.r5.model.IdType;
+import org.hl7.fhir.r5.model.Immunization;
+import org.hl7.fhir.r5.model.Location;
+import org.hl7.fhir.r5.model.Observation;
+import org.hl7.fhir.r5.model.Organization;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Reference;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.AdverseEventDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.adverseEvent.CreateAdverseEventRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.CreateEncounterRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterBlockDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.encounter.EncounterDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.CreateImmunizationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationBlockDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.LocationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.CreateObservationRequestDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.ObservationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.OrganizationDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.PractitionerDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirBatchEntries;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirIds;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirSearchIterator;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AdverseEventMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.EncounterMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ImmunizationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.LocationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.MapperSupport;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ObservationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.OrganizationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.PractitionerMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Vaccination visits: an encounter with its immunizations and their observations and
+ * adverse events. A visit is recorded as one FHIR transaction, so it is stored all or
+ * nothing, and a patient's visits are loaded with one batch request.
+ */
+@Service("practitionerEncounterVisitService")
+public class EncounterVisitService {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final FhirGateway fhir;
+    private final FhirContext fhirContext;
+    private final MapperSupport support;
+    private final EncounterMapper encounterMapper;
+    private final ImmunizationMapper immunizationMapper;
+    private final ObservationMapper observationMapper;
+    private final AdverseEventMapper adverseEventMapper;
+    private final PractitionerMapper practitionerMapper;
+    private final OrganizationMapper organizationMapper;
+    private final LocationMapper locationMapper;
+
+    public EncounterVisitService(
+            FhirGateway fhir,
+            FhirContext fhirContext,
+            MapperSupport support,
+            EncounterMapper encounterMapper,
+            ImmunizationMapper immunizationMapper,
+            ObservationMapper observationMapper,
+            AdverseEventMapper adverseEventMapper,
+            PractitionerMapper practitionerMapper,
+            OrganizationMapper organizationMapper,
+            LocationMapper locationMapper
+    ) {
+        this.fhir = fhir;
+        this.fhirContext = fhirContext;
+        this.support = support;
+        this.encounterMapper = encounterMapper;
+        this.immunizationMapper = immunizationMapper;
+        this.observationMapper = observationMapper;
+        this.adverseEventMapper = adverseEventMapper;
+        this.practitionerMapper = practitionerMapper;
+        this.organizationMapper = organizationMapper;
+        this.locationMapper = locationMapper;
+    }
+
+    /**
+     * Loads all visits of a patient in one batch: the encounters, and the immunizations
+     * together with their performers and locations (_include) and the observations and
+     * adverse events that point at them (_revinclude). R5 has no Immunization search
+     * parameter for the encounter, so encounters are a second search in the same batch.
+     * Further pages of either search are followed, and a failure of either fails the call.
+     * Immunizations that point at none of the patient's encounters come last, in a block
+     * whose encounter is null.
+     */
+    public List<EncounterBlockDTO> getBlocks(String patientId) {
+        String patient = FhirIds.queryValue(patientId, "patientId");
+
+        Bundle batch = new Bundle();
+        batch.setType(Bundle.BundleType.BATCH);
+
+        addGet(batch, "Encounter?patient=" + patient + "&_count=" + PAGE_SIZE);
+        addGet(batch, "Immunization?patient=" + patient
+                + "&_include=Immunization:performer"
+                + "&_include=Immunization:location"
+                + "&_revinclude=Observation:part-of"
+                + "&_revinclude=AdverseEvent:substance"
+                + "&_count=" + PAGE_SIZE);
+
+        List<Bundle.BundleEntryComponent> entries = fhir.transaction(batch).getEntry();
+        if (entries.size() != batch.getEntry().size()) {
+            throw new IllegalStateException("FHIR batch response does not match the visit request");
+        }
+
+        Map<String, Resource> related = new HashMap<>();
+        Map<String, List<Immunization>> immunizationsByEncounter = new LinkedHashMap<>();
+        Map<String, List<Observation>> observationsByImmunization = new HashMap<>();
+        Map<String, List<AdverseEvent>> adverseEventsByImmunization = new HashMap<>();
+
+        for (Resource resource : resources(entries.get(1), "Immunization search")) {
+            if (resource instanceof Immunization immunization) {
+                String encounterId = immunization.hasEncounter()
+                        ? support.referenceToId(immunization.getEncounter())
+                        : null;
+                immunizationsByEncounter.computeIfAbsent(encounterId, key -> new ArrayList<>()).add(immunization);
+            } else if (resource instanceof Observation observation) {
+                for (Reference partOf : observation.getPartOf()) {
+                    if (isReferenceTo(partOf, "Immunization")) {
+                        observationsByImmunization
+                                .computeIfAbsent(support.referenceToId(partOf), key -> new ArrayList<>())
+                                .add(observation);
+                    }
+                }
+            } else if (resource instanceof AdverseEvent adverseEvent) {
+                for (AdverseEvent.AdverseEventSuspectEntityComponent suspect : adverseEvent.getSuspectEntity()) {
+                    if (suspect.getInstance() instanceof Reference instance && isReferenceTo(instance, "Immunization")) {
+                        adverseEventsByImmunization
+                                .computeIfAbsent(support.referenceToId(instance), key -> new ArrayList<>())
+                                .add(adverseEvent);
+                    }
+                }
+            } else {
+                related.put(resource.fhirType() + "/" + resource.getIdElement().getIdPart(), resource);
+            }
+        }
+
+        Map<String, EncounterBlockDTO> blocks = new LinkedHashMap<>();
+        for (Resource resource : resources(entries.get(0), "Encounter search")) {
+            if (!(resource instanceof Encounter encounter)) {
+                continue;
+            }
+
+            String encounterId = encounter.getIdElement().getIdPart();
+            List<ImmunizationBlockDTO> immunizations = new ArrayList<>();
+            for (Immunization immunization : immunizationsByEncounter.getOrDefault(encounterId, List.of())) {
+                immunizations.add(toBlock(immunization, related, observationsByImmunization, adverseEventsByImmunization));
+            }
+
+            blocks.put(encounterId, new EncounterBlockDTO(encounterMapper.toDTO(encounter), immunizations));
+        }
+
+        List<ImmunizationBlockDTO> unassigned = new ArrayList<>();
+        immunizationsByEncounter.forEach((encounterId, immunizations) -> {
+            if (encounterId == null || !blocks.containsKey(encounterId)) {
+                for (Immunization immunization : immunizations) {
+                    unassigned.add(toBlock(immunization, related, observationsByImmunization, adverseEventsByImmunization));
+                }
+            }
+        });
+
+        List<EncounterBlockDTO> result = new ArrayList<>(blocks.values());
+        if (!unassigned.isEmpty()) {
+            result.add(new EncounterBlockDTO(null, unassigned));
+        }
+        return result;
+    }
+
+    public EncounterBlockDTO recordVisit(EncounterBlockDTO dto) {
+        if (dto == null || dto.encounter() == null) {
+            throw new IllegalArgumentException("encounter is required");
+        }
+
+        EncounterDTO encounterDto = dto.encounter();
+        if (encounterDto.patientId() == null || encounterDto.patientId().isBlank()) {
+            throw new IllegalArgumentException("encounter.patientId is required");
+        }
+
+        Bundle transaction = new Bundle();
+        transaction.setType(Bundle.BundleType.TRANSACTION);
+
+        Encounter encounter = toEncounter(encounterDto);
+        Reference encounterRef = addCreate(transaction, encounter);
+
+        List<PendingBlock> blocks = new ArrayList<>();
+        List<ImmunizationBlockDTO> immunizations = dto.immunizations() == null ? List.of() : dto.immunizations();
+
+        for (ImmunizationBlockDTO block : immunizations) {
+            if (block == null || block.immunization() == null) {
+                continue;
+            }
+
+            // Every resource of the visit belongs to the encounter's patient.
+            String patientId = encounterDto.patientId();
+            String immunizationPatientId = block.immunization().patientId();
+            if (immunizationPatientId != null && !immunizationPatientId.isBlank()
+                    && !immunizationPatientId.equals(patientId)) {
+                throw new IllegalArgumentException("immunization.patientId does not match encounter.patientId");
+            }
+
+            Immunization immunization = toImmunization(block, patientId);
+            immunization.setEncounter(encounterRef);
+            Reference immunizationRef = addCreate(transaction, immunization);
+
+            List<Observation> observations = new ArrayList<>();
+            if (block.observations() != null) {
+                for (ObservationDTO observationDto : block.observations()) {
+                    if (observationDto == null) {
+                        continue;
+                    }
+
+                    Observation observation = toObservation(observationDto);
+                    observation.setSubject(support.toPatientReference(patientId));
+                    observation.setEncounter(encounterRef);
+                    observation.addPartOf(immunizationRef);
+                    addCreate(transaction, observation);
+                    observations.add(observation);
+                }
+            }
+
+            List<AdverseEvent> adverseEvents = new ArrayList<>();
+            if (block.adverseEvents() != null) {
+                for (AdverseEventDTO adverseEventDto : block.adverseEvents()) {
+                    if (adverseEventDto == null) {
+                        continue;
+                    }
+
+                    AdverseEvent adverseEvent = toAdverseEvent(adverseEventDto, patientId);
+                    adverseEvent.setEncounter(encounterRef);
+                    adverseEvent.addSuspectEntity().setInstance(immunizationRef.copy());
+                    addCreate(transaction, adverseEvent);
+                    adverseEvents.add(adverseEvent);
+                }
+            }
+
+            blocks.add(new PendingBlock(block, immunization, observations, adverseEvents));
+        }
+
+        Bundle response = fhir.transaction(transaction);
+        assignServerIds(transaction, response);
+
+        List<ImmunizationBlockDTO> saved = new ArrayList<>();
+        for (PendingBlock block : blocks) {
+            saved.add(new ImmunizationBlockDTO(
+                    immunizationMapper.toDTO(block.immunization()),
+                    block.request().practitioner(),
+                    block.request().organization(),
+                    block.request().location(),
+                    block.observations().stream().map(observationMapper::toDTO).toList(),
+                    block.adverseEvents().stream().map(adverseEventMapper::toDTO).toList()
+            ));
+        }
+
+        return new EncounterBlockDTO(encounterMapper.toDTO(encounter), saved);
+    }
+
+    private ImmunizationBlockDTO toBlock(
+            Immunization immunization,
+            Map<String, Resource> related,
+            Map<String, List<Observation>> observationsByImmunization,
+            Map<String, List<AdverseEvent>> adverseEventsByImmunization
+    ) {
+        String immunizationId = immunization.getIdElement().getIdPart();
+        return new ImmunizationBlockDTO(
+                immunizationMapper.toDTO(immunization),
+                performer(immunization, related, Practitioner.class, practitionerMapper::toDTO),
+                performer(immunization, related, Organization.class, organizationMapper::toDTO),
+                immunization.hasLocation()
+                        ? toDTO(related.get(reference(immunization.getLocation())), Location.class, locationMapper::toDTO)
+                        : null,
+                observationsByImmunization.getOrDefault(immunizationId, List.of()).stream()
+                        .map(observationMapper::toDTO)
+                        .toList(),
+                adverseEventsByImmunization.getOrDefault(immunizationId, List.of()).stream()
+                        .map(adverseEventMapper::toDTO)
+                        .toList()
+        );
+    }
+
+    private <T extends Resource, D> D performer(
+            Immunization immunization,
+            Map<String, Resource> related,
+            Class<T> type,
+            Function<T, D> mapper
+    ) {
+        for (Immunization.ImmunizationPerformerComponent performer : immunization.getPerformer()) {
+            if (performer.hasActor() && isReferenceTo(performer.getActor(), type.getSimpleName())) {
+                D dto = toDTO(related.get(reference(performer.getActor())), type, mapper);
+                if (dto != null) {
+                    return dto;
+                }
+            }
+        }
+        return null;
+    }
+
+    private <T extends Resource, D> D toDTO(Resource resource, Class<T> type, Function<T, D> mapper) {
+        return type.isInstance(resource) ? mapper.apply(type.cast(resource)) : null;
+    }
+
+    private boolean isReferenceTo(Reference reference, String resourceType) {
+        return reference.hasReferenceElement()
+                && resourceType.equals(reference.getReferenceElement().getResourceType());
+    }
+
+    private String reference(Reference reference) {
+        return reference.getReferenceElement().getResourceType() + "/" + reference.getReferenceElement().getIdPart();
+    }
+
+    private List<Resource> resources(Bundle.BundleEntryComponent entry, String request) {
+        // A failed search fails the request: an empty list would read as "no immunizations".
+        Bundle searchset = FhirBatchEntries.searchset(entry, request);
+
+        List<Resource> results = new ArrayList<>();
+        try (FhirSearchIterator<Resource> hits = fhir.iterate(searchset, Resource.class)) {
+            hits.forEachRemaining(results::add);
+        }
+        return results;
+    }
+
+    private void addGet(Bundle batch, String url) {
+        batch.addEntry()
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.GET)
+                .setUrl(url);
+    }
+
+    private Encounter toEncounter(EncounterDTO dto) {
+        Encounter encounter = encounterMapper.toResource(new CreateEncounterRequestDTO(
+                dto.start(),
+                dto.end(),
+                dto.reason(),
+                dto.location()
+        ));
+        encounter.setSubject(support.toPatientReference(dto.patientId()));
+
+        if (dto.status() != null && !dto.status().isBlank()) {
+            encounter.setStatus(encounterStatus(dto.status()));
+        }
+
+        return encounter;
+    }
+
+    private Enumerations.EncounterStatus encounterStatus(String code) {
+        try {
+            return Enumerations.EncounterStatus.fromCode(code);
+        } catch (FHIRException exception) {
+            throw new IllegalArgumentException("encounter.status '" + code + "' is not a valid encounter status");
+        }
+    }
+
+    private Immunization toImmunization(ImmunizationBlockDTO block, String patientId) {
+        ImmunizationDTO dto = block.immunization();
+        Immunization immunization = immunizationMapper.toResource(new CreateImmunizationRequestDTO(
+                patientId,
+                dto.status(),
+                dto.vaccineCode(),
+                dto.vaccineDisplay(),
+                dto.administrationDate(),
+                dto.lotNumber(),
+                dto.site(),
+                dto.doseNumber(),
+                null
+        ));
+
+        PractitionerDTO practitioner = block.practitioner();
+        if (practitioner != null && practitioner.id() != null && !practitioner.id().isBlank()) {
+            immunization.addPerformer().setActor(
+                    support.toPractitionerReference(practitioner.id()).setDisplay(practitioner.fullName()));
+        }
+
+        OrganizationDTO organization = block.organization();
+        if (organization != null && organization.id() != null && !organization.id().isBlank()) {
+            immunization.addPerformer().setActor(
+                    support.toOrganizationReference(organization.id()).setDisplay(organization.name()));
+        }
+
+        LocationDTO location = block.location();
+        if (location != null && location.id() != null && !location.id().isBlank()) {
+            immunization.setLocation(support.toLocationReference(location.id()).setDisplay(location.name()));
+        }
+
+        return immunization;
+    }
+
+    private Observation toObservation(ObservationDTO dto) {
+        return observationMapper.toResource(new CreateObservationRequestDTO(
+                dto.code(),
+                dto.display(),
+                dto.value(),
+                dto.unit(),
+                dto.effectiveDateTime(),
+                null
+        ));
+    }
+
+    private AdverseEvent toAdverseEvent(AdverseEventDTO dto, String patientId) {
+        AdverseEvent adverseEvent = adverseEventMapper.toResource(new CreateAdverseEventRequestDTO(
+                null,
+                null,
+                patientId,
+                dto.category(),
+                dto.recordedDate(),
+                null
+        ));
+        adverseEvent.setStatus(dto.status());
+        adverseEvent.setActuality(dto.actuality());
+        return adverseEvent;
+    }
+
+    private Reference addCreate(Bundle transaction, Resource resource) {
+        String fullUrl = "urn:uuid:" + UUID.randomUUID();
+        transaction.addEntry()
+                .setFullUrl(fullUrl)
+                .setResource(resource)
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.POST)
+                .setUrl(resource.fhirType());
+        return new Reference(fullUrl);
+    }
+
+    /**
+     * Gives the submitted resources the ids the server assigned and points their
+     * urn:uuid references at them, so they can be mapped without reading them back.
+     */
+    private void assignServerIds(Bundle transaction, Bundle response) {
+        List<Bundle.BundleEntryComponent> requests = transaction.getEntry();
+        List<Bundle.BundleEntryComponent> results = response.getEntry();
+        if (results.size() != requests.size()) {
+            throw new IllegalStateException("FHIR transaction response does not match the visit request");
+        }
+
+        Map<String, String> assigned = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Bundle.BundleEntryComponent result = results.get(i);
+            if (!result.hasResponse() || !result.getResponse().hasLocation()) {
+                throw new IllegalStateException("FHIR transaction response has no location for entry " + i);
+            }
+
+            IdType id = new IdType(result.getResponse().getLocation()).toUnqualifiedVersionless();
+            requests.get(i).getResource().setId(id);
+            assigned.put(requests.get(i).getFullUrl(), id.getValue());
+        }
+
+        for (Bundle.BundleEntryComponent entry : requests) {
+            for (Reference reference : fhirContext.newTerser()
+                    .getAllPopulatedChildElementsOfType(entry.getResource(), Reference.class)) {
+                String target = assigned.get(reference.getReference());
+                if (target != null) {
+                    reference.setReference(target);
+                }
+            }
+        }
+    }
+
+    private record PendingBlock(
+            ImmunizationBlockDTO request,
+            Immunization immunization,
+            List<Observation> observations,
+            List<AdverseEvent> adverseEvents
+    ) {
+    }
+}
@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Goal;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.CreateGoalRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.GoalDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.goal.UpdateGoalRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.GoalMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class GoalService {
         return mapper.toDTO(created);
     }
 
-    public GoalDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Goal.class, id));
+    public FhirVersioned<GoalDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Goal.class, id), mapper::toDTO);
     }
 
-    public GoalDTO update(String id, UpdateGoalRequestDTO dto) {
-        Goal existing = fhir.read(Goal.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Goal.class, existing, id);
-        Goal updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<GoalDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<Goal> page = fhir.searchPage(Goal.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<GoalDTO> update(String id, UpdateGoalRequestDTO dto, String ifMatch) {
+        Goal updated = fhir.patch(Goal.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
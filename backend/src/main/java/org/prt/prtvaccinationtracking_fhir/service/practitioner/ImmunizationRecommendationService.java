@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.ImmunizationRecommendation;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.CreateImmunizationRecommendationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.ImmunizationRecommendationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.recommendation.UpdateImmunizationRecommendationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.RecommendationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class ImmunizationRecommendationService {
         return mapper.toDTO(created);
     }
 
-    public ImmunizationRecommendationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(ImmunizationRecommendation.class, id));
+    public FhirVersioned<ImmunizationRecommendationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(ImmunizationRecommendation.class, id), mapper::toDTO);
     }
 
-    public ImmunizationRecommendationDTO update(String id, UpdateImmunizationRecommendationRequestDTO dto) {
-        ImmunizationRecommendation existing = fhir.read(ImmunizationRecommendation.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(ImmunizationRecommendation.class, existing, id);
-        ImmunizationRecommendation updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<ImmunizationRecommendationDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<ImmunizationRecommendation> page = fhir.searchPage(ImmunizationRecommendation.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<ImmunizationRecommendationDTO> update(String id, UpdateImmunizationRecommendationRequestDTO dto, String ifMatch) {
+        ImmunizationRecommendation updated = fhir.patch(ImmunizationRecommendation.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Immunization;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.CreateImmunizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.ImmunizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.immunization.UpdateImmunizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ImmunizationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +29,26 @@ public class ImmunizationService {
         return mapper.toDTO(created);
     }
 
-    public ImmunizationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Immunization.class, id));
+    public FhirVersioned<ImmunizationDTO> getById(String id) {
+        if (fhir.readsAsJson(Immunization.class)) {
+            return FhirVersioned.ofJson(fhir.readJson(Immunization.class, id), mapper::toDTO);
+        }
+        return FhirVersioned.of(fhir.read(Immunization.class, id), mapper::toDTO);
     }
 
-    public ImmunizationDTO update(String id, UpdateImmunizationRequestDTO dto) {
-        Immunization existing = fhir.read(Immunization.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Immunization.class, existing, id);
-        Immunization updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<ImmunizationDTO> list(String patientId, Integer count, String cursor) {
+        if (fhir.searchesAsJson(Immunization.class)) {
+            FhirPage<JsonNode> page = fhir.searchPageJson(Immunization.class, "patient", patientId, count, cursor);
+            return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+        }
+
+        FhirPage<Immunization> page = fhir.searchPage(Immunization.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<ImmunizationDTO> update(String id, UpdateImmunizationRequestDTO dto, String ifMatch) {
+        Immunization updated = fhir.patch(Immunization.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
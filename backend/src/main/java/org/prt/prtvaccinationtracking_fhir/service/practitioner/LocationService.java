@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Location;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.CreateLocationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.LocationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.location.UpdateLocationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.LocationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class LocationService {
         return mapper.toDTO(created);
     }
 
-    public LocationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Location.class, id));
+    public FhirVersioned<LocationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Location.class, id), mapper::toDTO);
     }
 
-    public LocationDTO update(String id, UpdateLocationRequestDTO dto) {
-        Location existing = fhir.read(Location.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Location.class, existing, id);
-        Location updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<LocationDTO> list(Integer count, String cursor) {
+        FhirPage<Location> page = fhir.searchPage(Location.class, null, null, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<LocationDTO> update(String id, UpdateLocationRequestDTO dto, String ifMatch) {
+        Location updated = fhir.patch(Location.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Observation;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.CreateObservationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.ObservationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.observation.UpdateObservationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ObservationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +29,26 @@ public class ObservationService {
         return mapper.toDTO(created);
     }
 
-    public ObservationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Observation.class, id));
+    public FhirVersioned<ObservationDTO> getById(String id) {
+        if (fhir.readsAsJson(Observation.class)) {
+            return FhirVersioned.ofJson(fhir.readJson(Observation.class, id), mapper::toDTO);
+        }
+        return FhirVersioned.of(fhir.read(Observation.class, id), mapper::toDTO);
     }
 
-    public ObservationDTO update(String id, UpdateObservationRequestDTO dto) {
-        Observation existing = fhir.read(Observation.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Observation.class, existing, id);
-        Observation updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<ObservationDTO> list(String patientId, Integer count, String cursor) {
+        if (fhir.searchesAsJson(Observation.class)) {
+            FhirPage<JsonNode> page = fhir.searchPageJson(Observation.class, "patient", patientId, count, cursor);
+            return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+        }
+
+        FhirPage<Observation> page = fhir.searchPage(Observation.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<ObservationDTO> update(String id, UpdateObservationRequestDTO dto, String ifMatch) {
+        Observation updated = fhir.patch(Observation.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
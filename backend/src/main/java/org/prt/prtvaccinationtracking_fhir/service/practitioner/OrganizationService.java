@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Organization;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.CreateOrganizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.OrganizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.organization.UpdateOrganizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.OrganizationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class OrganizationService {
         return mapper.toDTO(created);
     }
 
-    public OrganizationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Organization.class, id));
+    public FhirVersioned<OrganizationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Organization.class, id), mapper::toDTO);
     }
 
-    public OrganizationDTO update(String id, UpdateOrganizationRequestDTO dto) {
-        Organization existing = fhir.read(Organization.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Organization.class, existing, id);
-        Organization updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<OrganizationDTO> list(Integer count, String cursor) {
+        FhirPage<Organization> page = fhir.searchPage(Organization.class, null, null, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<OrganizationDTO> update(String id, UpdateOrganizationRequestDTO dto, String ifMatch) {
+        Organization updated = fhir.patch(Organization.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
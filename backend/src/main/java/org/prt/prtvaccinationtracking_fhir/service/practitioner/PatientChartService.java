@@ -0,0 +1,182 @@
+package org.prt.prtvaccinationtracking_fhir.service.practitioner;
+
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import org.hl7.fhir.r5.model.AdverseEvent;
+import org.hl7.fhir.r5.model.AllergyIntolerance;
+import org.hl7.fhir.r5.model.Appointment;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.CarePlan;
+import org.hl7.fhir.r5.model.Communication;
+import org.hl7.fhir.r5.model.Condition;
+import org.hl7.fhir.r5.model.Consent;
+import org.hl7.fhir.r5.model.Encounter;
+import org.hl7.fhir.r5.model.Goal;
+import org.hl7.fhir.r5.model.Immunization;
+import org.hl7.fhir.r5.model.ImmunizationRecommendation;
+import org.hl7.fhir.r5.model.Observation;
+import org.hl7.fhir.r5.model.Patient;
+import org.hl7.fhir.r5.model.RelatedPerson;
+import org.hl7.fhir.r5.model.Resource;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.PatientChartDTO;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.RelatedPersonDTO;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirBatchEntries;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirIds;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirSearchIterator;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AdverseEventMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AllergyIntoleranceMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.AppointmentMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.CarePlanMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.CommunicationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ConditionMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ConsentMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.EncounterMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.GoalMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ImmunizationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.ObservationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.PatientMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.RecommendationMapper;
+import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.RelatedPersonMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Loads every section of a child's chart with one FHIR batch request instead of
+ * one search per section plus one read per hit. A section with more than
+ * {@code SECTION_PAGE_SIZE} hits is completed by following its next links. If any section
+ * fails, the whole chart fails with that section's status.
+ */
+@Service("practitionerPatientChartService")
+public class PatientChartService {
+
+    private static final int SECTION_PAGE_SIZE = 200;
+
+    private final FhirGateway fhir;
+    private final PatientMapper patientMapper;
+    private final RelatedPersonMapper relatedPersonMapper;
+    private final ImmunizationMapper immunizationMapper;
+    private final RecommendationMapper recommendationMapper;
+    private final CarePlanMapper carePlanMapper;
+    private final GoalMapper goalMapper;
+    private final AppointmentMapper appointmentMapper;
+    private final EncounterMapper encounterMapper;
+    private final ObservationMapper observationMapper;
+    private final ConditionMapper conditionMapper;
+    private final AllergyIntoleranceMapper allergyIntoleranceMapper;
+    private final ConsentMapper consentMapper;
+    private final CommunicationMapper communicationMapper;
+    private final AdverseEventMapper adverseEventMapper;
+
+    public PatientChartService(
+            FhirGateway fhir,
+            PatientMapper patientMapper,
+            RelatedPersonMapper relatedPersonMapper,
+            ImmunizationMapper immunizationMapper,
+            RecommendationMapper recommendationMapper,
+            CarePlanMapper carePlanMapper,
+            GoalMapper goalMapper,
+            AppointmentMapper appointmentMapper,
+            EncounterMapper encounterMapper,
+            ObservationMapper observationMapper,
+            ConditionMapper conditionMapper,
+            AllergyIntoleranceMapper allergyIntoleranceMapper,
+            ConsentMapper consentMapper,
+            CommunicationMapper communicationMapper,
+            AdverseEventMapper adverseEventMapper
+    ) {
+        this.fhir = fhir;
+        this.patientMapper = patientMapper;
+        this.relatedPersonMapper = relatedPersonMapper;
+        this.immunizationMapper = immunizationMapper;
+        this.recommendationMapper = recommendationMapper;
+        this.carePlanMapper = carePlanMapper;
+        this.goalMapper = goalMapper;
+        this.appointmentMapper = appointmentMapper;
+        this.encounterMapper = encounterMapper;
+        this.observationMapper = observationMapper;
+        this.conditionMapper = conditionMapper;
+        this.allergyIntoleranceMapper = allergyIntoleranceMapper;
+        this.consentMapper = consentMapper;
+        this.communicationMapper = communicationMapper;
+        this.adverseEventMapper = adverseEventMapper;
+    }
+
+    public PatientChartDTO getChart(String patientId) {
+        String patient = FhirIds.queryValue(patientId, "patientId");
+
+        Bundle batch = new Bundle();
+        batch.setType(Bundle.BundleType.BATCH);
+
+        addGet(batch, "Patient/" + patient);
+        addSearch(batch, "RelatedPerson?patient=" + patient);
+        addSearch(batch, "Immunization?patient=" + patient);
+        addSearch(batch, "ImmunizationRecommendation?patient=" + patient);
+        addSearch(batch, "CarePlan?patient=" + patient);
+        addSearch(batch, "Goal?patient=" + patient);
+        addSearch(batch, "Appointment?patient=" + patient);
+        addSearch(batch, "Encounter?patient=" + patient);
+        addSearch(batch, "Observation?patient=" + patient);
+        addSearch(batch, "Condition?patient=" + patient);
+        addSearch(batch, "AllergyIntolerance?patient=" + patient);
+        addSearch(batch, "Consent?subject=Patient/" + patient);
+        addSearch(batch, "Communication?subject=Patient/" + patient);
+        addSearch(batch, "AdverseEvent?subject=Patient/" + patient);
+
+        List<Bundle.BundleEntryComponent> entries = fhir.transaction(batch).getEntry();
+        if (entries.size() != batch.getEntry().size()) {
+            throw new IllegalStateException("FHIR batch response does not match the chart request");
+        }
+
+        if (!(FhirBatchEntries.resource(entries.get(0), "Patient/" + patient) instanceof Patient resource)) {
+            throw new ResourceNotFoundException("Patient/" + patientId);
+        }
+
+        List<RelatedPersonDTO> relatedPersons = section(entries.get(1), RelatedPerson.class, relatedPersonMapper::toDTO);
+
+        return new PatientChartDTO(
+                patientMapper.toDetailsDTO(resource, relatedPersons.isEmpty() ? null : relatedPersons.get(0)),
+                relatedPersons,
+                section(entries.get(2), Immunization.class, immunizationMapper::toDTO),
+                section(entries.get(3), ImmunizationRecommendation.class, recommendationMapper::toDTO),
+                section(entries.get(4), CarePlan.class, carePlanMapper::toDTO),
+                section(entries.get(5), Goal.class, goalMapper::toDTO),
+                section(entries.get(6), Appointment.class, appointmentMapper::toDTO),
+                section(entries.get(7), Encounter.class, encounterMapper::toDTO),
+                section(entries.get(8), Observation.class, observationMapper::toDTO),
+                section(entries.get(9), Condition.class, conditionMapper::toDTO),
+                section(entries.get(10), AllergyIntolerance.class, allergyIntoleranceMapper::toDTO),
+                section(entries.get(11), Consent.class, consentMapper::toDTO),
+                section(entries.get(12), Communication.class, communicationMapper::toDTO),
+                section(entries.get(13), AdverseEvent.class, adverseEventMapper::toDTO)
+        );
+    }
+
+    private void addGet(Bundle batch, String url) {
+        batch.addEntry()
+                .getRequest()
+                .setMethod(Bundle.HTTPVerb.GET)
+                .setUrl(url);
+    }
+
+    private void addSearch(Bundle batch, String query) {
+        addGet(batch, query + "&_count=" + SECTION_PAGE_SIZE);
+    }
+
+    private <T extends Resource, D> List<D> section(
+            Bundle.BundleEntryComponent entry,
+            Class<T> type,
+            Function<T, D> mapper
+    ) {
+        // A failed section fails the chart: an empty list would read as "no vaccinations".
+        Bundle searchset = FhirBatchEntries.searchset(entry, type.getSimpleName() + " search");
+
+        List<D> results = new ArrayList<>();
+        try (FhirSearchIterator<T> hits = fhir.iterate(searchset, type)) {
+            hits.forEachRemaining(resource -> results.add(mapper.apply(resource)));
+        }
+        return results;
+    }
+}
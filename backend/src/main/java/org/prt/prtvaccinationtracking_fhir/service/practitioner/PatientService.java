@@ -1,10 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.hl7.fhir.r5.model.Patient;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.CreatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.PatientDetailsDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.patient.UpdatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.PatientMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +29,26 @@ public class PatientService {
         return mapper.toDetailsDTO(created);
     }
 
-    public PatientDetailsDTO getById(String id) {
-        return mapper.toDetailsDTO(fhir.read(Patient.class, id));
+    public FhirVersioned<PatientDetailsDTO> getById(String id) {
+        if (fhir.readsAsJson(Patient.class)) {
+            return FhirVersioned.ofJson(fhir.readJson(Patient.class, id), mapper::toDetailsDTO);
+        }
+        return FhirVersioned.of(fhir.read(Patient.class, id), mapper::toDetailsDTO);
     }
 
-    public PatientDetailsDTO update(String id, UpdatePatientRequestDTO dto) {
-        Patient existing = fhir.read(Patient.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Patient.class, existing, id);
-        Patient updated = fhir.update(existing);
-        return mapper.toDetailsDTO(updated);
+    public PageDTO<PatientDetailsDTO> list(String patientId, Integer count, String cursor) {
+        if (fhir.searchesAsJson(Patient.class)) {
+            FhirPage<JsonNode> page = fhir.searchPageJson(Patient.class, "_id", patientId, count, cursor);
+            return new PageDTO<>(page.resources().stream().map(mapper::toDetailsDTO).toList(), page.nextCursor());
+        }
+
+        FhirPage<Patient> page = fhir.searchPage(Patient.class, "_id", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDetailsDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<PatientDetailsDTO> update(String id, UpdatePatientRequestDTO dto, String ifMatch) {
+        Patient updated = fhir.patch(Patient.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDetailsDTO);
     }
 
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.Practitioner;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.CreatePractitionerRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.PractitionerDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.practitioner.UpdatePractitionerRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.PractitionerMapper;
 import org.springframework.stereotype.Service;
 
@@ -13,28 +17,34 @@ public class PractitionerService {
 
     private final FhirGateway fhir;
     private final PractitionerMapper mapper;
+    private final PractitionerDirectory directory;
 
-    public PractitionerService(FhirGateway fhir, PractitionerMapper mapper) {
+    public PractitionerService(FhirGateway fhir, PractitionerMapper mapper, PractitionerDirectory directory) {
         this.fhir = fhir;
         this.mapper = mapper;
+        this.directory = directory;
     }
 
     public PractitionerDTO create(CreatePractitionerRequestDTO dto) {
         Practitioner resource = mapper.toResource(dto);
         Practitioner created = fhir.create(resource);
+        directory.remember(created);
         return mapper.toDTO(created);
     }
 
-    public PractitionerDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Practitioner.class, id));
+    public FhirVersioned<PractitionerDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Practitioner.class, id), mapper::toDTO);
     }
 
-    public PractitionerDTO update(String id, UpdatePractitionerRequestDTO dto) {
-        Practitioner existing = fhir.read(Practitioner.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Practitioner.class, existing, id);
-        Practitioner updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<PractitionerDTO> list(Integer count, String cursor) {
+        FhirPage<Practitioner> page = fhir.searchPage(Practitioner.class, null, null, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<PractitionerDTO> update(String id, UpdatePractitionerRequestDTO dto, String ifMatch) {
+        Practitioner updated = fhir.patch(Practitioner.class, id, mapper.toPatch(dto), ifMatch);
+        directory.remember(updated);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package org.prt.prtvaccinationtracking_fhir.service.practitioner;
 
 import org.hl7.fhir.r5.model.RelatedPerson;
+import org.prt.prtvaccinationtracking_fhir.dto.practitioner.common.PageDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.CreateRelatedPersonRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.RelatedPersonDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.practitioner.relatedPerson.UpdateRelatedPersonRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirPage;
 import org.prt.prtvaccinationtracking_fhir.mapper.practitioner.RelatedPersonMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +28,18 @@ public class RelatedPersonService {
         return mapper.toDTO(created);
     }
 
-    public RelatedPersonDTO getById(String id) {
-        return mapper.toDTO(fhir.read(RelatedPerson.class, id));
+    public FhirVersioned<RelatedPersonDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(RelatedPerson.class, id), mapper::toDTO);
     }
 
-    public RelatedPersonDTO update(String id, UpdateRelatedPersonRequestDTO dto) {
-        RelatedPerson existing = fhir.read(RelatedPerson.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(RelatedPerson.class, existing, id);
-        RelatedPerson updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public PageDTO<RelatedPersonDTO> list(String patientId, Integer count, String cursor) {
+        FhirPage<RelatedPerson> page = fhir.searchPage(RelatedPerson.class, "patient", patientId, count, cursor);
+        return new PageDTO<>(page.resources().stream().map(mapper::toDTO).toList(), page.nextCursor());
+    }
+
+    public FhirVersioned<RelatedPersonDTO> update(String id, UpdateRelatedPersonRequestDTO dto, String ifMatch) {
+        RelatedPerson updated = fhir.patch(RelatedPerson.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.adverseEvent.Advers
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.adverseEvent.CreateAdverseEventRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.adverseEvent.UpdateAdverseEventRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.AdverseEventMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class AdverseEventService {
         return mapper.toDTO(created);
     }
 
-    public AdverseEventDTO getById(String id) {
-        return mapper.toDTO(fhir.read(AdverseEvent.class, id));
+    public FhirVersioned<AdverseEventDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(AdverseEvent.class, id), mapper::toDTO);
     }
 
-    public AdverseEventDTO update(String id, UpdateAdverseEventRequestDTO dto) {
-        AdverseEvent existing = fhir.read(AdverseEvent.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(AdverseEvent.class, existing, id);
-        AdverseEvent updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<AdverseEventDTO> update(String id, UpdateAdverseEventRequestDTO dto, String ifMatch) {
+        AdverseEvent updated = fhir.patch(AdverseEvent.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 
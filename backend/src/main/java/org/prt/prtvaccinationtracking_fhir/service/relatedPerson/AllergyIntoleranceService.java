@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.allergyIntolerance.
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.allergyIntolerance.CreateAllergyIntoleranceRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.allergyIntolerance.UpdateAllergyIntoleranceRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.AllergyIntoleranceMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class AllergyIntoleranceService {
         return mapper.toDTO(created);
     }
 
-    public AllergyIntoleranceDTO getById(String id) {
-        return mapper.toDTO(fhir.read(AllergyIntolerance.class, id));
+    public FhirVersioned<AllergyIntoleranceDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(AllergyIntolerance.class, id), mapper::toDTO);
     }
 
-    public AllergyIntoleranceDTO update(String id, UpdateAllergyIntoleranceRequestDTO dto) {
-        AllergyIntolerance existing = fhir.read(AllergyIntolerance.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(AllergyIntolerance.class, existing, id);
-        AllergyIntolerance updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<AllergyIntoleranceDTO> update(String id, UpdateAllergyIntoleranceRequestDTO dto, String ifMatch) {
+        AllergyIntolerance updated = fhir.patch(AllergyIntolerance.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 
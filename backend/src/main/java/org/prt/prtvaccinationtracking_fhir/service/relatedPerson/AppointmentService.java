@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.appointment.Appoint
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.appointment.CreateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.appointment.UpdateAppointmentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.AppointmentMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class AppointmentService {
         return mapper.toDTO(created);
     }
 
-    public AppointmentDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Appointment.class, id));
+    public FhirVersioned<AppointmentDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Appointment.class, id), mapper::toDTO);
     }
 
-    public AppointmentDTO update(String id, UpdateAppointmentRequestDTO dto) {
-        Appointment existing = fhir.read(Appointment.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Appointment.class, existing, id);
-        Appointment updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<AppointmentDTO> update(String id, UpdateAppointmentRequestDTO dto, String ifMatch) {
+        Appointment updated = fhir.patch(Appointment.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
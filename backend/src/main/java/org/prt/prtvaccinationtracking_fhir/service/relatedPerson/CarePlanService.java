@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.careplan.CarePlanDT
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.careplan.CreateCarePlanRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.careplan.UpdateCarePlanRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.CarePlanMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class CarePlanService {
         return mapper.toDTO(created);
     }
 
-    public CarePlanDTO getById(String id) {
-        return mapper.toDTO(fhir.read(CarePlan.class, id));
+    public FhirVersioned<CarePlanDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(CarePlan.class, id), mapper::toDTO);
     }
 
-    public CarePlanDTO update(String id, UpdateCarePlanRequestDTO dto) {
-        CarePlan existing = fhir.read(CarePlan.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(CarePlan.class, existing, id);
-        CarePlan updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<CarePlanDTO> update(String id, UpdateCarePlanRequestDTO dto, String ifMatch) {
+        CarePlan updated = fhir.patch(CarePlan.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.communication.Commu
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.communication.CreateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.communication.UpdateCommunicationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.CommunicationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class CommunicationService {
         return mapper.toDTO(created);
     }
 
-    public CommunicationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Communication.class, id));
+    public FhirVersioned<CommunicationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Communication.class, id), mapper::toDTO);
     }
 
-    public CommunicationDTO update(String id, UpdateCommunicationRequestDTO dto) {
-        Communication existing = fhir.read(Communication.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Communication.class, existing, id);
-        Communication updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<CommunicationDTO> update(String id, UpdateCommunicationRequestDTO dto, String ifMatch) {
+        Communication updated = fhir.patch(Communication.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.condition.Condition
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.condition.CreateConditionRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.condition.UpdateConditionRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.ConditionMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class ConditionService {
         return mapper.toDTO(created);
     }
 
-    public ConditionDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Condition.class, id));
+    public FhirVersioned<ConditionDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Condition.class, id), mapper::toDTO);
     }
 
-    public ConditionDTO update(String id, UpdateConditionRequestDTO dto) {
-        Condition existing = fhir.read(Condition.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Condition.class, existing, id);
-        Condition updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<ConditionDTO> update(String id, UpdateConditionRequestDTO dto, String ifMatch) {
+        Condition updated = fhir.patch(Condition.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.consent.ConsentDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.consent.CreateConsentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.consent.UpdateConsentRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.ConsentMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class ConsentService {
         return mapper.toDTO(created);
     }
 
-    public ConsentDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Consent.class, id));
+    public FhirVersioned<ConsentDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Consent.class, id), mapper::toDTO);
     }
 
-    public ConsentDTO update(String id, UpdateConsentRequestDTO dto) {
-        Consent existing = fhir.read(Consent.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Consent.class, existing, id);
-        Consent updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<ConsentDTO> update(String id, UpdateConsentRequestDTO dto, String ifMatch) {
+        Consent updated = fhir.patch(Consent.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.encounter.CreateEnc
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.encounter.EncounterDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.encounter.UpdateEncounterRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.EncounterMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class EncounterService {
         return mapper.toDTO(created);
     }
 
-    public EncounterDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Encounter.class, id));
+    public FhirVersioned<EncounterDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Encounter.class, id), mapper::toDTO);
     }
 
-    public EncounterDTO update(String id, UpdateEncounterRequestDTO dto) {
-        Encounter existing = fhir.read(Encounter.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Encounter.class, existing, id);
-        Encounter updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<EncounterDTO> update(String id, UpdateEncounterRequestDTO dto, String ifMatch) {
+        Encounter updated = fhir.patch(Encounter.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
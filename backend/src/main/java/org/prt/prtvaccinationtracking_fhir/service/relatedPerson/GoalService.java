@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.goal.CreateGoalRequ
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.goal.GoalDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.goal.UpdateGoalRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.GoalMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class GoalService {
         return mapper.toDTO(created);
     }
 
-    public GoalDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Goal.class, id));
+    public FhirVersioned<GoalDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Goal.class, id), mapper::toDTO);
     }
 
-    public GoalDTO update(String id, UpdateGoalRequestDTO dto) {
-        Goal existing = fhir.read(Goal.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Goal.class, existing, id);
-        Goal updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<GoalDTO> update(String id, UpdateGoalRequestDTO dto, String ifMatch) {
+        Goal updated = fhir.patch(Goal.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
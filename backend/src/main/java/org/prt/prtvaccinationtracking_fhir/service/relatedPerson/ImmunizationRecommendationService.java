@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.recommendation.Crea
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.recommendation.ImmunizationRecommendationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.recommendation.UpdateImmunizationRecommendationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.RecommendationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class ImmunizationRecommendationService {
         return mapper.toDTO(created);
     }
 
-    public ImmunizationRecommendationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(ImmunizationRecommendation.class, id));
+    public FhirVersioned<ImmunizationRecommendationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(ImmunizationRecommendation.class, id), mapper::toDTO);
     }
 
-    public ImmunizationRecommendationDTO update(String id, UpdateImmunizationRecommendationRequestDTO dto) {
-        ImmunizationRecommendation existing = fhir.read(ImmunizationRecommendation.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(ImmunizationRecommendation.class, existing, id);
-        ImmunizationRecommendation updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<ImmunizationRecommendationDTO> update(String id, UpdateImmunizationRecommendationRequestDTO dto, String ifMatch) {
+        ImmunizationRecommendation updated = fhir.patch(ImmunizationRecommendation.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
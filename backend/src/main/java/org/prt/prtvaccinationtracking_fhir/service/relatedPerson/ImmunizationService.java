@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.Create
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.ImmunizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.immunization.UpdateImmunizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.ImmunizationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class ImmunizationService {
         return mapper.toDTO(created);
     }
 
-    public ImmunizationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Immunization.class, id));
+    public FhirVersioned<ImmunizationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Immunization.class, id), mapper::toDTO);
     }
 
-    public ImmunizationDTO update(String id, UpdateImmunizationRequestDTO dto) {
-        Immunization existing = fhir.read(Immunization.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Immunization.class, existing, id);
-        Immunization updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<ImmunizationDTO> update(String id, UpdateImmunizationRequestDTO dto, String ifMatch) {
+        Immunization updated = fhir.patch(Immunization.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.location.CreateLoca
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.location.LocationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.location.UpdateLocationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.LocationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class LocationService {
         return mapper.toDTO(created);
     }
 
-    public LocationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Location.class, id));
+    public FhirVersioned<LocationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Location.class, id), mapper::toDTO);
     }
 
-    public LocationDTO update(String id, UpdateLocationRequestDTO dto) {
-        Location existing = fhir.read(Location.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Location.class, existing, id);
-        Location updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<LocationDTO> update(String id, UpdateLocationRequestDTO dto, String ifMatch) {
+        Location updated = fhir.patch(Location.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
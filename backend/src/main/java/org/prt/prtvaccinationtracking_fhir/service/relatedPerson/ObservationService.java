@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.observation.CreateO
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.observation.ObservationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.observation.UpdateObservationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.ObservationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class ObservationService {
         return mapper.toDTO(created);
     }
 
-    public ObservationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Observation.class, id));
+    public FhirVersioned<ObservationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Observation.class, id), mapper::toDTO);
     }
 
-    public ObservationDTO update(String id, UpdateObservationRequestDTO dto) {
-        Observation existing = fhir.read(Observation.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Observation.class, existing, id);
-        Observation updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<ObservationDTO> update(String id, UpdateObservationRequestDTO dto, String ifMatch) {
+        Observation updated = fhir.patch(Observation.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.organization.Create
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.organization.OrganizationDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.organization.UpdateOrganizationRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.OrganizationMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class OrganizationService {
         return mapper.toDTO(created);
     }
 
-    public OrganizationDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Organization.class, id));
+    public FhirVersioned<OrganizationDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Organization.class, id), mapper::toDTO);
     }
 
-    public OrganizationDTO update(String id, UpdateOrganizationRequestDTO dto) {
-        Organization existing = fhir.read(Organization.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Organization.class, existing, id);
-        Organization updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<OrganizationDTO> update(String id, UpdateOrganizationRequestDTO dto, String ifMatch) {
+        Organization updated = fhir.patch(Organization.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.patient.CreatePatie
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.patient.PatientDetailsDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.patient.UpdatePatientRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.PatientMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class PatientService {
         return mapper.toDetailsDTO(created);
     }
 
-    public PatientDetailsDTO getById(String id) {
-        return mapper.toDetailsDTO(fhir.read(Patient.class, id));
+    public FhirVersioned<PatientDetailsDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Patient.class, id), mapper::toDetailsDTO);
     }
 
-    public PatientDetailsDTO update(String id, UpdatePatientRequestDTO dto) {
-        Patient existing = fhir.read(Patient.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Patient.class, existing, id);
-        Patient updated = fhir.update(existing);
-        return mapper.toDetailsDTO(updated);
+    public FhirVersioned<PatientDetailsDTO> update(String id, UpdatePatientRequestDTO dto, String ifMatch) {
+        Patient updated = fhir.patch(Patient.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDetailsDTO);
     }
 
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.practitioner.Create
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.practitioner.PractitionerDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.practitioner.UpdatePractitionerRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.PractitionerMapper;
 import org.springframework.stereotype.Service;
 
@@ -14,27 +16,28 @@ public class PractitionerService {
 
     private final FhirGateway fhir;
     private final PractitionerMapper mapper;
+    private final PractitionerDirectory directory;
 
-    public PractitionerService(FhirGateway fhir, PractitionerMapper mapper) {
+    public PractitionerService(FhirGateway fhir, PractitionerMapper mapper, PractitionerDirectory directory) {
         this.fhir = fhir;
         this.mapper = mapper;
+        this.directory = directory;
     }
 
     public PractitionerDTO create(CreatePractitionerRequestDTO dto) {
         Practitioner resource = mapper.toResource(dto);
         Practitioner created = fhir.create(resource);
+        directory.remember(created);
         return mapper.toDTO(created);
     }
 
-    public PractitionerDTO getById(String id) {
-        return mapper.toDTO(fhir.read(Practitioner.class, id));
+    public FhirVersioned<PractitionerDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(Practitioner.class, id), mapper::toDTO);
     }
 
-    public PractitionerDTO update(String id, UpdatePractitionerRequestDTO dto) {
-        Practitioner existing = fhir.read(Practitioner.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(Practitioner.class, existing, id);
-        Practitioner updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<PractitionerDTO> update(String id, UpdatePractitionerRequestDTO dto, String ifMatch) {
+        Practitioner updated = fhir.patch(Practitioner.class, id, mapper.toPatch(dto), ifMatch);
+        directory.remember(updated);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 }
\ No newline at end of file
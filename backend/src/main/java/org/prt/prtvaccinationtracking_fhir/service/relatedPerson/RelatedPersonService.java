@@ -5,6 +5,7 @@ import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.relatedPerson.Creat
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.relatedPerson.RelatedPersonDTO;
 import org.prt.prtvaccinationtracking_fhir.dto.relatedPerson.relatedPerson.UpdateRelatedPersonRequestDTO;
 import org.prt.prtvaccinationtracking_fhir.fhir.FhirGateway;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirVersioned;
 import org.prt.prtvaccinationtracking_fhir.mapper.relatedPerson.RelatedPersonMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,16 +26,13 @@ public class RelatedPersonService {
         return mapper.toDTO(created);
     }
 
-    public RelatedPersonDTO getById(String id) {
-        return mapper.toDTO(fhir.read(RelatedPerson.class, id));
+    public FhirVersioned<RelatedPersonDTO> getById(String id) {
+        return FhirVersioned.of(fhir.read(RelatedPerson.class, id), mapper::toDTO);
     }
 
-    public RelatedPersonDTO update(String id, UpdateRelatedPersonRequestDTO dto) {
-        RelatedPerson existing = fhir.read(RelatedPerson.class, id);
-        mapper.updateResource(dto, existing);
-        fhir.ensureId(RelatedPerson.class, existing, id);
-        RelatedPerson updated = fhir.update(existing);
-        return mapper.toDTO(updated);
+    public FhirVersioned<RelatedPersonDTO> update(String id, UpdateRelatedPersonRequestDTO dto, String ifMatch) {
+        RelatedPerson updated = fhir.patch(RelatedPerson.class, id, mapper.toPatch(dto), ifMatch);
+        return FhirVersioned.of(updated, mapper::toDTO);
     }
 
 }
\ No newline at end of file
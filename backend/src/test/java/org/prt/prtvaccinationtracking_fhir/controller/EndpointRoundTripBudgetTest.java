@@ -0,0 +1,161 @@
+package org.prt.prtvaccinationtracking_fhir.controller;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Immunization;
+import org.hl7.fhir.r5.model.Patient;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Resource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
+import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
+import org.prt.prtvaccinationtracking_fhir.auth.service.JwtService;
+import org.prt.prtvaccinationtracking_fhir.loadtest.StubFhirServer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.prt.prtvaccinationtracking_fhir.fhir.FhirRoundTripBudget.atMost;
+import static org.prt.prtvaccinationtracking_fhir.fhir.FhirRoundTripBudget.exactly;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * FHIR round-trip budgets of the practitioner endpoints, against the load test's in-memory
+ * FHIR server seeded from {@code seed/practitioner-view-bundle.json}. Reads go through the
+ * micro-batcher, so batched reads have to be counted as well.
+ */
+@SpringBootTest(properties = {
+        "fhir.logging.enabled=false",
+        "fhir.batching.enabled=true",
+        "fhir.batching.window=1ms"
+})
+@AutoConfigureMockMvc
+class EndpointRoundTripBudgetTest {
+
+    private static final FhirContext FHIR = FhirContext.forR5();
+    private static final Bundle SEED = seed();
+    private static final StubFhirServer SERVER = new StubFhirServer(FHIR, Duration.ZERO, Duration.ZERO);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final String patient = first(Patient.class);
+    private String token;
+
+    @DynamicPropertySource
+    static void fhirServer(DynamicPropertyRegistry registry) throws Exception {
+        SERVER.seed(SEED);
+        String baseUrl = SERVER.start();
+        registry.add("fhir.server.base-url", () -> baseUrl);
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        SERVER.close();
+    }
+
+    @BeforeEach
+    void signIn() {
+        String practitioner = first(Practitioner.class);
+        token = jwtService.createAccessToken(new AuthenticatedUser("practitioner:" + practitioner, "budget-test",
+                UserRole.PRACTITIONER, "Budget Test", "Practitioner/" + practitioner, practitioner,
+                List.of(), List.of()), "openid fhirUser user/*.*");
+    }
+
+    @Test
+    void patientEndpoints() throws Exception {
+        expect(get("/api/practitioner/patients/" + patient), 1);
+        expect(get("/api/practitioner/patients?_count=2"), 1);
+        expect(get("/api/practitioner/patients/" + patient + "/chart"), 1);
+        expect(get("/api/practitioner/patients/" + patient + "/encounters/blocks"), 1);
+        expect(put("/api/practitioner/patients/" + patient)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"phone\":\"+43 1 234\"}"), 1);
+        expect(post("/api/practitioner/patients")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"svnr\":\"1234010190\",\"firstName\":\"Budget\",\"lastName\":\"Test\","
+                        + "\"birthDate\":\"1990-01-01\",\"gender\":\"other\"}"), 1);
+    }
+
+    @Test
+    void immunizationEndpoints() throws Exception {
+        // A batched read runs on a flush thread but still belongs to this request
+        mockMvc.perform(get("/api/practitioner/immunizations/" + first(Immunization.class))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(exactly(1));
+        expect(put("/api/practitioner/immunizations/" + first(Immunization.class))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lotNumber\":\"LOT-1\"}"), 1);
+        expect(post("/api/practitioner/immunizations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"patientId\":\"" + patient + "\",\"status\":\"completed\",\"vaccineCode\":\"08\","
+                        + "\"administrationDate\":\"2024-05-01\",\"doseNumber\":1}"), 1);
+
+        String firstPage = expect(get("/api/practitioner/immunizations?_count=2"), 1);
+        JsonNode cursor = json.readTree(firstPage).path("nextCursor");
+        assertFalse(cursor.isMissingNode() || cursor.isNull(), "first page has no cursor: " + firstPage);
+        expect(get("/api/practitioner/immunizations?cursor=" + cursor.asText()), 1);
+    }
+
+    @Test
+    void otherListEndpoints() throws Exception {
+        expect(get("/api/practitioner/observations?patient=" + patient), 1);
+        expect(get("/api/practitioner/appointments?patient=" + patient), 1);
+        expect(get("/api/practitioner/encounters?patient=" + patient), 1);
+        expect(get("/api/practitioner/related-persons?patient=" + patient), 1);
+    }
+
+    /** Performs the call, expects a 200 within {@code budget} FHIR requests and returns the body. */
+    private String expect(MockHttpServletRequestBuilder request, int budget) throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(atMost(budget))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private static String first(Class<? extends Resource> type) {
+        return SEED.getEntry().stream()
+                .map(Bundle.BundleEntryComponent::getResource)
+                .filter(type::isInstance)
+                .map(resource -> resource.getIdElement().getIdPart())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Bundle seed() {
+        try {
+            return FHIR.newJsonParser().parseResource(Bundle.class,
+                    Files.readString(Path.of("seed/practitioner-view-bundle.json")));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
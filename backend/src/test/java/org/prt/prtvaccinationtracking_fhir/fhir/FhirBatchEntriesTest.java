@@ -0,0 +1,53 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.OperationOutcome;
+import org.hl7.fhir.r5.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** A failed batch entry must surface as an error, never as an empty section. */
+class FhirBatchEntriesTest {
+
+    @Test
+    void returnsTheSearchsetOfASuccessfulEntry() {
+        Bundle searchset = new Bundle().setType(Bundle.BundleType.SEARCHSET);
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent().setResource(searchset);
+        entry.getResponse().setStatus("200 OK");
+
+        assertSame(searchset, FhirBatchEntries.searchset(entry, "Immunization search"));
+    }
+
+    @Test
+    void throwsWithTheStatusOfAFailedEntry() {
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+        entry.getResponse().setStatus("500 Internal Server Error").setOutcome(new OperationOutcome()
+                .addIssue(new OperationOutcome.OperationOutcomeIssueComponent().setDiagnostics("database down")));
+
+        InternalErrorException exception = assertThrows(InternalErrorException.class,
+                () -> FhirBatchEntries.searchset(entry, "Immunization search"));
+        assertTrue(exception.getMessage().contains("Immunization search"));
+        assertTrue(exception.getMessage().contains("database down"));
+    }
+
+    @Test
+    void keepsNotFoundForAMissingRead() {
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
+        entry.getResponse().setStatus("404");
+
+        assertThrows(ResourceNotFoundException.class, () -> FhirBatchEntries.resource(entry, "Patient/p1"));
+    }
+
+    @Test
+    void rejectsAnEntryThatIsNotASearchset() {
+        Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent().setResource(new Patient());
+        entry.getResponse().setStatus("200 OK");
+
+        assertThrows(IllegalStateException.class, () -> FhirBatchEntries.searchset(entry, "Immunization search"));
+    }
+}
@@ -0,0 +1,48 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FhirPageCursorsTest {
+
+    private final FhirPageCursors cursors = new FhirPageCursors("test-secret");
+
+    @Test
+    void pagingLinksRoundTripWithoutResponseShapingParameters() {
+        String cursor = cursors.encode("Patient",
+                "http://fhir/fhir?_getpages=4f1c-9a&_getpagesoffset=20&_count=20&_pretty=true&_bundletype=searchset");
+
+        assertEquals("?_getpages=4f1c-9a&_getpagesoffset=20&_count=20", cursors.decode("Patient", cursor));
+    }
+
+    @Test
+    void cursorsAreBoundToTheResourceTypeAndKey() {
+        String cursor = cursors.encode("Patient", "http://fhir/fhir?_getpages=abc&_getpagesoffset=20");
+
+        assertThrows(IllegalArgumentException.class, () -> cursors.decode("Immunization", cursor));
+        assertThrows(IllegalArgumentException.class, () -> new FhirPageCursors("other").decode("Patient", cursor));
+    }
+
+    @Test
+    void forgedOrMalformedCursorsAreRejected() {
+        String unsigned = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("/Patient/p1".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> cursors.decode("Patient", unsigned));
+        assertThrows(IllegalArgumentException.class, () -> cursors.decode("Patient", unsigned + ".AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> cursors.decode("Patient", "%%%.%%%"));
+    }
+
+    @Test
+    void linksThatAreNotServerPagingAreRefused() {
+        assertThrows(IllegalStateException.class,
+                () -> cursors.encode("Patient", "http://fhir/fhir/Patient?_offset=20"));
+        assertThrows(IllegalStateException.class,
+                () -> cursors.encode("Patient", "http://fhir/fhir?_getpages=../x&_getpagesoffset=20"));
+    }
+}
@@ -0,0 +1,80 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hl7.fhir.r5.model.Location;
+import org.junit.jupiter.api.Test;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FhirResourceCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void servesFreshEntriesWithoutLoading() {
+        FhirResourceCache cache = new FhirResourceCache(new FhirProperties(), registry);
+        AtomicInteger loads = new AtomicInteger();
+        Location location = location("1");
+
+        cache.read(Location.class, "loc-1", version -> {
+            loads.incrementAndGet();
+            return location;
+        });
+        Location cached = cache.read(Location.class, "loc-1", version -> {
+            loads.incrementAndGet();
+            return location("2");
+        });
+
+        assertSame(location, cached);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "fhir.resources").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void revalidatesStaleEntriesWithTheirVersion() {
+        FhirProperties properties = new FhirProperties();
+        properties.getCache().setTimeToLive(Duration.ZERO);
+        FhirResourceCache cache = new FhirResourceCache(properties, registry);
+        Location location = location("7");
+
+        cache.read(Location.class, "loc-1", version -> location);
+        Location revalidated = cache.read(Location.class, "loc-1", version -> {
+            assertEquals("7", version);
+            return null;
+        });
+
+        assertSame(location, revalidated);
+    }
+
+    @Test
+    void doesNotStoreAValueLoadedAcrossAnInvalidation() {
+        FhirResourceCache cache = new FhirResourceCache(new FhirProperties(), registry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.read(Location.class, "loc-1", version -> {
+            loads.incrementAndGet();
+            cache.invalidate("Location", "loc-1");
+            return location("1");
+        });
+        cache.read(Location.class, "loc-1", version -> {
+            assertNull(version);
+            loads.incrementAndGet();
+            return location("2");
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static Location location(String versionId) {
+        Location location = new Location();
+        location.setId("Location/loc-1");
+        location.getMeta().setVersionId(versionId);
+        return location;
+    }
+}
@@ -0,0 +1,45 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc expectation on the number of FHIR requests an API call made, as counted by
+ * {@link FhirRoundTripFilter}:
+ * <pre>
+ * mockMvc.perform(get("/api/practitioner/patients/p1"))
+ *         .andExpect(status().isOk())
+ *         .andExpect(FhirRoundTripBudget.atMost(1));
+ * </pre>
+ */
+public final class FhirRoundTripBudget {
+
+    private FhirRoundTripBudget() {
+    }
+
+    public static ResultMatcher atMost(int budget) {
+        return result -> {
+            int count = count(result);
+            assertTrue(count <= budget, call(result) + " made " + count + " FHIR requests, budget is " + budget);
+        };
+    }
+
+    /** For calls whose FHIR requests run on other threads, where an undercount would hide them. */
+    public static ResultMatcher exactly(int expected) {
+        return result -> assertEquals(expected, count(result), call(result) + " FHIR requests");
+    }
+
+    private static int count(MvcResult result) {
+        Object count = result.getRequest().getAttribute(FhirRoundTrips.COUNT_ATTRIBUTE);
+        assertNotNull(count, call(result) + " was not counted; only /api/ requests are");
+        return (Integer) count;
+    }
+
+    private static String call(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
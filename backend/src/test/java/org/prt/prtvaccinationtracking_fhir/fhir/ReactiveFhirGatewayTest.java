@@ -0,0 +1,126 @@
+package org.prt.prtvaccinationtracking_fhir.fhir;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.Immunization;
+import org.hl7.fhir.r5.model.Patient;
+import org.hl7.fhir.r5.model.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prt.prtvaccinationtracking_fhir.config.FhirClientConfig;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveFhirGatewayTest {
+
+    private static final FhirContext FHIR = FhirContext.forR5();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private ReactiveFhirGateway gateway;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fhir", this::handle);
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/fhir";
+        FhirProperties properties = new FhirProperties();
+        WebClient webClient = new FhirClientConfig().fhirWebClient(WebClient.builder(), properties, registry, baseUrl);
+        gateway = new ReactiveFhirGateway(webClient, FHIR, new FhirResourceCache(properties, registry),
+                new FhirRequestCoalescer(registry), baseUrl);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void readsAreTimedAndCountedForTheCallingRequest() {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.open();
+        Patient patient;
+        try {
+            patient = gateway.read(Patient.class, "p1").block();
+        } finally {
+            FhirRoundTrips.close();
+        }
+
+        assertEquals("p1", patient.getIdElement().getIdPart());
+        assertEquals(1, tally.count());
+        assertEquals(1, registry.get("fhir.client.requests")
+                .tag("type", "Patient").tag("operation", "read").tag("status", "200").timer().count());
+    }
+
+    @Test
+    void searchFollowsNextLinksAndParsesOffTheEventLoop() {
+        FhirRoundTrips.Tally tally = FhirRoundTrips.open();
+        List<String> threads;
+        List<Resource> resources;
+        try {
+            resources = gateway.search("Immunization?patient=p1").collectList().block();
+            threads = gateway.search("Immunization?patient=p1")
+                    .map(resource -> Thread.currentThread().getName())
+                    .collectList()
+                    .block();
+        } finally {
+            FhirRoundTrips.close();
+        }
+
+        assertEquals(List.of("i1", "i2"), resources.stream().map(r -> r.getIdElement().getIdPart()).toList());
+        assertEquals(4, tally.count());
+        threads.forEach(thread -> assertFalse(thread.startsWith("reactor-http"), thread));
+    }
+
+    @Test
+    void errorsBecomeTheMatchingServerException() {
+        assertThrows(ResourceNotFoundException.class, () -> gateway.read(Patient.class, "missing").block());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String uri = exchange.getRequestURI().toString();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/fhir";
+        Resource body;
+        int status = 200;
+        if (uri.equals("/fhir/Patient/p1")) {
+            body = new Patient().setId("p1");
+        } else if (uri.startsWith("/fhir/Immunization?")) {
+            body = page(new Immunization().setId("i1"));
+            ((Bundle) body).addLink().setRelation(Bundle.LinkRelationTypes.NEXT).setUrl(base + "?_getpages=x&_getpagesoffset=1");
+        } else if (uri.startsWith("/fhir?_getpages=x")) {
+            body = page(new Immunization().setId("i2"));
+        } else {
+            status = 404;
+            body = new org.hl7.fhir.r5.model.OperationOutcome();
+        }
+
+        byte[] bytes = FHIR.newJsonParser().encodeResourceToString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/fhir+json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Bundle page(Resource resource) {
+        Bundle bundle = new Bundle().setType(Bundle.BundleType.SEARCHSET);
+        bundle.addEntry().setResource(resource).getSearch().setMode(Bundle.SearchEntryMode.MATCH);
+        return bundle;
+    }
+}
@@ -0,0 +1,51 @@
+package org.prt.prtvaccinationtracking_fhir.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.prt.prtvaccinationtracking_fhir.auth.model.AuthenticatedUser;
+import org.prt.prtvaccinationtracking_fhir.auth.model.UserRole;
+import org.prt.prtvaccinationtracking_fhir.auth.service.JwtService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"management.server.port=0", "fhir.logging.enabled=false"})
+class FlightRecorderEndpointSecurityTest {
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void recordingsNeedAPractitioner() {
+        RestClient client = RestClient.create("http://127.0.0.1:" + managementPort);
+
+        HttpClientErrorException anonymous = assertThrows(HttpClientErrorException.class,
+                () -> client.get().uri("/actuator/jfr").retrieve().toBodilessEntity());
+        assertEquals(401, anonymous.getStatusCode().value());
+
+        HttpClientErrorException relatedPerson = assertThrows(HttpClientErrorException.class,
+                () -> client.get().uri("/actuator/jfr")
+                        .header("Authorization", "Bearer " + token(UserRole.RELATED_PERSON))
+                        .retrieve().toBodilessEntity());
+        assertEquals(403, relatedPerson.getStatusCode().value());
+
+        assertEquals(200, client.get().uri("/actuator/jfr")
+                .header("Authorization", "Bearer " + token(UserRole.PRACTITIONER))
+                .retrieve().toBodilessEntity().getStatusCode().value());
+    }
+
+    private String token(UserRole role) {
+        return jwtService.createAccessToken(new AuthenticatedUser("test:" + role.externalValue(), "jfr-test",
+                role, "JFR Test", null, null, List.of(), List.of()), "openid");
+    }
+}
@@ -0,0 +1,314 @@
+package org.prt.prtvaccinationtracking_fhir.mapper.practitioner;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hl7.fhir.r5.model.Appointment;
+import org.hl7.fhir.r5.model.HumanName;
+import org.hl7.fhir.r5.model.Immunization;
+import org.hl7.fhir.r5.model.Observation;
+import org.hl7.fhir.r5.model.Patient;
+import org.hl7.fhir.r5.model.Practitioner;
+import org.hl7.fhir.r5.model.Resource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.prt.prtvaccinationtracking_fhir.config.FhirProperties;
+import org.prt.prtvaccinationtracking_fhir.fhir.FhirBundleStreamReader;
+import org.prt.prtvaccinationtracking_fhir.fhir.PractitionerDirectory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * The JSON projections ({@code toDTO(JsonNode)}) must produce exactly what the HAPI path produces for the same
+ * resource. Each fixture is read through {@link FhirBundleStreamReader} both ways, so both sides see the same
+ * parser configuration as production.
+ */
+class JsonProjectionTest {
+
+    private static final FhirBundleStreamReader READER =
+            new FhirBundleStreamReader(FhirContext.forR5(), null, "http://localhost/fhir");
+
+    private static final String EXTENSION =
+            "\"extension\": [{\"url\": \"http://example.org/fhir/StructureDefinition/note\", \"valueString\": \"x\"}]";
+
+    private static final String IMMUNIZATION_MINIMAL = """
+            {"resourceType": "Immunization", "id": "imm-min"}
+            """;
+
+    private static final String IMMUNIZATION_PARTIAL = """
+            {
+              "resourceType": "Immunization",
+              "id": "imm-partial",
+              "status": "not-done",
+              "vaccineCode": {"coding": [{"system": "http://hl7.org/fhir/sid/cvx"}], "text": "Influenza"},
+              "patient": {"reference": "Patient/patient-001/_history/3"},
+              "occurrenceString": "spring 2023",
+              "protocolApplied": [{"doseNumber": "booster"}],
+              "site": {"coding": [{"code": "LA"}]},
+              "performer": [
+                {"function": {"text": "AP"}},
+                {"actor": {"reference": "Practitioner/unknown"}},
+                {"actor": {"display": "Dr. Display"}}
+              ]
+            }
+            """;
+
+    private static final String IMMUNIZATION_FULL = """
+            {
+              "resourceType": "Immunization",
+              "id": "imm-full",
+              "meta": {"versionId": "2"},
+              %s,
+              "status": "completed",
+              "vaccineCode": {"coding": [{"code": "FSME", "display": "FSME-Immun"}], "text": "ignored"},
+              "patient": {"reference": "http://localhost/fhir/Patient/patient-002"},
+              "encounter": {"reference": "Encounter/enc-002"},
+              "occurrenceDateTime": "2024-03-01T23:30:00+01:00",
+              "_lotNumber": {%s},
+              "site": {"text": "Left arm", "coding": [{"code": "LA", "display": "left arm"}]},
+              "protocolApplied": [{"doseNumber": "2"}],
+              "performer": [{"actor": {"reference": "Practitioner/pr-1", "display": "shadowed"}}],
+              "reaction": [{%s}]
+            }
+            """.formatted(EXTENSION, EXTENSION, EXTENSION);
+
+    private static final String IMMUNIZATION_STATUS_EXTENSION = """
+            {
+              "resourceType": "Immunization",
+              "id": "imm-status-ext",
+              "_status": {%s},
+              "lotNumber": "AB-1",
+              "occurrenceDateTime": "2024-02-29",
+              "performer": [{"actor": {%s}}, {"actor": {"reference": "Practitioner/pr-2"}}]
+            }
+            """.formatted(EXTENSION, EXTENSION);
+
+    private static final String OBSERVATION_MINIMAL = """
+            {"resourceType": "Observation", "id": "obs-min", "status": "final"}
+            """;
+
+    private static final String OBSERVATION_PARTIAL = """
+            {
+              "resourceType": "Observation",
+              "id": "obs-partial",
+              "status": "final",
+              "code": {"text": "Body temperature"},
+              "valueQuantity": {"unit": "Cel"},
+              "effectivePeriod": {"start": "2024-01-01"}
+            }
+            """;
+
+    private static final String OBSERVATION_STRING_VALUE = """
+            {
+              "resourceType": "Observation",
+              "id": "obs-string",
+              "status": "final",
+              "code": {"coding": [{"code": "8310-5"}]},
+              "valueString": "38.5",
+              "effectiveDateTime": "2024-01-01"
+            }
+            """;
+
+    private static final String OBSERVATION_FULL = """
+            {
+              "resourceType": "Observation",
+              "id": "obs-full",
+              %s,
+              "status": "final",
+              "code": {"coding": [{"code": "29463-7", "display": "Body weight", %s}], "text": "ignored"},
+              "valueQuantity": {"value": 70.50, "unit": "kg", "_unit": {%s}},
+              "effectiveDateTime": "2024-03-01T08:15:30.250+02:00"
+            }
+            """.formatted(EXTENSION, EXTENSION, EXTENSION);
+
+    private static final String OBSERVATION_SMALL_VALUE = """
+            {
+              "resourceType": "Observation",
+              "id": "obs-small",
+              "status": "final",
+              "valueQuantity": {"value": 0.0000120, "unit": "mg"}
+            }
+            """;
+
+    private static final String APPOINTMENT_MINIMAL = """
+            {"resourceType": "Appointment", "id": "app-min", "participant": [{"status": "accepted"}]}
+            """;
+
+    private static final String APPOINTMENT_PARTIAL = """
+            {
+              "resourceType": "Appointment",
+              "id": "app-partial",
+              "status": "proposed",
+              "start": "2024-05-02T09:00:00Z",
+              "reason": [{"reference": {"reference": "Condition/c-1"}}],
+              "participant": [
+                {"actor": {"display": "Front desk"}, "status": "accepted"},
+                {"actor": {"reference": "Practitioner/unknown"}, "status": "accepted"},
+                {"actor": {"reference": "Location/loc-1"}, "status": "accepted"}
+              ]
+            }
+            """;
+
+    private static final String APPOINTMENT_FULL = """
+            {
+              "resourceType": "Appointment",
+              "id": "app-full",
+              %s,
+              "status": "booked",
+              "start": "2024-05-02T09:00:00.000+02:00",
+              "end": "2024-05-02T09:30:00+02:00",
+              "reason": [{"concept": {"coding": [{"code": "VACC", "display": "Vaccination"}]}}],
+              "participant": [
+                {"actor": {"reference": "Patient/patient-003", %s}, "status": "accepted"},
+                {"actor": {"reference": "Practitioner/pr-1"}, "status": "accepted"},
+                {"actor": {"reference": "Location/loc-2"}, "status": "accepted"}
+              ]
+            }
+            """.formatted(EXTENSION, EXTENSION);
+
+    private static final String APPOINTMENT_STATUS_EXTENSION = """
+            {
+              "resourceType": "Appointment",
+              "id": "app-status-ext",
+              "_status": {%s},
+              "reason": [{"concept": {"coding": [{"code": "VACC"}]}}],
+              "participant": [{"actor": {"reference": "Practitioner/pr-2"}, "status": "accepted"}]
+            }
+            """.formatted(EXTENSION);
+
+    private static final String PATIENT_MINIMAL = """
+            {"resourceType": "Patient", "id": "pat-min"}
+            """;
+
+    private static final String PATIENT_PARTIAL = """
+            {
+              "resourceType": "Patient",
+              "id": "pat-partial",
+              "identifier": [{"system": "urn:oid:1.2.3"}, {"system": "urn:other", "value": "X1"}, {"value": "1234010190"}],
+              "name": [{"family": "Huber"}, {"given": ["Second"]}],
+              "birthDate": "1990-05",
+              "telecom": [{"system": "phone"}, {"system": "email", "value": "a@example.org"}, {"system": "phone", "value": "+43 1"}],
+              "address": [{"line": ["Hauptstrasse 1"], "city": "Wien"}]
+            }
+            """;
+
+    private static final String PATIENT_FULL = """
+            {
+              "resourceType": "Patient",
+              "id": "pat-full",
+              %s,
+              "identifier": [{"system": "app:svnr", "value": "5678150385", %s}],
+              "name": [{"given": ["Anna", "Maria"], "_given": [{%s}, null], "family": "Gruber"}],
+              "gender": "female",
+              "birthDate": "1985-03-15",
+              "telecom": [{"system": "phone", "value": "+43 660 1234567"}],
+              "address": [{"text": "Hauptstrasse 1, 1010 Wien", %s}]
+            }
+            """.formatted(EXTENSION, EXTENSION, EXTENSION, EXTENSION);
+
+    private static final String PATIENT_PRIMITIVE_EXTENSIONS = """
+            {
+              "resourceType": "Patient",
+              "id": "pat-ext",
+              "name": [{"given": [null, "Maria"], "_given": [{%s}, null], "_family": {%s}}],
+              "_gender": {%s},
+              "_birthDate": {%s}
+            }
+            """.formatted(EXTENSION, EXTENSION, EXTENSION, EXTENSION);
+
+    private final MapperSupport support = mapperSupport();
+    private final ImmunizationMapper immunizationMapper = new ImmunizationMapper(support);
+    private final ObservationMapper observationMapper = new ObservationMapper(support);
+    private final AppointmentMapper appointmentMapper = new AppointmentMapper(support);
+    private final PatientMapper patientMapper = new PatientMapper(support);
+
+    @ParameterizedTest
+    @MethodSource("immunizations")
+    void immunizationProjectionMatchesResourceMapping(String fixture) throws IOException {
+        assertNotNull(immunizationMapper.toDTO(json(fixture)));
+        assertEquals(immunizationMapper.toDTO((Immunization) resource(fixture)), immunizationMapper.toDTO(json(fixture)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("observations")
+    void observationProjectionMatchesResourceMapping(String fixture) throws IOException {
+        assertNotNull(observationMapper.toDTO(json(fixture)));
+        assertEquals(observationMapper.toDTO((Observation) resource(fixture)), observationMapper.toDTO(json(fixture)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("appointments")
+    void appointmentProjectionMatchesResourceMapping(String fixture) throws IOException {
+        assertNotNull(appointmentMapper.toDTO(json(fixture)));
+        assertEquals(appointmentMapper.toDTO((Appointment) resource(fixture)), appointmentMapper.toDTO(json(fixture)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("patients")
+    void patientProjectionMatchesResourceMapping(String fixture) throws IOException {
+        assertNotNull(patientMapper.toDetailsDTO(json(fixture)));
+        assertEquals(patientMapper.toDetailsDTO((Patient) resource(fixture)), patientMapper.toDetailsDTO(json(fixture)));
+    }
+
+    static Stream<String> immunizations() {
+        return Stream.of(IMMUNIZATION_MINIMAL, IMMUNIZATION_PARTIAL, IMMUNIZATION_FULL, IMMUNIZATION_STATUS_EXTENSION);
+    }
+
+    static Stream<String> observations() {
+        return Stream.of(OBSERVATION_MINIMAL, OBSERVATION_PARTIAL, OBSERVATION_STRING_VALUE, OBSERVATION_FULL, OBSERVATION_SMALL_VALUE);
+    }
+
+    static Stream<String> appointments() {
+        return Stream.of(APPOINTMENT_MINIMAL, APPOINTMENT_PARTIAL, APPOINTMENT_FULL, APPOINTMENT_STATUS_EXTENSION);
+    }
+
+    static Stream<String> patients() {
+        return Stream.of(PATIENT_MINIMAL, PATIENT_PARTIAL, PATIENT_FULL, PATIENT_PRIMITIVE_EXTENSIONS);
+    }
+
+    private static MapperSupport mapperSupport() {
+        FhirProperties properties = new FhirProperties();
+        properties.getDirectory().setEnabled(false);
+
+        PractitionerDirectory directory = new PractitionerDirectory(null, properties, new SimpleMeterRegistry());
+        directory.remember(practitioner("pr-1", "Eva", "Mueller"));
+        directory.remember(practitioner("pr-2", "Paul", "Berger"));
+        return new MapperSupport(directory);
+    }
+
+    private static Practitioner practitioner(String id, String given, String family) {
+        Practitioner practitioner = new Practitioner();
+        practitioner.setId(id);
+        practitioner.addName(new HumanName().addGiven(given).setFamily(family));
+        return practitioner;
+    }
+
+    private static JsonNode json(String fixture) throws IOException {
+        List<JsonNode> entries = new ArrayList<>();
+        READER.readEntries(bundle(fixture), entry -> entries.add(entry.get("resource")));
+        assertEquals(1, entries.size());
+        return entries.get(0);
+    }
+
+    private static Resource resource(String fixture) throws IOException {
+        List<Resource> resources = new ArrayList<>();
+        READER.read(bundle(fixture), resources::add);
+        assertEquals(1, resources.size());
+        return resources.get(0);
+    }
+
+    private static InputStream bundle(String resource) {
+        String bundle = "{\"resourceType\": \"Bundle\", \"type\": \"searchset\", \"entry\": [{\"resource\": "
+                + resource + "}]}";
+        return new ByteArrayInputStream(bundle.getBytes(StandardCharsets.UTF_8));
+    }
+}